@@ -1,7 +1,9 @@
 package com.openclassroom.safetynet.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -9,10 +11,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * Configuration class for the application.
  * 
  * This class defines a bean for the ObjectMapper, which is used for JSON
- * serialization and deserialization.
+ * serialization and deserialization, binds the {@link StorageProperties} and
+ * {@link ViewProperties} and enables the task scheduler used for background
+ * storage maintenance.
  * 
  */
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties({ StorageProperties.class, ViewProperties.class })
 public class AppConfig {
 	/**
 	 * Creates a new ObjectMapper bean.
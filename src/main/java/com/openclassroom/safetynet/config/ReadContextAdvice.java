@@ -0,0 +1,70 @@
+package com.openclassroom.safetynet.config;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.repository.ReadContext;
+
+/**
+ * Adds the counters of the {@link ReadContext} of the request to its response,
+ * once the response body is computed:
+ * <ul>
+ * <li>{@value #DATA_VERSION_HEADER}: the version of the dataset read;</li>
+ * <li>{@value #DATA_LOADS_HEADER}: the loads of each type of data from the
+ * published dataset, such as {@code persons=1, medicalrecords=1};</li>
+ * <li>{@value #DATA_READS_HEADER}: the reads of each type of data served by
+ * the context.</li>
+ * </ul>
+ * The headers are only added to the responses of the requests which read
+ * data. They are debug output, so the advice is only registered when
+ * {@code safetynet.read-context.headers} is true.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "safetynet.read-context", name = "headers", havingValue = "true")
+public class ReadContextAdvice implements ResponseBodyAdvice<Object> {
+
+	/**
+	 * The header holding the version of the dataset read by the request.
+	 */
+	public static final String DATA_VERSION_HEADER = "X-Data-Version";
+
+	/**
+	 * The header holding the loads of each type of data.
+	 */
+	public static final String DATA_LOADS_HEADER = "X-Data-Loads";
+
+	/**
+	 * The header holding the reads of each type of data.
+	 */
+	public static final String DATA_READS_HEADER = "X-Data-Reads";
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+		ReadContext.current().filter(context -> !context.getReads().isEmpty()).ifPresent(context -> {
+			response.getHeaders().set(DATA_VERSION_HEADER, String.valueOf(context.getDataSet().version()));
+			response.getHeaders().set(DATA_LOADS_HEADER, format(context.getLoads()));
+			response.getHeaders().set(DATA_READS_HEADER, format(context.getReads()));
+		});
+		return body;
+	}
+
+	private static String format(Map<TypeOfData, Integer> counts) {
+		return counts.entrySet().stream().map(entry -> entry.getKey().getJsonKey() + "=" + entry.getValue()).collect(Collectors.joining(", "));
+	}
+}
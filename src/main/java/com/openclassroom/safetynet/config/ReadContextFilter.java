@@ -0,0 +1,40 @@
+package com.openclassroom.safetynet.config;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.ReadContext;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filter opening a {@link ReadContext} for each request, so that all the
+ * services answering it read the same version of the dataset.
+ *
+ * The loads and reads of each type of data are logged at the end of the
+ * request, and sent back in headers by the {@link ReadContextAdvice}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadContextFilter extends OncePerRequestFilter {
+
+	private final JsonRepository repository;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		try (ReadContext context = repository.openReadContext()) {
+			filterChain.doFilter(request, response);
+			log.debug("{} {} loaded {} and read {}", request.getMethod(), request.getRequestURI(), context.getLoads(), context.getReads());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.openclassroom.safetynet.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import com.openclassroom.safetynet.constants.FsyncPolicy;
+import com.openclassroom.safetynet.constants.StorageLayout;
+
+/**
+ * Storage settings of the JSON repository, bound from the
+ * {@code safetynet.storage} properties.
+ *
+ * @param layout         How the JSON data is laid out on disk
+ *                       {@link StorageLayout}.
+ * @param journal        The mutation journal settings {@link Journal}.
+ * @param binarySnapshot The binary snapshot settings {@link BinarySnapshot}.
+ * @param groupCommit    The group commit settings {@link GroupCommit}.
+ */
+@ConfigurationProperties(prefix = "safetynet.storage")
+public record StorageProperties(@DefaultValue("SINGLE_FILE") StorageLayout layout, @DefaultValue Journal journal, @DefaultValue BinarySnapshot binarySnapshot, @DefaultValue GroupCommit groupCommit) {
+
+	/**
+	 * Settings of the append-only mutation journal.
+	 *
+	 * When the journal is enabled, each mutation is appended to the journal
+	 * instead of rewriting the whole JSON file, and the JSON file is rewritten
+	 * in the background once the journal holds enough entries.
+	 *
+	 * @param enabled             Whether mutations are journaled instead of
+	 *                            rewriting the JSON file.
+	 * @param fsync               When the journal is forced to the storage device
+	 *                            {@link FsyncPolicy}.
+	 * @param fsyncInterval       The interval between two background forces of
+	 *                            the journal and two compaction checks.
+	 * @param compactionThreshold The number of journal entries above which the
+	 *                            journal is compacted into a new JSON file.
+	 */
+	public record Journal(@DefaultValue("false") boolean enabled, @DefaultValue("ALWAYS") FsyncPolicy fsync,
+			@DefaultValue("1s") Duration fsyncInterval, @DefaultValue("1000") int compactionThreshold) {
+	}
+
+	/**
+	 * Settings of the binary snapshot of the JSON file.
+	 *
+	 * When the binary snapshot is enabled, a compact binary copy of the JSON file
+	 * is kept next to it and loaded at startup instead of parsing the JSON file,
+	 * as long as the JSON file has not changed since the snapshot was written.
+	 * The JSON file stays the reference format.
+	 *
+	 * @param enabled Whether the binary snapshot is written and loaded.
+	 */
+	public record BinarySnapshot(@DefaultValue("false") boolean enabled) {
+	}
+
+	/**
+	 * Settings of the group commit of the mutations.
+	 *
+	 * When group commit is enabled, the mutations arriving within the window are
+	 * persisted by a single flush (one rewrite of the JSON file, or one force of
+	 * the journal), and each caller returns once the flush covering its mutation
+	 * is durable.
+	 *
+	 * @param enabled      Whether mutations are persisted in groups.
+	 * @param window       How long the first mutation of a group waits for others
+	 *                     before the group is flushed.
+	 * @param maxGroupSize The number of mutations above which a group is flushed
+	 *                     without waiting for the end of the window.
+	 */
+	public record GroupCommit(@DefaultValue("false") boolean enabled, @DefaultValue("2ms") Duration window,
+			@DefaultValue("256") int maxGroupSize) {
+	}
+}
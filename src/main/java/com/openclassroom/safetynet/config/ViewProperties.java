@@ -0,0 +1,20 @@
+package com.openclassroom.safetynet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the materialized views of the searches, bound from the
+ * {@code safetynet.views} properties.
+ *
+ * When the views are enabled, the result of each search is kept per search
+ * key until a mutation touches that key, instead of being computed on every
+ * request.
+ *
+ * @param enabled    Whether the search results are kept in materialized views.
+ * @param maxEntries The maximum number of results kept by each view; the
+ *                   results of other keys are computed without being kept.
+ */
+@ConfigurationProperties(prefix = "safetynet.views")
+public record ViewProperties(@DefaultValue("false") boolean enabled, @DefaultValue("10000") int maxEntries) {
+}
@@ -0,0 +1,18 @@
+package com.openclassroom.safetynet.constants;
+
+/**
+ * Enum representing the age group of a resident, as classified by
+ * {@link com.openclassroom.safetynet.model.AgeClassifier}.
+ * 
+ */
+public enum AgeGroup {
+	/**
+	 * Residents of 18 years old or less.
+	 */
+	CHILD,
+
+	/**
+	 * Residents older than 18 years old.
+	 */
+	ADULT;
+}
@@ -0,0 +1,25 @@
+package com.openclassroom.safetynet.constants;
+
+/**
+ * Enum representing when the mutation journal is forced to the storage device.
+ * 
+ */
+public enum FsyncPolicy {
+	/**
+	 * The journal is forced after every appended mutation, before the caller is
+	 * acknowledged.
+	 */
+	ALWAYS,
+
+	/**
+	 * The journal is forced in the background at a fixed interval. A crash can
+	 * lose the mutations appended since the last force.
+	 */
+	INTERVAL,
+
+	/**
+	 * The journal is never forced explicitly, flushing is left to the operating
+	 * system.
+	 */
+	NEVER;
+}
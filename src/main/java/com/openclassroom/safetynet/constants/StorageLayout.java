@@ -0,0 +1,19 @@
+package com.openclassroom.safetynet.constants;
+
+/**
+ * Enum representing how the JSON data is laid out on disk.
+ * 
+ */
+public enum StorageLayout {
+	/**
+	 * All the types of data are stored in the single JSON data file, which is
+	 * rewritten as a whole on every save.
+	 */
+	SINGLE_FILE,
+
+	/**
+	 * Each type of data is stored in its own JSON file, in a directory named
+	 * after the JSON data file. Saving a type of data only rewrites its file.
+	 */
+	PER_COLLECTION;
+}
@@ -1,32 +1,38 @@
 package com.openclassroom.safetynet.constants;
 
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+
 /**
  * Enum representing different types of data handled in the system.
  * 
- * Each type of data is associated with a corresponding JSON key.
+ * Each type of data is associated with a corresponding JSON key and with the
+ * record type its elements are bound to.
  * 
  */
 public enum TypeOfData {
 	/**
 	 * Represents the "persons" data type.
 	 */
-	PERSONS("persons"),
+	PERSONS("persons", Person.class),
 
 	/**
 	 * Represents the "firestations" data type.
 	 */
-	FIRESTATIONS("firestations"),
+	FIRESTATIONS("firestations", Firestation.class),
 
 	/**
 	 * Represents the "medicalrecords" data type.
 	 */
-	MEDICALRECORDS("medicalrecords");
-	;
+	MEDICALRECORDS("medicalrecords", MedicalRecord.class);
 
 	private final String jsonKey;
+	private final Class<?> recordType;
 
-	TypeOfData(String jsonKey) {
+	TypeOfData(String jsonKey, Class<?> recordType) {
 		this.jsonKey = jsonKey;
+		this.recordType = recordType;
 	}
 
 	/**
@@ -38,4 +44,13 @@ public enum TypeOfData {
 		return jsonKey;
 	}
 
+	/**
+	 * Returns the record type the elements of this data type are bound to.
+	 *
+	 * @return The record class.
+	 */
+	public Class<?> getRecordType() {
+		return recordType;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.openclassroom.safetynet.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes the results of a search to the response as newline delimited JSON,
+ * one record per line, as the search produces them.
+ *
+ * The response is only opened at the first record, so that a search failing
+ * before producing any record still gets the usual error response. The first
+ * record is flushed right away, then the records are flushed every
+ * {@value #FLUSH_INTERVAL} records. Once the client disconnects, writing a
+ * record throws an {@link UncheckedIOException}, which stops the search. A
+ * record which cannot be serialized is not a disconnection: it throws an
+ * {@link HttpMessageNotWritableException}, as for the other responses.
+ */
+final class NdjsonWriter implements Consumer<Object> {
+
+	private static final int FLUSH_INTERVAL = 256;
+
+	private final ObjectWriter objectWriter;
+	private final HttpServletResponse response;
+	private OutputStream out;
+	private int count;
+
+	NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+		this.objectWriter = objectMapper.writer();
+		this.response = response;
+	}
+
+	/**
+	 * Writes a record on its own line.
+	 *
+	 * @param record The record.
+	 * @throws HttpMessageNotWritableException If the record cannot be serialized.
+	 * @throws UncheckedIOException            If the record cannot be written,
+	 *                                         such as when the client
+	 *                                         disconnected.
+	 */
+	@Override
+	public void accept(Object record) {
+		byte[] line;
+		try {
+			line = objectWriter.writeValueAsBytes(record);
+		} catch (JsonProcessingException e) {
+			throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+		}
+		try {
+			OutputStream output = open();
+			output.write(line);
+			output.write('\n');
+			count++;
+			if (count == 1 || count % FLUSH_INTERVAL == 0) {
+				output.flush();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Flushes the records written, opening the response if no record was.
+	 *
+	 * @throws IOException If the response cannot be written.
+	 */
+	void finish() throws IOException {
+		open().flush();
+	}
+
+	/**
+	 * Returns the number of records written.
+	 *
+	 * @return The number of records.
+	 */
+	int getCount() {
+		return count;
+	}
+
+	private OutputStream open() throws IOException {
+		if (out == null) {
+			response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+			response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+			out = response.getOutputStream();
+		}
+		return out;
+	}
+}
@@ -1,20 +1,40 @@
 package com.openclassroom.safetynet.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.AgeGroup;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.dto.AddressFloodInfo;
 import com.openclassroom.safetynet.dto.Child;
+import com.openclassroom.safetynet.dto.Page;
 import com.openclassroom.safetynet.dto.PersonCoveredByStation;
 import com.openclassroom.safetynet.dto.PersonFloodInfo;
 import com.openclassroom.safetynet.dto.PersonsAndStationInfo;
 import com.openclassroom.safetynet.dto.PersonsLastNameInfo;
+import com.openclassroom.safetynet.dto.ResidentSearch;
+import com.openclassroom.safetynet.dto.StationSummary;
+import com.openclassroom.safetynet.index.AddressMatch;
+import com.openclassroom.safetynet.index.ResidentFilter;
 import com.openclassroom.safetynet.service.PersonService;
+import com.openclassroom.safetynet.view.CityQuery;
+import com.openclassroom.safetynet.view.DataTag;
+import com.openclassroom.safetynet.view.DataTags;
+import com.openclassroom.safetynet.view.LastNameQuery;
+import com.openclassroom.safetynet.view.SearchViews;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -34,27 +54,65 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class SearchController {
 
+	/**
+	 * The header of the known address a searched address resolved to.
+	 */
+	public static final String RESOLVED_ADDRESS = "X-Resolved-Address";
+
 	private final PersonService personService;
+	private final SearchViews searchViews;
+	private final DataTags dataTags;
+	private final ObjectMapper objectMapper;
 
 	/**
 	 * Retrieves all persons covered by a given fire station number.
 	 *
+	 * The response is tagged with an {@code ETag} and a {@code Last-Modified}
+	 * date, and a conditional request for an unchanged result gets a 304 without
+	 * running the search. An unknown station gets a 404 even then.
+	 *
 	 * @param stationNumber The station number to search for.
+	 * @param request       The request, for its conditional headers.
 	 * @return A {@link ResponseEntity} containing a {@link PersonCoveredByStation}
 	 *         object, which includes the list of persons covered by the specified
 	 *         fire station.
 	 */
 	@GetMapping("/firestation")
-	public ResponseEntity<PersonCoveredByStation> getPersonsByStationNumber(@RequestParam @Validated @Positive int stationNumber) {
+	public ResponseEntity<PersonCoveredByStation> getPersonsByStationNumber(@RequestParam @Validated @Positive int stationNumber, WebRequest request) {
 		log.info("Search for people covered by the fire station N° {}.", stationNumber);
-		PersonCoveredByStation personsCovered = personService.personCoveredByStation(stationNumber);
+		personService.checkStation(stationNumber);
+		if (notModified(request, dataTags.of(true, TypeOfData.PERSONS, TypeOfData.FIRESTATIONS, TypeOfData.MEDICALRECORDS))) {
+			return null;
+		}
+		PersonCoveredByStation personsCovered = searchViews.getFirestation().get(stationNumber, () -> personService.personCoveredByStation(stationNumber));
 		log.info("Successful retrieval of the list of persons : {}", personsCovered);
 		return ResponseEntity.ok(personsCovered);
 	}
 
+	/**
+	 * Retrieves the number of adults and children covered by a given fire station
+	 * number, without listing them.
+	 *
+	 * @param stationNumber The station number to search for.
+	 * @return A {@link ResponseEntity} containing a {@link StationSummary} of the
+	 *         specified fire station.
+	 */
+	@GetMapping("/stationSummary")
+	public ResponseEntity<StationSummary> getStationSummary(@RequestParam @Validated @Positive int stationNumber) {
+		log.info("Search for the summary of the fire station N° {}.", stationNumber);
+		StationSummary stationSummary = personService.stationSummary(stationNumber);
+		log.info("Successful retrieval of the station summary : {}", stationSummary);
+		return ResponseEntity.ok(stationSummary);
+	}
+
 	/**
 	 * Retrieves a list of children living at a specific address.
 	 *
+	 * The address is resolved to the known address equal once normalized, so that
+	 * a different formatting still finds it, and the resolved address is sent in
+	 * the {@code X-Resolved-Address} header. An unknown address gets a 404 listing
+	 * the similar addresses.
+	 *
 	 * @param address The address to search for children.
 	 * @return A {@link ResponseEntity} containing a list of {@link Child} objects
 	 *         representing the children living at the specified address.
@@ -62,32 +120,61 @@ public class SearchController {
 	@GetMapping("/childAlert")
 	public ResponseEntity<List<Child>> getAllChild(@RequestParam @Validated @NotBlank String address) {
 		log.info("Search for children by address : {} ", address);
-		List<Child> childs = personService.getChildsByAddress(address);
+		String resolvedAddress = personService.resolveAddress(address);
+		List<Child> childs = searchViews.getChildAlert().get(resolvedAddress, () -> personService.getChildsByAddress(resolvedAddress));
 		log.info("Successful retrieval of the children's list : {}", childs);
-		return ResponseEntity.ok(childs);
+		return ResponseEntity.ok().header(RESOLVED_ADDRESS, resolvedAddress).body(childs);
 	}
 
 	/**
 	 * Retrieves a list of phone numbers of persons covered by a specific fire
 	 * station number.
 	 *
+	 * The response is tagged for the conditional requests, as for
+	 * {@code /firestation}.
+	 *
 	 * @param stationNumber The fire station number to search for.
+	 * @param request       The request, for its conditional headers.
 	 * @return A {@link ResponseEntity} containing a list of phone numbers of
 	 *         persons covered by the specified fire station.
 	 */
 	@GetMapping("/phoneAlert")
 	public ResponseEntity<List<String>> getPersonsPhoneNumbersByStationNumber(
-			@RequestParam("firestation") @Validated @NotNull @Min(1) int stationNumber) {
+			@RequestParam("firestation") @Validated @NotNull @Min(1) int stationNumber, WebRequest request) {
 		log.info("Search phone numbers by fire station N° {}", stationNumber);
-		List<String> phoneNumbers = personService.getPhoneNumbersByStation(stationNumber);
+		personService.checkStation(stationNumber);
+		if (notModified(request, dataTags.of(false, TypeOfData.PERSONS, TypeOfData.FIRESTATIONS))) {
+			return null;
+		}
+		List<String> phoneNumbers = searchViews.getPhoneAlert().get(stationNumber, () -> personService.getPhoneNumbersByStation(stationNumber));
 		log.info("Successful retrieval of the phone number list : {}", phoneNumbers);
 		return ResponseEntity.ok(phoneNumbers);
 	}
 
+	/**
+	 * Streams the phone numbers of persons covered by a specific fire station
+	 * number as newline delimited JSON, one phone number per line, when the
+	 * client accepts {@code application/x-ndjson}.
+	 *
+	 * @param stationNumber The fire station number to search for.
+	 * @param response      The response the phone numbers are written to.
+	 * @throws IOException If the response cannot be written.
+	 */
+	@GetMapping(value = "/phoneAlert", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void streamPersonsPhoneNumbersByStationNumber(@RequestParam("firestation") @Validated @NotNull @Min(1) int stationNumber,
+			HttpServletResponse response) throws IOException {
+		log.info("Stream phone numbers by fire station N° {}", stationNumber);
+		NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+		stream(writer, () -> personService.streamPhoneNumbersByStation(stationNumber, writer));
+	}
+
 	/**
 	 * Retrieves resident information and the fire station number associated with a
 	 * given address.
 	 *
+	 * The address is resolved as for {@code /childAlert}, and the resolved
+	 * address is also the {@code address} of the result.
+	 *
 	 * @param address The address to search for.
 	 * @return A {@link ResponseEntity} containing a {@link PersonsAndStationInfo}
 	 *         object, which includes both the persons' information and the
@@ -96,61 +183,305 @@ public class SearchController {
 	@GetMapping("/fire")
 	public ResponseEntity<PersonsAndStationInfo> getListOfPersonsInfoAndStationNumberByAddress(@RequestParam @Validated @NotBlank String address) {
 		log.info("Search for resident information and fire station number by address : {}", address);
-		PersonsAndStationInfo personsAndStationInfo = personService.getPersonsAndStationInfoByAddress(address);
+		String resolvedAddress = personService.resolveAddress(address);
+		PersonsAndStationInfo personsAndStationInfo = searchViews.getFire().get(resolvedAddress,
+				() -> personService.getPersonsAndStationInfoByAddress(resolvedAddress));
 		log.info("Successful retrieval of the list of persons, their medical records and the number of the fire station for address : {} = {}",
 				address, personsAndStationInfo);
-		return ResponseEntity.ok(personsAndStationInfo);
+		return ResponseEntity.ok().header(RESOLVED_ADDRESS, resolvedAddress).body(personsAndStationInfo);
 	}
 
 	/**
 	 * Retrieves resident information for multiple fire stations based on a list of
 	 * station numbers.
 	 *
+	 * The response is tagged for the conditional requests, as for
+	 * {@code /firestation}.
+	 *
 	 * @param stationNumber The list of fire station numbers to search for.
+	 * @param request       The request, for its conditional headers.
 	 * @return A {@link ResponseEntity} containing a {@link PersonFloodInfo} object,
 	 *         which includes the list of persons and their medical records for the
 	 *         given stations.
 	 */
 	@GetMapping("/flood/stations")
 	public ResponseEntity<PersonFloodInfo> getListOfPersonsInfoAndStationNumberByStationNumber(
-			@RequestParam("stations") @Validated List<@Positive Integer> stationNumber) {
+			@RequestParam("stations") @Validated List<@Positive Integer> stationNumber, WebRequest request) {
 		log.info("Search for resident information by list of station number : {}.", stationNumber);
-		PersonFloodInfo floodInfo = personService.floodInfo(stationNumber);
+		personService.checkStations(stationNumber);
+		if (notModified(request, dataTags.of(true, TypeOfData.PERSONS, TypeOfData.FIRESTATIONS, TypeOfData.MEDICALRECORDS))) {
+			return null;
+		}
+		PersonFloodInfo floodInfo = searchViews.getFlood().get(List.copyOf(stationNumber), () -> personService.floodInfo(stationNumber));
 		log.info("Successful retrieval of the list of persons and their medical records for List of station number : {} = {}", stationNumber,
 				floodInfo);
 		return ResponseEntity.ok(floodInfo);
 	}
 
+	/**
+	 * Streams resident information for multiple fire stations as newline
+	 * delimited JSON, one {@link AddressFloodInfo} per line, when the client
+	 * accepts {@code application/x-ndjson}.
+	 *
+	 * @param stationNumber The list of fire station numbers to search for.
+	 * @param response      The response the addresses are written to.
+	 * @throws IOException If the response cannot be written.
+	 */
+	@GetMapping(value = "/flood/stations", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void streamListOfPersonsInfoAndStationNumberByStationNumber(@RequestParam("stations") @Validated List<@Positive Integer> stationNumber,
+			HttpServletResponse response) throws IOException {
+		log.info("Stream resident information by list of station number : {}.", stationNumber);
+		NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+		stream(writer, () -> personService.streamFloodInfo(stationNumber, writer));
+	}
+
+	/**
+	 * Retrieves a page of resident information for multiple fire stations, one
+	 * {@link AddressFloodInfo} per address in the order of the addresses.
+	 *
+	 * @param stationNumber The list of fire station numbers to search for.
+	 * @param cursor        The cursor returned with the previous page, empty for
+	 *                      the first page.
+	 * @param limit         The maximum number of addresses of the page.
+	 * @return A {@link ResponseEntity} containing a {@link Page} of the addresses
+	 *         and the cursor of the next page.
+	 */
+	@GetMapping(value = "/flood/stations", params = "cursor")
+	public ResponseEntity<Page<AddressFloodInfo>> pageListOfPersonsInfoAndStationNumberByStationNumber(
+			@RequestParam("stations") @Validated List<@Positive Integer> stationNumber, @RequestParam String cursor,
+			@RequestParam(defaultValue = "100") @Validated @Positive @Max(1000) int limit) {
+		log.info("Search for a page of resident information by list of station number : {}.", stationNumber);
+		Page<AddressFloodInfo> page = personService.pageFloodInfo(stationNumber, cursor, limit);
+		log.info("Successful retrieval of a page of {} addresses for List of station number : {}", page.items().size(), stationNumber);
+		return ResponseEntity.ok(page);
+	}
+
 	/**
 	 * Retrieves full resident information by last name.
 	 *
-	 * @param lastName The last name of the resident(s) to search for.
+	 * A last name ending with {@code *}, such as {@code Bo*}, searches the
+	 * residents whose last name starts with the given prefix.
+	 *
+	 * @param lastName The last name of the resident(s) to search for, or a prefix
+	 *                 followed by {@code *}.
+	 * @param limit    The maximum number of residents returned by a prefix search.
 	 * @return A {@link ResponseEntity} containing a list of
 	 *         {@link PersonsLastNameInfo} objects, which includes full information
 	 *         and medical records for residents with the specified last name.
 	 */
 	@GetMapping("/personInfolastName")
-	public ResponseEntity<List<PersonsLastNameInfo>> getPersonsFullInfoWithLastName(@RequestParam @Validated @NotBlank String lastName) {
+	public ResponseEntity<List<PersonsLastNameInfo>> getPersonsFullInfoWithLastName(@RequestParam @Validated @NotBlank String lastName,
+			@RequestParam(defaultValue = "" + PersonService.LAST_NAME_PREFIX_LIMIT) @Validated @Positive @Max(1000) int limit) {
 		log.info("Search for resident information by last name : {}.", lastName);
-		List<PersonsLastNameInfo> personsLastNameInfos = personService.listOfPersonsByLastName(lastName);
+		List<PersonsLastNameInfo> personsLastNameInfos = searchViews.getPersonInfoLastName().get(new LastNameQuery(lastName, limit),
+				() -> personService.listOfPersonsByLastName(lastName, limit));
 		log.info("Successful retrieval of list of persons and their medical records for last name : {} = {}", lastName, personsLastNameInfos);
 		return ResponseEntity.ok(personsLastNameInfos);
 	}
 
+	/**
+	 * Retrieves a page of full resident information by last name, in the order of
+	 * the last and first names.
+	 *
+	 * @param lastName The last name of the resident(s) to search for, or a prefix
+	 *                 followed by {@code *}.
+	 * @param cursor   The cursor returned with the previous page, empty for the
+	 *                 first page.
+	 * @param limit    The maximum number of residents of the page.
+	 * @return A {@link ResponseEntity} containing a {@link Page} of
+	 *         {@link PersonsLastNameInfo} objects and the cursor of the next page.
+	 */
+	@GetMapping(value = "/personInfolastName", params = "cursor")
+	public ResponseEntity<Page<PersonsLastNameInfo>> pagePersonsFullInfoWithLastName(@RequestParam @Validated @NotBlank String lastName,
+			@RequestParam String cursor,
+			@RequestParam(defaultValue = "" + PersonService.LAST_NAME_PREFIX_LIMIT) @Validated @Positive @Max(1000) int limit) {
+		log.info("Search for a page of resident information by last name : {}.", lastName);
+		Page<PersonsLastNameInfo> page = personService.pageByLastName(lastName, cursor, limit);
+		log.info("Successful retrieval of a page of {} persons for last name : {}", page.items().size(), lastName);
+		return ResponseEntity.ok(page);
+	}
+
 	/**
 	 * Retrieves a list of community email addresses for residents of a specific
 	 * city.
 	 *
-	 * @param city The city to search for.
+	 * @param city     The city to search for.
+	 * @param distinct True to return each email address once, even if it is
+	 *                 shared by several residents.
 	 * @return A {@link ResponseEntity} containing a list of email addresses of the
 	 *         residents in the specified city.
 	 */
 	@GetMapping("/communityEmail")
-	public ResponseEntity<List<String>> getMailByCity(@RequestParam @Validated @NotBlank String city) {
+	public ResponseEntity<List<String>> getMailByCity(@RequestParam @Validated @NotBlank String city,
+			@RequestParam(defaultValue = "false") boolean distinct) {
 		log.info("Search for residents' e-mail addresses by city : {}", city);
-		List<String> communityEmail = personService.personEmails(city);
+		List<String> communityEmail = searchViews.getCommunityEmail().get(new CityQuery(city, distinct), () -> personService.personEmails(city, distinct));
 		log.info("Successful retrieval of the list of Email for city : {} = {}", city, communityEmail);
 		return ResponseEntity.ok(communityEmail);
 	}
 
+	/**
+	 * Retrieves a page of the community email addresses for residents of a
+	 * specific city, in the order of the email addresses.
+	 *
+	 * @param city     The city to search for.
+	 * @param distinct True to return each email address once, even if it is
+	 *                 shared by several residents.
+	 * @param cursor   The cursor returned with the previous page, empty for the
+	 *                 first page.
+	 * @param limit    The maximum number of email addresses of the page.
+	 * @return A {@link ResponseEntity} containing a {@link Page} of email
+	 *         addresses and the cursor of the next page.
+	 */
+	@GetMapping(value = "/communityEmail", params = "cursor")
+	public ResponseEntity<Page<String>> pageMailByCity(@RequestParam @Validated @NotBlank String city,
+			@RequestParam(defaultValue = "false") boolean distinct, @RequestParam String cursor,
+			@RequestParam(defaultValue = "100") @Validated @Positive @Max(1000) int limit) {
+		log.info("Search for a page of residents' e-mail addresses by city : {}", city);
+		Page<String> page = personService.pageEmails(city, distinct, cursor, limit);
+		log.info("Successful retrieval of a page of {} Email for city : {}", page.items().size(), city);
+		return ResponseEntity.ok(page);
+	}
+
+	/**
+	 * Streams the email addresses of the residents of a specific city as newline
+	 * delimited JSON, one email address per line, when the client accepts
+	 * {@code application/x-ndjson}.
+	 *
+	 * @param city     The city to search for.
+	 * @param distinct True to send each email address once, even if it is shared
+	 *                 by several residents.
+	 * @param response The response the email addresses are written to.
+	 * @throws IOException If the response cannot be written.
+	 */
+	@GetMapping(value = "/communityEmail", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void streamMailByCity(@RequestParam @Validated @NotBlank String city, @RequestParam(defaultValue = "false") boolean distinct,
+			HttpServletResponse response) throws IOException {
+		log.info("Stream residents' e-mail addresses by city : {}", city);
+		NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+		stream(writer, () -> personService.streamEmails(city, distinct, writer));
+	}
+
+	/**
+	 * Searches the residents matching a combination of filters, such as the
+	 * children covered by stations 1 and 3 with a peanut allergy.
+	 *
+	 * A resident matches if they are covered by any of the given stations, belong
+	 * to the age group, and have all the given allergies and medications. An
+	 * omitted filter does not filter.
+	 *
+	 * @param stations    The fire station numbers covering the residents.
+	 * @param ageGroup    The age group of the residents.
+	 * @param allergies   The allergies of the residents, ignoring case.
+	 * @param medications The medication names of the residents, without dosage
+	 *                    and ignoring case.
+	 * @param limit       The maximum number of residents returned.
+	 * @return A {@link ResponseEntity} containing a {@link ResidentSearch} object,
+	 *         which includes the number of matching residents and the first of
+	 *         them.
+	 */
+	@GetMapping("/residents")
+	public ResponseEntity<ResidentSearch> searchResidents(
+			@RequestParam(name = "station", required = false) @Validated List<@Positive Integer> stations,
+			@RequestParam(required = false) AgeGroup ageGroup, @RequestParam(name = "allergy", required = false) List<String> allergies,
+			@RequestParam(name = "medication", required = false) List<String> medications,
+			@RequestParam(defaultValue = "100") @Validated @Positive @Max(1000) int limit) {
+		ResidentFilter filter = new ResidentFilter(stations, ageGroup, allergies, medications);
+		log.info("Search for residents by combined filter : {}.", filter);
+		ResidentSearch residentSearch = personService.searchResidents(filter, limit);
+		log.info("Successful retrieval of the residents for combined filter : {} = {}", filter, residentSearch);
+		return ResponseEntity.ok(residentSearch);
+	}
+
+	/**
+	 * Retrieves the residents taking a medication, optionally limited to a fire
+	 * station or an address.
+	 *
+	 * @param medication    The name of the medication, without dosage and
+	 *                      ignoring case.
+	 * @param stationNumber The fire station covering the residents.
+	 * @param address       The address of the residents.
+	 * @param limit         The maximum number of residents returned.
+	 * @return A {@link ResponseEntity} containing a {@link ResidentSearch} object,
+	 *         which includes the number of residents taking the medication and
+	 *         the first of them.
+	 */
+	@GetMapping("/medicationAlert")
+	public ResponseEntity<ResidentSearch> getResidentsByMedication(@RequestParam @Validated @NotBlank String medication,
+			@RequestParam(required = false) @Validated @Positive Integer stationNumber, @RequestParam(required = false) String address,
+			@RequestParam(defaultValue = "100") @Validated @Positive @Max(1000) int limit) {
+		log.info("Search for residents by medication : {}, station number : {}, address : {}.", medication, stationNumber, address);
+		ResidentSearch residentSearch = personService.searchByMedication(medication, stationNumber, address, limit);
+		log.info("Successful retrieval of the residents for medication : {} = {}", medication, residentSearch);
+		return ResponseEntity.ok(residentSearch);
+	}
+
+	/**
+	 * Retrieves the residents having an allergy, optionally limited to a fire
+	 * station or an address.
+	 *
+	 * @param allergy       The allergy, ignoring case.
+	 * @param stationNumber The fire station covering the residents.
+	 * @param address       The address of the residents.
+	 * @param limit         The maximum number of residents returned.
+	 * @return A {@link ResponseEntity} containing a {@link ResidentSearch} object,
+	 *         which includes the number of residents having the allergy and the
+	 *         first of them.
+	 */
+	@GetMapping("/allergyAlert")
+	public ResponseEntity<ResidentSearch> getResidentsByAllergy(@RequestParam @Validated @NotBlank String allergy,
+			@RequestParam(required = false) @Validated @Positive Integer stationNumber, @RequestParam(required = false) String address,
+			@RequestParam(defaultValue = "100") @Validated @Positive @Max(1000) int limit) {
+		log.info("Search for residents by allergy : {}, station number : {}, address : {}.", allergy, stationNumber, address);
+		ResidentSearch residentSearch = personService.searchByAllergy(allergy, stationNumber, address, limit);
+		log.info("Successful retrieval of the residents for allergy : {} = {}", allergy, residentSearch);
+		return ResponseEntity.ok(residentSearch);
+	}
+
+	/**
+	 * Searches the known addresses similar to an address, such as a misspelled
+	 * address coming from dispatch.
+	 *
+	 * @param address The address to search.
+	 * @param limit   The maximum number of addresses returned.
+	 * @return A {@link ResponseEntity} containing a list of {@link AddressMatch}
+	 *         objects, the most similar address first.
+	 */
+	@GetMapping("/addresses")
+	public ResponseEntity<List<AddressMatch>> searchAddresses(@RequestParam @Validated @NotBlank String address,
+			@RequestParam(defaultValue = "10") @Validated @Positive @Max(100) int limit) {
+		log.info("Search for addresses similar to : {}", address);
+		List<AddressMatch> addressMatches = personService.searchAddresses(address, limit);
+		log.info("Successful retrieval of the addresses similar to : {} = {}", address, addressMatches);
+		return ResponseEntity.ok(addressMatches);
+	}
+
+	/**
+	 * Runs a streamed search, stopping it if the client disconnects.
+	 */
+	private static void stream(NdjsonWriter writer, Runnable search) throws IOException {
+		try {
+			search.run();
+			writer.finish();
+			log.info("Successful stream of {} records", writer.getCount());
+		} catch (UncheckedIOException e) {
+			log.info("Stream cancelled after {} records : {}", writer.getCount(), e.getCause().getMessage());
+		}
+	}
+
+	/**
+	 * Checks the validators of a conditional request against the tag of the
+	 * result, and sets the {@code ETag} and {@code Last-Modified} headers of the
+	 * response.
+	 *
+	 * @return True if the result is not modified, the response then being a 304
+	 *         without body.
+	 */
+	private static boolean notModified(WebRequest request, DataTag tag) {
+		if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+			log.info("Result not modified since {}", tag.etag());
+			return true;
+		}
+		return false;
+	}
 }
@@ -0,0 +1,61 @@
+package com.openclassroom.safetynet.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.openclassroom.safetynet.index.IndexStats;
+import com.openclassroom.safetynet.index.RecordIndex;
+import com.openclassroom.safetynet.view.SearchViews;
+import com.openclassroom.safetynet.view.ViewStats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REST Controller exposing the statistics of the application.
+ *
+ * This controller provides endpoints to monitor the in-memory structures used
+ * to answer the searches.
+ */
+
+@RestController
+@Slf4j
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+	private final List<RecordIndex<?, ?>> indexes;
+	private final SearchViews searchViews;
+
+	/**
+	 * Retrieves the statistics of the in-memory indexes.
+	 *
+	 * @return A {@link ResponseEntity} containing the {@link IndexStats} of each
+	 *         index.
+	 */
+	@GetMapping("/indexes")
+	public ResponseEntity<List<IndexStats>> getIndexStats() {
+		log.info("GET request received for /stats/indexes");
+		List<IndexStats> stats = indexes.stream().map(RecordIndex::getStats).toList();
+		log.info("Successful retrieval of the index statistics : {}", stats);
+		return ResponseEntity.ok(stats);
+	}
+
+	/**
+	 * Retrieves the statistics of the materialized views of the searches.
+	 *
+	 * @return A {@link ResponseEntity} containing the {@link ViewStats} of each
+	 *         view.
+	 */
+	@GetMapping("/views")
+	public ResponseEntity<List<ViewStats>> getViewStats() {
+		log.info("GET request received for /stats/views");
+		List<ViewStats> stats = searchViews.getStats();
+		log.info("Successful retrieval of the view statistics : {}", stats);
+		return ResponseEntity.ok(stats);
+	}
+}
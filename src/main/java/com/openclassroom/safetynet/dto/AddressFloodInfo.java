@@ -0,0 +1,14 @@
+package com.openclassroom.safetynet.dto;
+
+import java.util.List;
+
+/**
+ * Represents the medical records of the people affected by flooding at one
+ * address, the unit of the streamed flood search.
+ *
+ * @param address           The address covered by the fire station.
+ * @param medicalRecordInfo The list of the medical records of the people
+ *                          living at this address {@link MedicalRecordInfo}.
+ */
+public record AddressFloodInfo(String address, List<MedicalRecordInfo> medicalRecordInfo) {
+}
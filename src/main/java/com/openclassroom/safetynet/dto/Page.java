@@ -0,0 +1,14 @@
+package com.openclassroom.safetynet.dto;
+
+import java.util.List;
+
+/**
+ * Represents a page of the results of a paged search.
+ *
+ * @param <T>        The type of the results.
+ * @param items      The results of the page, in the order of the search.
+ * @param nextCursor The opaque cursor to send back to get the next page, or
+ *                   null if this page is the last one.
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+}
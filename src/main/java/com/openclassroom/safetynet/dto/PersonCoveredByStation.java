@@ -1,5 +1,7 @@
 package com.openclassroom.safetynet.dto;
 
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.model.AgeClassifier.AgeCounts;
 import com.openclassroom.safetynet.model.MedicalRecord;
 import com.openclassroom.safetynet.model.Person;
 
@@ -23,8 +25,7 @@ public record PersonCoveredByStation(List<PersonInfo> personInfos, int adultCoun
 	 * This constructor takes two lists: a list of persons ({@link Person}) and a
 	 * list of medical records ({@link MedicalRecord}). It maps each person into
 	 * a {@link PersonInfo} object, and counts the number of adults and children by
-	 * inspecting the medical records.
-	 * 
+	 * classifying the birthdates of the medical records in a single pass.
 	 *
 	 * @param persons        A list of {@link Person} representing people covered
 	 *                       by the station.
@@ -32,7 +33,10 @@ public record PersonCoveredByStation(List<PersonInfo> personInfos, int adultCoun
 	 *                       medical records for each person.
 	 */
 	public PersonCoveredByStation(List<Person> persons, List<MedicalRecord> medicalRecords) {
-		this(persons.stream().map(PersonInfo::new).toList(), (int) medicalRecords.stream().filter(MedicalRecord::isAdult).count(),
-				(int) medicalRecords.stream().filter(MedicalRecord::isChild).count());
+		this(persons.stream().map(PersonInfo::new).toList(), AgeClassifier.count(medicalRecords.stream().mapToInt(MedicalRecord::birthEpochDay).toArray()));
+	}
+
+	private PersonCoveredByStation(List<PersonInfo> personInfos, AgeCounts ageCounts) {
+		this(personInfos, ageCounts.adults(), ageCounts.children());
 	}
 }
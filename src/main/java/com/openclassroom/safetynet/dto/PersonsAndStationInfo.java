@@ -6,10 +6,13 @@ import java.util.List;
  * Represents information about a list of persons and their associated fire
  * station.
  *
+ * @param address               The address of the persons, as written in the
+ *                              records, which the searched address resolved
+ *                              to.
  * @param personsMedicalRecords A list of medical records containing information
  *                              about each person {@link MedicalRecordInfo}.
  * @param stationNumber         The station number of the fire station.
  */
-public record PersonsAndStationInfo(List<MedicalRecordInfo> personsMedicalRecords, int stationNumber) {
+public record PersonsAndStationInfo(String address, List<MedicalRecordInfo> personsMedicalRecords, int stationNumber) {
 
 }
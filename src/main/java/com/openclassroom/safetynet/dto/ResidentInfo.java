@@ -0,0 +1,38 @@
+package com.openclassroom.safetynet.dto;
+
+import java.util.List;
+
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+
+/**
+ * Represents a resident matching a combined search.
+ *
+ * @param firstName   The first name of the resident.
+ * @param lastName    The last name of the resident.
+ * @param address     The address of the resident.
+ * @param phone       The phone number of the resident.
+ * @param age         The age of the resident, or null if the birthdate of
+ *                    its medical record cannot be parsed.
+ * @param medications A list of medications the resident is taking.
+ * @param allergies   A list of allergies the resident has.
+ */
+public record ResidentInfo(String firstName, String lastName, String address, String phone, Integer age, List<String> medications,
+		List<String> allergies) {
+
+	/**
+	 * Constructs a {@link ResidentInfo} from a {@link Person} and its
+	 * {@link MedicalRecord}, without an age if the birthdate is
+	 * {@link MedicalRecord#UNKNOWN_BIRTHDATE unknown}.
+	 *
+	 * @param person        The {@link Person} object containing personal
+	 *                      information.
+	 * @param medicalRecord The {@link MedicalRecord} object containing medical
+	 *                      information.
+	 */
+	public ResidentInfo(Person person, MedicalRecord medicalRecord) {
+		this(person.firstName(), person.lastName(), person.address(), person.phone(),
+				medicalRecord.birthEpochDay() == MedicalRecord.UNKNOWN_BIRTHDATE ? null : medicalRecord.getAge(), medicalRecord.medications(),
+				medicalRecord.allergies());
+	}
+}
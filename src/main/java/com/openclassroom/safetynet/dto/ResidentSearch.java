@@ -0,0 +1,13 @@
+package com.openclassroom.safetynet.dto;
+
+import java.util.List;
+
+/**
+ * Represents the result of a combined search of the residents.
+ *
+ * @param count     The number of residents matching the search.
+ * @param residents The matching residents, at most the limit of the search
+ *                  {@link ResidentInfo}.
+ */
+public record ResidentSearch(int count, List<ResidentInfo> residents) {
+}
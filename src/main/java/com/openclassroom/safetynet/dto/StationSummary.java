@@ -0,0 +1,11 @@
+package com.openclassroom.safetynet.dto;
+
+/**
+ * Represents the number of adults and children covered by a fire station.
+ *
+ * @param stationNumber The fire station number.
+ * @param adultCounts   The number of adults covered by the station.
+ * @param childCounts   The number of children covered by the station.
+ */
+public record StationSummary(int stationNumber, int adultCounts, int childCounts) {
+}
@@ -1,10 +1,12 @@
 package com.openclassroom.safetynet.exceptions;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import com.openclassroom.safetynet.dto.ApiResponse;
 
@@ -12,7 +14,9 @@ import com.openclassroom.safetynet.dto.ApiResponse;
  * Global exception handler for REST controller methods.
  *
  * This class provides centralized handling of common exceptions, ensuring
- * consistent error responses are returned to clients.
+ * consistent error responses are returned to clients. The error responses are
+ * always {@code application/json}, including those of the streamed searches
+ * which only produce {@code application/x-ndjson}.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -27,7 +31,7 @@ public class GlobalExceptionHandler {
 	 */
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<ApiResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
-		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse(400, ex.getMessage()));
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(new ApiResponse(400, ex.getMessage()));
 	}
 
 	/**
@@ -40,6 +44,48 @@ public class GlobalExceptionHandler {
 	 */
 	@ExceptionHandler(IllegalArgumentException.class)
 	public ResponseEntity<ApiResponse> handleValidationExceptions(IllegalArgumentException ex) {
-		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(404, ex.getMessage()));
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(new ApiResponse(404, ex.getMessage()));
+	}
+
+	/**
+	 * Handles request parameters that cannot be converted to the expected type,
+	 * such as an unknown constant of an enum.
+	 *
+	 * @param ex The {@link MethodArgumentTypeMismatchException} thrown during
+	 *           binding.
+	 * @return A {@link ResponseEntity} with a {@link HttpStatus#BAD_REQUEST} status
+	 *         code and an {@link ApiResponse} object containing the error message.
+	 */
+	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
+	public ResponseEntity<ApiResponse> handleTypeMismatchExceptions(MethodArgumentTypeMismatchException ex) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+				.body(new ApiResponse(400, "Invalid value for parameter " + ex.getName() + ": " + ex.getValue()));
+	}
+
+	/**
+	 * Handles the cursors of paged searches that cannot be used.
+	 *
+	 * @param ex The {@link InvalidCursorException} thrown by the search.
+	 * @return A {@link ResponseEntity} with a {@link HttpStatus#BAD_REQUEST} status
+	 *         code and an {@link ApiResponse} object containing the error message.
+	 */
+	@ExceptionHandler(InvalidCursorException.class)
+	public ResponseEntity<ApiResponse> handleInvalidCursorExceptions(InvalidCursorException ex) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(new ApiResponse(400, ex.getMessage()));
+	}
+
+	/**
+	 * Handles the writes which could not be saved, such as when a file cannot be
+	 * written or the application is shutting down.
+	 *
+	 * @param ex The {@link DataSavingException} thrown by the repository.
+	 * @return A {@link ResponseEntity} with a
+	 *         {@link HttpStatus#SERVICE_UNAVAILABLE} status code and an
+	 *         {@link ApiResponse} object containing the error message.
+	 */
+	@ExceptionHandler(DataSavingException.class)
+	public ResponseEntity<ApiResponse> handleDataSavingExceptions(DataSavingException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON)
+				.body(new ApiResponse(503, ex.getMessage()));
 	}
 }
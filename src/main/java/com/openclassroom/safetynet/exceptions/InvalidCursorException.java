@@ -0,0 +1,28 @@
+package com.openclassroom.safetynet.exceptions;
+
+/**
+ * Exception thrown when the cursor of a paged search cannot be used.
+ * 
+ * This exception is used to indicate that a cursor is malformed, or was
+ * returned by another search than the one it is sent back to.
+ * 
+ */
+public class InvalidCursorException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new {@code InvalidCursorException} with the specified detail
+	 * message.
+	 * 
+	 * The detail message is saved for later retrieval by the {@link #getMessage()}
+	 * method.
+	 * 
+	 *
+	 * @param message The detail message (which can later be retrieved by the
+	 *                {@link #getMessage()} method).
+	 */
+	public InvalidCursorException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,315 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.DataChangeEvent;
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.ReadContext;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Index of the addresses of the persons and fire stations, tolerant to the
+ * formatting and to typos.
+ *
+ * Each address is normalized (see {@link #normalize(String)}) so that the
+ * addresses written differently, such as {@code 1509 culver street} and
+ * {@code 1509 Culver St}, share the same key, looked up directly. The
+ * normalized addresses are also indexed by trigram: a fuzzy search only scores
+ * the addresses sharing a selective trigram with the searched address, by the
+ * similarity of their trigrams, instead of scanning every address.
+ *
+ * Like a {@link RecordIndex}, the index is tied to the persons and fire
+ * stations it was built from, built again when they are replaced as a whole,
+ * and patched on each {@link DataChangeEvent}, after the indexes, for the
+ * addresses the change adds or removes, in {@link PersistentMap}s shared with
+ * the previous snapshot. The snapshot built for a
+ * {@link ReadContext} pinned to an older version is kept by the context.
+ */
+@Component
+@RequiredArgsConstructor
+public class AddressIndex {
+
+	/**
+	 * The minimum similarity of an address suggested for a misspelled address.
+	 */
+	public static final double MIN_SIMILARITY = 0.4;
+
+	private static final int MIN_SELECTIVE_POSTINGS = 1000;
+	private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(Map.entry("street", "st"), Map.entry("avenue", "ave"),
+			Map.entry("av", "ave"), Map.entry("drive", "dr"), Map.entry("road", "rd"), Map.entry("circle", "cir"), Map.entry("place", "pl"),
+			Map.entry("court", "ct"), Map.entry("lane", "ln"), Map.entry("boulevard", "blvd"), Map.entry("north", "n"), Map.entry("south", "s"),
+			Map.entry("east", "e"), Map.entry("west", "w"));
+
+	private final JsonRepository repository;
+	private final PersonAddressIndex personAddressIndex;
+	private final FirestationAddressIndex firestationAddressIndex;
+
+	private volatile Snapshot current;
+
+	/**
+	 * The addresses of a version of the persons and fire stations, by normalized
+	 * address, and the normalized addresses by trigram.
+	 */
+	private record Snapshot(List<Person> persons, List<Firestation> firestations, PersistentMap<String, List<String>> addressesByKey,
+			PersistentMap<String, List<String>> keysByTrigram) {
+
+		boolean isBuiltFrom(List<Person> persons, List<Firestation> firestations) {
+			return this.persons == persons && this.firestations == firestations;
+		}
+	}
+
+	/**
+	 * Returns the addresses equal to an address once normalized.
+	 *
+	 * @param address The address to look for.
+	 * @return The addresses as written in the records, empty if there is none.
+	 */
+	public List<String> getExact(String address) {
+		return List.copyOf(snapshot().addressesByKey().getOrDefault(normalize(address), List.of()));
+	}
+
+	/**
+	 * Searches the addresses similar to an address, best first.
+	 *
+	 * @param address The address to search.
+	 * @param limit   The maximum number of addresses returned.
+	 * @return The matching addresses with a similarity of at least
+	 *         {@link #MIN_SIMILARITY}, by decreasing similarity.
+	 */
+	public List<AddressMatch> search(String address, int limit) {
+		Snapshot snapshot = snapshot();
+		String key = normalize(address);
+		Set<String> trigrams = trigrams(key);
+		List<List<String>> postings = trigrams.stream().map(trigram -> snapshot.keysByTrigram().getOrDefault(trigram, List.of()))
+				.filter(keys -> !keys.isEmpty()).sorted(Comparator.comparingInt(List::size)).toList();
+		int maxPostings = Math.max(MIN_SELECTIVE_POSTINGS, snapshot.addressesByKey().size() / 20);
+		Set<String> candidates = new LinkedHashSet<>();
+		for (List<String> keys : postings) {
+			if (keys.size() > maxPostings && !candidates.isEmpty()) {
+				break;
+			}
+			candidates.addAll(keys);
+		}
+		List<AddressMatch> matches = new ArrayList<>();
+		for (String candidate : candidates) {
+			double similarity = similarity(trigrams, trigrams(candidate));
+			if (similarity >= MIN_SIMILARITY) {
+				for (String match : snapshot.addressesByKey().get(candidate)) {
+					matches.add(new AddressMatch(match, similarity));
+				}
+			}
+		}
+		matches.sort(Comparator.comparingDouble(AddressMatch::similarity).reversed().thenComparing(AddressMatch::address));
+		return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : List.copyOf(matches);
+	}
+
+	/**
+	 * Resolves an address to an address of the records: the address itself if it
+	 * is known, else an address equal once normalized.
+	 *
+	 * A misspelled address is not resolved to the most similar address, which
+	 * could be the address of another household, such as {@code 1509 Culver St}
+	 * for {@code 1510 Culver St}: it is left to {@link #search(String, int)} to
+	 * suggest it.
+	 *
+	 * @param address The address to resolve.
+	 * @return The address as written in the records, or empty if no address is
+	 *         equal once normalized.
+	 */
+	public Optional<String> resolve(String address) {
+		List<String> exact = getExact(address);
+		if (exact.contains(address)) {
+			return Optional.of(address);
+		}
+		return exact.stream().findFirst();
+	}
+
+	/**
+	 * Normalizes an address: lower case, punctuation removed, spaces collapsed
+	 * and the usual street types and directions abbreviated.
+	 *
+	 * @param address The address.
+	 * @return The normalized address, such as {@code 947 e rose dr} for
+	 *         {@code 947 East Rose Drive}.
+	 */
+	public static String normalize(String address) {
+		StringBuilder key = new StringBuilder(address.length());
+		for (String token : address.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+			if (!token.isEmpty()) {
+				if (!key.isEmpty()) {
+					key.append(' ');
+				}
+				key.append(ABBREVIATIONS.getOrDefault(token, token));
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Patches the index with a change of the persons or fire stations.
+	 *
+	 * The change is ignored if the index was not built from the records it
+	 * changes; the index is then built again at the next lookup.
+	 *
+	 * @param event The change of the records.
+	 */
+	@EventListener
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public synchronized void onDataChange(DataChangeEvent event) {
+		Snapshot snapshot = current;
+		if (event.typeOfData() == TypeOfData.MEDICALRECORDS || snapshot == null) {
+			return;
+		}
+		List<?> changed = event.typeOfData() == TypeOfData.PERSONS ? snapshot.persons() : snapshot.firestations();
+		if (changed != event.before()) {
+			return;
+		}
+		List<Person> persons = event.typeOfData() == TypeOfData.PERSONS ? cast(event.after()) : snapshot.persons();
+		List<Firestation> firestations = event.typeOfData() == TypeOfData.FIRESTATIONS ? cast(event.after()) : snapshot.firestations();
+		Set<String> addresses = new LinkedHashSet<>();
+		for (List<Object> records : List.of(event.removed(), event.added())) {
+			for (Object record : records) {
+				addresses.add(record instanceof Person person ? person.address() : ((Firestation) record).address());
+			}
+		}
+		PersistentMap<String, List<String>> addressesByKey = snapshot.addressesByKey();
+		PersistentMap<String, List<String>> keysByTrigram = snapshot.keysByTrigram();
+		for (String address : addresses) {
+			boolean present = !personAddressIndex.get(address, persons).isEmpty() || !firestationAddressIndex.get(address, firestations).isEmpty();
+			String key = normalize(address);
+			List<String> keyAddresses = addressesByKey.getOrDefault(key, List.of());
+			if (present && !keyAddresses.contains(address)) {
+				addressesByKey = addressesByKey.with(key, append(keyAddresses, address));
+				if (keyAddresses.isEmpty()) {
+					for (String trigram : trigrams(key)) {
+						keysByTrigram = keysByTrigram.with(trigram, append(keysByTrigram.getOrDefault(trigram, List.of()), key));
+					}
+				}
+			} else if (!present && keyAddresses.contains(address)) {
+				List<String> remaining = keyAddresses.stream().filter(other -> !other.equals(address)).toList();
+				if (remaining.isEmpty()) {
+					addressesByKey = addressesByKey.without(key);
+					for (String trigram : trigrams(key)) {
+						keysByTrigram = removeKey(keysByTrigram, trigram, key);
+					}
+				} else {
+					addressesByKey = addressesByKey.with(key, remaining);
+				}
+			}
+		}
+		current = new Snapshot(persons, firestations, addressesByKey, keysByTrigram);
+	}
+
+	private Snapshot snapshot() {
+		List<Person> persons = persons();
+		List<Firestation> firestations = firestations();
+		Snapshot snapshot = current;
+		if (snapshot != null && snapshot.isBuiltFrom(persons, firestations)) {
+			return snapshot;
+		}
+		snapshot = kept();
+		if (snapshot != null && snapshot.isBuiltFrom(persons, firestations)) {
+			return snapshot;
+		}
+		return rebuild(persons, firestations);
+	}
+
+	private synchronized Snapshot rebuild(List<Person> persons, List<Firestation> firestations) {
+		Set<String> addresses = new LinkedHashSet<>();
+		persons.forEach(person -> addresses.add(person.address()));
+		firestations.forEach(firestation -> addresses.add(firestation.address()));
+		Map<String, List<String>> addressesByKey = new HashMap<>();
+		Map<String, List<String>> keysByTrigram = new HashMap<>();
+		for (String address : addresses) {
+			String key = normalize(address);
+			List<String> keyAddresses = addressesByKey.computeIfAbsent(key, k -> new ArrayList<>());
+			if (keyAddresses.isEmpty()) {
+				trigrams(key).forEach(trigram -> keysByTrigram.computeIfAbsent(trigram, t -> new ArrayList<>()).add(key));
+			}
+			keyAddresses.add(address);
+		}
+		Snapshot snapshot = new Snapshot(persons, firestations, PersistentMap.hashed(addressesByKey), PersistentMap.hashed(keysByTrigram));
+		if (current == null || !ReadContext.isBehind()) {
+			current = snapshot;
+		} else {
+			ReadContext.current().ifPresent(context -> context.keep(this, snapshot));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns the snapshot kept by the read context of the thread, built from an
+	 * older version than the current one.
+	 */
+	private Snapshot kept() {
+		return ReadContext.current().map(context -> (Snapshot) context.getKept(this)).orElse(null);
+	}
+
+	/**
+	 * Returns the distinct trigrams of a normalized address, padded with two
+	 * spaces before and one after so that its start weighs more.
+	 */
+	private static Set<String> trigrams(String key) {
+		String padded = "  " + key + " ";
+		Set<String> trigrams = new LinkedHashSet<>();
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			trigrams.add(padded.substring(i, i + 3));
+		}
+		return trigrams;
+	}
+
+	/**
+	 * Returns the Jaccard similarity of two sets of trigrams.
+	 */
+	private static double similarity(Set<String> trigrams, Set<String> otherTrigrams) {
+		int shared = 0;
+		for (String trigram : otherTrigrams) {
+			if (trigrams.contains(trigram)) {
+				shared++;
+			}
+		}
+		return (double) shared / (trigrams.size() + otherTrigrams.size() - shared);
+	}
+
+	private static List<String> append(List<String> list, String value) {
+		List<String> appended = new ArrayList<>(list.size() + 1);
+		appended.addAll(list);
+		appended.add(value);
+		return appended;
+	}
+
+	private static PersistentMap<String, List<String>> removeKey(PersistentMap<String, List<String>> keysByTrigram, String trigram, String key) {
+		List<String> keys = keysByTrigram.getOrDefault(trigram, List.of()).stream().filter(other -> !other.equals(key)).toList();
+		return keys.isEmpty() ? keysByTrigram.without(trigram) : keysByTrigram.with(trigram, keys);
+	}
+
+	private List<Person> persons() {
+		return repository.loadTypeOfData(TypeOfData.PERSONS, Person.class);
+	}
+
+	private List<Firestation> firestations() {
+		return repository.loadTypeOfData(TypeOfData.FIRESTATIONS, Firestation.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> cast(List<Object> records) {
+		return (List<T>) (List<?>) records;
+	}
+}
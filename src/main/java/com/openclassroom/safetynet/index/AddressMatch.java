@@ -0,0 +1,11 @@
+package com.openclassroom.safetynet.index;
+
+/**
+ * An address matching a searched address, found by the {@link AddressIndex}.
+ *
+ * @param address    The address, as written in the records.
+ * @param similarity The trigram similarity of the normalized addresses, from 0
+ *                   to 1 (identical once normalized).
+ */
+public record AddressMatch(String address, double similarity) {
+}
@@ -0,0 +1,24 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.Comparator;
+
+/**
+ * Key of the {@link PersonCityEmailIndex}: a city and an email address,
+ * followed by the name of the person so that each person has its own key even
+ * if the email address is shared.
+ *
+ * @param city      The city of the person.
+ * @param email     The email address of the person.
+ * @param lastName  The last name of the person.
+ * @param firstName The first name of the person.
+ */
+public record CityEmailKey(String city, String email, String lastName, String firstName) implements Comparable<CityEmailKey> {
+
+	private static final Comparator<CityEmailKey> ORDER = Comparator.comparing(CityEmailKey::city).thenComparing(CityEmailKey::email)
+			.thenComparing(CityEmailKey::lastName).thenComparing(CityEmailKey::firstName);
+
+	@Override
+	public int compareTo(CityEmailKey other) {
+		return ORDER.compare(this, other);
+	}
+}
@@ -0,0 +1,36 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Index of the fire stations by address, giving the stations covering an
+ * address. The {@link FirestationStationIndex} gives the other direction.
+ */
+@Component
+public class FirestationAddressIndex extends RecordIndex<String, Firestation> {
+
+	/**
+	 * Constructs the index of the fire stations of the repository.
+	 *
+	 * @param repository The repository holding the fire stations.
+	 */
+	public FirestationAddressIndex(JsonRepository repository) {
+		super(repository, TypeOfData.FIRESTATIONS, Firestation.class);
+	}
+
+	@Override
+	protected List<String> keysOf(Firestation firestation) {
+		return singleKey(firestation.address());
+	}
+
+	@Override
+	public String getName() {
+		return "firestationsByAddress";
+	}
+}
@@ -0,0 +1,37 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Index of the fire stations by station number and address, sorted so that
+ * the addresses covered by a station are paged in order (see
+ * {@link RecordIndex#page}).
+ */
+@Component
+public class FirestationStationAddressIndex extends RecordIndex<StationAddressKey, Firestation> {
+
+	/**
+	 * Constructs the index of the fire stations of the repository.
+	 *
+	 * @param repository The repository holding the fire stations.
+	 */
+	public FirestationStationAddressIndex(JsonRepository repository) {
+		super(repository, TypeOfData.FIRESTATIONS, Firestation.class, true);
+	}
+
+	@Override
+	protected List<StationAddressKey> keysOf(Firestation firestation) {
+		return singleKey(new StationAddressKey(firestation.station(), firestation.address()));
+	}
+
+	@Override
+	public String getName() {
+		return "firestationsByStationAndAddress";
+	}
+}
@@ -0,0 +1,36 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Index of the fire stations by station number, giving the addresses covered
+ * by a station. The {@link FirestationAddressIndex} gives the other direction.
+ */
+@Component
+public class FirestationStationIndex extends RecordIndex<Integer, Firestation> {
+
+	/**
+	 * Constructs the index of the fire stations of the repository.
+	 *
+	 * @param repository The repository holding the fire stations.
+	 */
+	public FirestationStationIndex(JsonRepository repository) {
+		super(repository, TypeOfData.FIRESTATIONS, Firestation.class);
+	}
+
+	@Override
+	protected List<Integer> keysOf(Firestation firestation) {
+		return singleKey(firestation.station());
+	}
+
+	@Override
+	public String getName() {
+		return "firestationsByStation";
+	}
+}
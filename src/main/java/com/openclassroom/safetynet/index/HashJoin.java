@@ -0,0 +1,55 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Equi-join of two lists of records on a key, such as the fire stations and
+ * the persons on their address.
+ *
+ * A join returns, for each record of the left list and in the same order, the
+ * records of the right list having the same key, in the order of the right
+ * list. {@link #probe(List, Function, Function)} probes a hash table already
+ * built on the right records, such as a {@link RecordIndex}, so that a join
+ * only reads the left list.
+ */
+public final class HashJoin {
+
+	private HashJoin() {
+	}
+
+	/**
+	 * Joins a list to records already held by a hash table on the join key.
+	 *
+	 * @param <L>     The type of the left records.
+	 * @param <R>     The type of the right records.
+	 * @param <K>     The type of the join key.
+	 * @param left    The left records.
+	 * @param leftKey The key of a left record.
+	 * @param table   The right records having a key, in their order, empty if
+	 *                there is none.
+	 * @return For each left record, the right records with the same key.
+	 */
+	public static <L, R, K> List<List<R>> probe(List<L> left, Function<? super L, K> leftKey, Function<? super K, List<R>> table) {
+		List<List<R>> matches = new ArrayList<>(left.size());
+		for (L record : left) {
+			matches.add(table.apply(leftKey.apply(record)));
+		}
+		return matches;
+	}
+
+	/**
+	 * Concatenates the matches of a join.
+	 *
+	 * @param <R>     The type of the right records.
+	 * @param matches The right records of each left record.
+	 * @return The read-only list of all the right records, in the order of the
+	 *         left records.
+	 */
+	public static <R> List<R> flatten(List<List<R>> matches) {
+		List<R> records = new ArrayList<>();
+		matches.forEach(records::addAll);
+		return List.copyOf(records);
+	}
+}
@@ -0,0 +1,18 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+/**
+ * A page of the records of a sorted {@link RecordIndex}, and the position of
+ * the next page.
+ *
+ * @param <K>      The type of the key.
+ * @param <T>      The type of the records.
+ * @param records  The read-only list of the records of the page.
+ * @param nextKey  The key of the first record of the next page, or null if
+ *                 this page is the last one.
+ * @param nextSkip The number of records of {@code nextKey} to skip in the next
+ *                 page.
+ */
+public record IndexPage<K, T>(List<T> records, K nextKey, int nextSkip) {
+}
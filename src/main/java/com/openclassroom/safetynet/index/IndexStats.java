@@ -0,0 +1,15 @@
+package com.openclassroom.safetynet.index;
+
+/**
+ * Statistics of an in-memory index.
+ *
+ * @param name     The name of the index.
+ * @param keys     The number of distinct keys indexed.
+ * @param records  The number of records of the indexed list.
+ * @param lookups  The number of lookups since startup.
+ * @param hits     The number of lookups which found at least one record.
+ * @param rebuilds The number of times the index was built from the records.
+ * @param updates  The number of mutations patched into the index.
+ */
+public record IndexStats(String name, int keys, int records, long lookups, long hits, long rebuilds, long updates) {
+}
@@ -0,0 +1,37 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.Collection;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Inverted index of the medical records by allergy token (see
+ * {@link MedicalTokens}): a medical record is listed under the token of each
+ * of its allergies.
+ */
+@Component
+public class MedicalRecordAllergyIndex extends RecordIndex<String, MedicalRecord> {
+
+	/**
+	 * Constructs the index of the medical records of the repository.
+	 *
+	 * @param repository The repository holding the medical records.
+	 */
+	public MedicalRecordAllergyIndex(JsonRepository repository) {
+		super(repository, TypeOfData.MEDICALRECORDS, MedicalRecord.class);
+	}
+
+	@Override
+	protected Collection<String> keysOf(MedicalRecord medicalRecord) {
+		return MedicalTokens.allergies(medicalRecord.allergies());
+	}
+
+	@Override
+	public String getName() {
+		return "medicalRecordsByAllergy";
+	}
+}
@@ -0,0 +1,35 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Index of the medical records by full name.
+ */
+@Component
+public class MedicalRecordNameIndex extends RecordIndex<String, MedicalRecord> {
+
+	/**
+	 * Constructs the index of the medical records of the repository.
+	 *
+	 * @param repository The repository holding the medical records.
+	 */
+	public MedicalRecordNameIndex(JsonRepository repository) {
+		super(repository, TypeOfData.MEDICALRECORDS, MedicalRecord.class);
+	}
+
+	@Override
+	protected List<String> keysOf(MedicalRecord medicalRecord) {
+		return singleKey(medicalRecord.fullName());
+	}
+
+	@Override
+	public String getName() {
+		return "medicalRecordsByFullName";
+	}
+}
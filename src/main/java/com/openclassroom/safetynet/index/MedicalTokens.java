@@ -0,0 +1,66 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Normalization of the medications and allergies of the medical records into
+ * search tokens.
+ *
+ * A token is trimmed and lower case; the token of a medication is its name,
+ * without its dosage, so that {@code Aznol:350mg} and {@code aznol:200mg} are
+ * both found by {@code aznol}.
+ */
+public final class MedicalTokens {
+
+	private MedicalTokens() {
+	}
+
+	/**
+	 * Returns the token of a medication.
+	 *
+	 * @param medication The medication, such as {@code aznol:350mg}.
+	 * @return The lower case name of the medication, such as {@code aznol}.
+	 */
+	public static String medication(String medication) {
+		int dosage = medication.indexOf(':');
+		return normalize(dosage < 0 ? medication : medication.substring(0, dosage));
+	}
+
+	/**
+	 * Returns the token of an allergy.
+	 *
+	 * @param allergy The allergy, such as {@code Peanut}.
+	 * @return The lower case allergy, such as {@code peanut}.
+	 */
+	public static String allergy(String allergy) {
+		return normalize(allergy);
+	}
+
+	/**
+	 * Returns the distinct tokens of medications.
+	 *
+	 * @param medications The medications, possibly null or holding null elements,
+	 *                    which are skipped.
+	 * @return The distinct tokens, in the order of the medications.
+	 */
+	public static List<String> medications(List<String> medications) {
+		return medications == null ? List.of() : medications.stream().filter(Objects::nonNull).map(MedicalTokens::medication).filter(token -> !token.isEmpty()).distinct().toList();
+	}
+
+	/**
+	 * Returns the distinct tokens of allergies.
+	 *
+	 * @param allergies The allergies, possibly null or holding null elements,
+	 *                  which are skipped.
+	 * @return The distinct tokens, in the order of the allergies.
+	 */
+	public static List<String> allergies(List<String> allergies) {
+		return allergies == null ? List.of() : allergies.stream().filter(Objects::nonNull).map(MedicalTokens::allergy).filter(token -> !token.isEmpty()).distinct().toList();
+	}
+
+	private static String normalize(String value) {
+		return value.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,19 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.Comparator;
+
+/**
+ * Key of the {@link PersonNameIndex}: a last name and a first name.
+ *
+ * @param lastName  The last name of the person.
+ * @param firstName The first name of the person.
+ */
+public record NameKey(String lastName, String firstName) implements Comparable<NameKey> {
+
+	private static final Comparator<NameKey> ORDER = Comparator.comparing(NameKey::lastName).thenComparing(NameKey::firstName);
+
+	@Override
+	public int compareTo(NameKey other) {
+		return ORDER.compare(this, other);
+	}
+}
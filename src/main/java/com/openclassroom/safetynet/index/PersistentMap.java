@@ -0,0 +1,487 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+
+/**
+ * Immutable map sharing its structure with the map it was derived from.
+ *
+ * Adding, replacing or removing a key returns a new map and leaves this one as
+ * it is, like a copy of a {@link java.util.HashMap} patched with the change,
+ * but only copies the nodes on the path to the key: a patch costs
+ * O(log n) whatever the size of the map, and the readers of the previous map
+ * still see it unchanged. The indexes patch their entries this way on each
+ * mutation, touching only the keys of the records it changes.
+ *
+ * A map is either hashed, a trie of 32-way branches on the bits of the hash
+ * of the keys, or sorted, a treap ordered by the natural order of the keys
+ * and balanced by a priority derived from their hash, which can also be read
+ * in order from a key (see {@link #tailEntries(Object)}).
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values, which are never null.
+ */
+public abstract class PersistentMap<K, V> {
+
+	private final int size;
+
+	private PersistentMap(int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Returns a hashed map of the given entries.
+	 *
+	 * @param <K>     The type of the keys.
+	 * @param <V>     The type of the values.
+	 * @param entries The entries, with no null value.
+	 * @return The hashed map.
+	 */
+	public static <K, V> PersistentMap<K, V> hashed(Map<K, V> entries) {
+		Object root = null;
+		for (Map.Entry<K, V> entry : entries.entrySet()) {
+			root = HashTrie.put(root, new Leaf(entry.getKey(), entry.getValue(), HashTrie.hash(entry.getKey())), 0, true);
+		}
+		return new HashTrie<>(root, entries.size());
+	}
+
+	/**
+	 * Returns a sorted map of the given entries, whose keys must be
+	 * {@link Comparable}.
+	 *
+	 * @param <K>     The type of the keys.
+	 * @param <V>     The type of the values.
+	 * @param entries The entries, with no null value.
+	 * @return The sorted map.
+	 */
+	public static <K, V> PersistentMap<K, V> sorted(Map<K, V> entries) {
+		List<Map.Entry<K, V>> ordered = new ArrayList<>(new TreeMap<>(entries).entrySet());
+		return new Treap<>(Treap.build(ordered, 0, ordered.size()), ordered.size());
+	}
+
+	/**
+	 * Returns the value of a key.
+	 *
+	 * @param key The key.
+	 * @return The value, or null if the key is absent.
+	 */
+	public abstract V get(Object key);
+
+	/**
+	 * Returns the value of a key, or a default value if the key is absent.
+	 *
+	 * @param key          The key.
+	 * @param defaultValue The value returned if the key is absent.
+	 * @return The value of the key, or {@code defaultValue}.
+	 */
+	public V getOrDefault(Object key, V defaultValue) {
+		V value = get(key);
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * Returns the map with a key set to a value.
+	 *
+	 * @param key   The key.
+	 * @param value The value, not null.
+	 * @return The new map, or this map if the key already has this value.
+	 */
+	public abstract PersistentMap<K, V> with(K key, V value);
+
+	/**
+	 * Returns the map without a key.
+	 *
+	 * @param key The key.
+	 * @return The new map, or this map if the key is absent.
+	 */
+	public abstract PersistentMap<K, V> without(K key);
+
+	/**
+	 * Returns the map with the value of a key combined with another value, as
+	 * {@link Map#merge(Object, Object, java.util.function.BiFunction)} does.
+	 *
+	 * @param key       The key.
+	 * @param value     The value set if the key is absent.
+	 * @param remapping The function combining the current value with
+	 *                  {@code value}, returning null to remove the key.
+	 * @return The new map.
+	 */
+	public PersistentMap<K, V> merge(K key, V value, BinaryOperator<V> remapping) {
+		V current = get(key);
+		V merged = current == null ? value : remapping.apply(current, value);
+		return merged == null ? without(key) : with(key, merged);
+	}
+
+	/**
+	 * Returns the entries of a sorted map from a key, in the order of the keys.
+	 *
+	 * @param from The first key, included if present.
+	 * @return The entries whose key is greater than or equal to {@code from}.
+	 * @throws UnsupportedOperationException If the map is not sorted.
+	 */
+	public abstract Iterable<Map.Entry<K, V>> tailEntries(K from);
+
+	/**
+	 * Returns the number of keys of the map.
+	 *
+	 * @return The number of keys.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns whether the map has no key.
+	 *
+	 * @return True if the map is empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Entry of a hashed map.
+	 */
+	private record Leaf(Object key, Object value, int hash) {
+	}
+
+	/**
+	 * Entries of a hashed map whose keys share the same hash.
+	 */
+	private record Collision(int hash, Leaf[] leaves) {
+	}
+
+	/**
+	 * Node of a hashed map with one slot for each value of the next 5 bits of
+	 * the hash.
+	 */
+	private record Branch(Object[] slots) {
+	}
+
+	/**
+	 * Hashed map: a trie of {@link Branch}es whose slots hold a {@link Leaf}, a
+	 * {@link Collision} or the next branch.
+	 */
+	private static final class HashTrie<K, V> extends PersistentMap<K, V> {
+
+		private static final int BITS = 5;
+		private static final int MASK = (1 << BITS) - 1;
+
+		private final Object root;
+
+		private HashTrie(Object root, int size) {
+			super(size);
+			this.root = root;
+		}
+
+		static int hash(Object key) {
+			int hash = key.hashCode();
+			return hash ^ (hash >>> 16);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(Object key) {
+			int hash = hash(key);
+			Object node = root;
+			for (int shift = 0; node instanceof Branch branch; shift += BITS) {
+				node = branch.slots()[(hash >>> shift) & MASK];
+			}
+			if (node instanceof Leaf leaf) {
+				return leaf.hash() == hash && leaf.key().equals(key) ? (V) leaf.value() : null;
+			}
+			if (node instanceof Collision collision && collision.hash() == hash) {
+				for (Leaf leaf : collision.leaves()) {
+					if (leaf.key().equals(key)) {
+						return (V) leaf.value();
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public PersistentMap<K, V> with(K key, V value) {
+			Objects.requireNonNull(value);
+			V current = get(key);
+			if (current == value) {
+				return this;
+			}
+			return new HashTrie<>(put(root, new Leaf(key, value, hash(key)), 0, false), current == null ? size() + 1 : size());
+		}
+
+		@Override
+		public PersistentMap<K, V> without(K key) {
+			if (get(key) == null) {
+				return this;
+			}
+			return new HashTrie<>(remove(root, key, hash(key), 0), size() - 1);
+		}
+
+		@Override
+		public Iterable<Map.Entry<K, V>> tailEntries(K from) {
+			throw new UnsupportedOperationException("A hashed map has no order");
+		}
+
+		/**
+		 * Puts a leaf under a node, copying the branches on its path, or updating
+		 * them in place while the map is built.
+		 */
+		static Object put(Object node, Leaf leaf, int shift, boolean inPlace) {
+			if (node == null) {
+				return leaf;
+			}
+			if (node instanceof Branch branch) {
+				int slot = (leaf.hash() >>> shift) & MASK;
+				Object child = put(branch.slots()[slot], leaf, shift + BITS, inPlace);
+				if (inPlace) {
+					branch.slots()[slot] = child;
+					return branch;
+				}
+				Object[] slots = branch.slots().clone();
+				slots[slot] = child;
+				return new Branch(slots);
+			}
+			int hash = node instanceof Leaf other ? other.hash() : ((Collision) node).hash();
+			if (hash != leaf.hash()) {
+				Object[] slots = new Object[MASK + 1];
+				slots[(hash >>> shift) & MASK] = node;
+				return put(new Branch(slots), leaf, shift, true);
+			}
+			Leaf[] leaves = node instanceof Leaf other ? new Leaf[] { other } : ((Collision) node).leaves();
+			for (int i = 0; i < leaves.length; i++) {
+				if (leaves[i].key().equals(leaf.key())) {
+					if (leaves.length == 1) {
+						return leaf;
+					}
+					Leaf[] replaced = leaves.clone();
+					replaced[i] = leaf;
+					return new Collision(hash, replaced);
+				}
+			}
+			Leaf[] added = Arrays.copyOf(leaves, leaves.length + 1);
+			added[leaves.length] = leaf;
+			return new Collision(hash, added);
+		}
+
+		/**
+		 * Removes a key present under a node, copying the branches on its path. A
+		 * branch left with a single leaf or collision is replaced by it.
+		 */
+		private static Object remove(Object node, Object key, int hash, int shift) {
+			if (node instanceof Branch branch) {
+				int slot = (hash >>> shift) & MASK;
+				Object[] slots = branch.slots().clone();
+				slots[slot] = remove(slots[slot], key, hash, shift + BITS);
+				Object single = null;
+				int children = 0;
+				for (Object child : slots) {
+					if (child != null) {
+						single = child;
+						children++;
+					}
+				}
+				if (children == 0) {
+					return null;
+				}
+				return children == 1 && !(single instanceof Branch) ? single : new Branch(slots);
+			}
+			if (node instanceof Collision collision) {
+				Leaf[] leaves = Arrays.stream(collision.leaves()).filter(leaf -> !leaf.key().equals(key)).toArray(Leaf[]::new);
+				return leaves.length == 1 ? leaves[0] : new Collision(hash, leaves);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Node of a sorted map.
+	 */
+	private record Node(Object key, Object value, int priority, Node left, Node right) {
+
+		Node withValue(Object value) {
+			return new Node(key, value, priority, left, right);
+		}
+
+		Node withLeft(Node left) {
+			return new Node(key, value, priority, left, right);
+		}
+
+		Node withRight(Node right) {
+			return new Node(key, value, priority, left, right);
+		}
+	}
+
+	/**
+	 * Sorted map: a binary search tree of {@link Node}s which is also a heap of
+	 * their priorities, so that its shape only depends on its keys.
+	 */
+	private static final class Treap<K, V> extends PersistentMap<K, V> {
+
+		private final Node root;
+
+		private Treap(Node root, int size) {
+			super(size);
+			this.root = root;
+		}
+
+		/**
+		 * Returns the priority of a key, a mix of the bits of its hash.
+		 */
+		static int priority(Object key) {
+			int hash = key.hashCode() * 0x9E3779B9;
+			return hash ^ (hash >>> 15);
+		}
+
+		@SuppressWarnings("unchecked")
+		static int compare(Object key, Object other) {
+			return ((Comparable<Object>) key).compareTo(other);
+		}
+
+		/**
+		 * Builds the treap of a range of sorted entries: the entry of the highest
+		 * priority is the root of the entries before and after it.
+		 */
+		static <K, V> Node build(List<Map.Entry<K, V>> entries, int from, int to) {
+			if (from == to) {
+				return null;
+			}
+			int top = from;
+			int topPriority = priority(entries.get(from).getKey());
+			for (int i = from + 1; i < to; i++) {
+				int priority = priority(entries.get(i).getKey());
+				if (priority > topPriority) {
+					top = i;
+					topPriority = priority;
+				}
+			}
+			Map.Entry<K, V> entry = entries.get(top);
+			return new Node(entry.getKey(), Objects.requireNonNull(entry.getValue()), topPriority, build(entries, from, top), build(entries, top + 1, to));
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(Object key) {
+			Node node = root;
+			while (node != null) {
+				int order = compare(key, node.key());
+				if (order == 0) {
+					return (V) node.value();
+				}
+				node = order < 0 ? node.left() : node.right();
+			}
+			return null;
+		}
+
+		@Override
+		public PersistentMap<K, V> with(K key, V value) {
+			Objects.requireNonNull(value);
+			V current = get(key);
+			if (current == value) {
+				return this;
+			}
+			return new Treap<>(put(root, key, value, priority(key)), current == null ? size() + 1 : size());
+		}
+
+		@Override
+		public PersistentMap<K, V> without(K key) {
+			if (get(key) == null) {
+				return this;
+			}
+			return new Treap<>(remove(root, key), size() - 1);
+		}
+
+		@Override
+		public Iterable<Map.Entry<K, V>> tailEntries(K from) {
+			return () -> new Iterator<>() {
+
+				private final Deque<Node> path = new ArrayDeque<>();
+
+				{
+					Node node = root;
+					while (node != null) {
+						if (compare(node.key(), from) >= 0) {
+							path.push(node);
+							node = node.left();
+						} else {
+							node = node.right();
+						}
+					}
+				}
+
+				@Override
+				public boolean hasNext() {
+					return !path.isEmpty();
+				}
+
+				@Override
+				@SuppressWarnings("unchecked")
+				public Map.Entry<K, V> next() {
+					if (path.isEmpty()) {
+						throw new NoSuchElementException();
+					}
+					Node node = path.pop();
+					for (Node next = node.right(); next != null; next = next.left()) {
+						path.push(next);
+					}
+					return new AbstractMap.SimpleImmutableEntry<>((K) node.key(), (V) node.value());
+				}
+			};
+		}
+
+		/**
+		 * Puts a key under a node, copying the nodes on its path and rotating the
+		 * new node up while its priority is higher than its parent's.
+		 */
+		private static Node put(Node node, Object key, Object value, int priority) {
+			if (node == null) {
+				return new Node(key, value, priority, null, null);
+			}
+			int order = compare(key, node.key());
+			if (order == 0) {
+				return node.withValue(value);
+			}
+			if (order < 0) {
+				Node left = put(node.left(), key, value, priority);
+				return left.priority() > node.priority() ? left.withRight(node.withLeft(left.right())) : node.withLeft(left);
+			}
+			Node right = put(node.right(), key, value, priority);
+			return right.priority() > node.priority() ? right.withLeft(node.withRight(right.left())) : node.withRight(right);
+		}
+
+		/**
+		 * Removes a key present under a node, copying the nodes on its path and
+		 * merging the children of its node.
+		 */
+		private static Node remove(Node node, Object key) {
+			int order = compare(key, node.key());
+			if (order == 0) {
+				return merge(node.left(), node.right());
+			}
+			return order < 0 ? node.withLeft(remove(node.left(), key)) : node.withRight(remove(node.right(), key));
+		}
+
+		/**
+		 * Merges two treaps whose keys are all lower in the first one.
+		 */
+		private static Node merge(Node left, Node right) {
+			if (left == null) {
+				return right;
+			}
+			if (right == null) {
+				return left;
+			}
+			return left.priority() >= right.priority() ? left.withRight(merge(left.right(), right)) : right.withLeft(merge(left, right.left()));
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Index of the persons by address.
+ */
+@Component
+public class PersonAddressIndex extends RecordIndex<String, Person> {
+
+	/**
+	 * Constructs the index of the persons of the repository.
+	 *
+	 * @param repository The repository holding the persons.
+	 */
+	public PersonAddressIndex(JsonRepository repository) {
+		super(repository, TypeOfData.PERSONS, Person.class);
+	}
+
+	@Override
+	protected List<String> keysOf(Person person) {
+		return singleKey(person.address());
+	}
+
+	@Override
+	public String getName() {
+		return "personsByAddress";
+	}
+}
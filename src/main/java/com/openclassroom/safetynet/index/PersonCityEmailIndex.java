@@ -0,0 +1,38 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Index of the persons by city, email address and name, sorted so that the
+ * email addresses of a city are paged in order (see {@link RecordIndex#page}).
+ * Each person has its own key, so a page never ends in the middle of the
+ * records of a key.
+ */
+@Component
+public class PersonCityEmailIndex extends RecordIndex<CityEmailKey, Person> {
+
+	/**
+	 * Constructs the index of the persons of the repository.
+	 *
+	 * @param repository The repository holding the persons.
+	 */
+	public PersonCityEmailIndex(JsonRepository repository) {
+		super(repository, TypeOfData.PERSONS, Person.class, true);
+	}
+
+	@Override
+	protected List<CityEmailKey> keysOf(Person person) {
+		return singleKey(new CityEmailKey(person.city(), person.email(), person.lastName(), person.firstName()));
+	}
+
+	@Override
+	public String getName() {
+		return "personsByCityAndEmail";
+	}
+}
@@ -0,0 +1,62 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+/**
+ * Index of the persons by last name and first name, sorted so that the
+ * persons of a last name, or of the last names starting with a prefix, are
+ * found next to each other and paged in order (see {@link RecordIndex#page}).
+ */
+@Component
+public class PersonNameIndex extends RecordIndex<NameKey, Person> {
+
+	/**
+	 * Constructs the index of the persons of the repository.
+	 *
+	 * @param repository The repository holding the persons.
+	 */
+	public PersonNameIndex(JsonRepository repository) {
+		super(repository, TypeOfData.PERSONS, Person.class, true);
+	}
+
+	@Override
+	protected List<NameKey> keysOf(Person person) {
+		return singleKey(new NameKey(person.lastName(), person.firstName()));
+	}
+
+	@Override
+	public String getName() {
+		return "personsByName";
+	}
+
+	/**
+	 * Returns the persons of a last name, in the order of their first names.
+	 *
+	 * @param lastName The last name, case sensitive.
+	 * @return The list of the persons.
+	 */
+	public List<Person> getByLastName(String lastName) {
+		return page(new NameKey(lastName, ""), 0, key -> key.lastName().equals(lastName), null, Integer.MAX_VALUE).records();
+	}
+
+	/**
+	 * Returns the persons whose last name starts with a prefix, in the order of
+	 * their last and first names.
+	 *
+	 * Only the last names starting with the prefix are visited, and the search
+	 * stops as soon as the limit is reached.
+	 *
+	 * @param prefix The prefix of the last names, case sensitive.
+	 * @param limit  The maximum number of persons returned.
+	 * @return The list of at most {@code limit} persons.
+	 */
+	public List<Person> getByPrefix(String prefix, int limit) {
+		return page(new NameKey(prefix, ""), 0, key -> key.lastName().startsWith(prefix), null, limit).records();
+	}
+}
@@ -0,0 +1,353 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.repository.DataChangeEvent;
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.ReadContext;
+
+/**
+ * In-memory index of the records of a type of data by a key.
+ *
+ * The index is an immutable snapshot tied to the list of records it was built
+ * from. A lookup first takes the current records from the repository and uses
+ * the snapshot built from them; the index is therefore always consistent with
+ * the records read, and is built again whenever they were replaced as a whole
+ * (reload of the data). Each mutation, announced by a {@link DataChangeEvent},
+ * patches the snapshot of the records it changes into the snapshot of the new
+ * records: only the entries of the keys of the removed and added records are
+ * touched, and the entries are a {@link PersistentMap} so that the new
+ * snapshot shares the others with the old one. The previous snapshot is kept for the readers still holding the
+ * records of the previous version. A lookup of a {@link ReadContext} pinned to
+ * an older version builds a snapshot kept by the context for the rest of the
+ * request, the current one is left as is so that the next mutation still
+ * patches it.
+ *
+ * Records sharing a key are kept in the order of the records, except that a
+ * record whose key changes is appended to the records of its new key. A
+ * record may have several keys (see {@link #keysOf(Object)}), it is then
+ * listed under each of them.
+ *
+ * @param <K> The type of the key.
+ * @param <T> The type of the records.
+ */
+public abstract class RecordIndex<K, T> {
+
+	private final JsonRepository repository;
+	private final TypeOfData typeOfData;
+	private final Class<T> recordType;
+	private final boolean sorted;
+
+	private volatile Snapshot<K, T> current;
+	private volatile Snapshot<K, T> previous;
+	private final AtomicLong lookups = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong rebuilds = new AtomicLong();
+	private final AtomicLong updates = new AtomicLong();
+
+	private record Snapshot<K, T>(List<T> records, PersistentMap<K, List<T>> entries) {
+	}
+
+	/**
+	 * Constructs an index of the records of a type of data.
+	 *
+	 * @param repository The repository holding the records.
+	 * @param typeOfData The type of data indexed.
+	 * @param recordType The class of the records.
+	 */
+	protected RecordIndex(JsonRepository repository, TypeOfData typeOfData, Class<T> recordType) {
+		this(repository, typeOfData, recordType, false);
+	}
+
+	/**
+	 * Constructs an index of the records of a type of data, optionally sorted by
+	 * key.
+	 *
+	 * @param repository The repository holding the records.
+	 * @param typeOfData The type of data indexed.
+	 * @param recordType The class of the records.
+	 * @param sorted     True to keep the keys sorted, so that the records can be
+	 *                   paged in the order of the keys (see {@link #page}).
+	 */
+	protected RecordIndex(JsonRepository repository, TypeOfData typeOfData, Class<T> recordType, boolean sorted) {
+		this.repository = repository;
+		this.typeOfData = typeOfData;
+		this.recordType = recordType;
+		this.sorted = sorted;
+	}
+
+	/**
+	 * Returns the keys of a record: a single key for most indexes, several for
+	 * the indexes listing a record under each of them.
+	 *
+	 * @param record The record.
+	 * @return The distinct keys, empty if the record is not indexed.
+	 */
+	protected abstract Collection<K> keysOf(T record);
+
+	/**
+	 * Returns the keys of a record listed under a single key.
+	 *
+	 * @param <K> The type of the key.
+	 * @param key The key of the record, or null if the record is not indexed.
+	 * @return The key, or no key if it is null.
+	 */
+	protected static <K> List<K> singleKey(K key) {
+		return key == null ? List.of() : List.of(key);
+	}
+
+	/**
+	 * Returns the name of the index, used in its statistics.
+	 *
+	 * @return The name of the index.
+	 */
+	public abstract String getName();
+
+	/**
+	 * Returns the records with a key.
+	 *
+	 * @param key The key to look for.
+	 * @return The read-only list of the records, empty if there is none.
+	 */
+	public List<T> get(K key) {
+		return get(key, repository.loadTypeOfData(typeOfData, recordType));
+	}
+
+	/**
+	 * Returns the records with a key, among a given version of the records.
+	 *
+	 * This is meant for the listeners of a {@link DataChangeEvent}, which look up
+	 * the records before or after the change while the repository still holds
+	 * the records before it. The current and the previous version are looked up
+	 * directly, any other version is indexed first.
+	 *
+	 * @param key     The key to look for.
+	 * @param records The version of the records to look into.
+	 * @return The read-only list of the records, empty if there is none.
+	 */
+	public List<T> get(K key, List<T> records) {
+		List<T> found = snapshot(records).entries().get(key);
+		recordLookup(found != null);
+		return found == null ? List.of() : found;
+	}
+
+	/**
+	 * Returns the records of several keys, all looked up in the same version of
+	 * the records.
+	 *
+	 * @param keys The keys to look for.
+	 * @return A map of each key found to the read-only list of its records, in
+	 *         the order of the keys.
+	 */
+	public Map<K, List<T>> getAll(Collection<K> keys) {
+		PersistentMap<K, List<T>> entries = snapshot().entries();
+		Map<K, List<T>> found = new LinkedHashMap<>();
+		for (K key : keys) {
+			List<T> records = entries.get(key);
+			if (records != null) {
+				found.put(key, records);
+			}
+		}
+		lookups.addAndGet(keys.size());
+		hits.addAndGet(found.size());
+		return found;
+	}
+
+	/**
+	 * Returns a page of the records of a sorted index, in the order of the keys,
+	 * for a keyset pagination.
+	 *
+	 * The page starts at a position: the record at {@code skip} among the records
+	 * of {@code from}, or the first record of the next key if there is none. It
+	 * stops at the first key out of the range, so each page only visits its own
+	 * records whatever the number of pages before it, and a position stays valid
+	 * whatever the records added or removed meanwhile.
+	 *
+	 * @param from           The key of the first record.
+	 * @param skip           The number of records of {@code from} to skip.
+	 * @param inRange        The condition of the keys of the range, which holds
+	 *                       from {@code from} up to the end of the range.
+	 * @param distinctBy     The group of each key, such as a prefix of the key,
+	 *                       to only return the first record of each group, or
+	 *                       null to return every record. The keys of a group
+	 *                       must follow each other.
+	 * @param limit          The maximum number of records returned.
+	 * @return The {@link IndexPage} of the records.
+	 * @throws IllegalStateException If the index is not sorted.
+	 */
+	public IndexPage<K, T> page(K from, int skip, Predicate<? super K> inRange, Function<? super K, ?> distinctBy, int limit) {
+		if (!sorted) {
+			throw new IllegalStateException("Index " + getName() + " is not sorted");
+		}
+		List<T> records = new ArrayList<>();
+		Object previousGroup = null;
+		for (Map.Entry<K, List<T>> entry : snapshot().entries().tailEntries(from)) {
+			if (!inRange.test(entry.getKey())) {
+				break;
+			}
+			Object group = distinctBy == null ? null : distinctBy.apply(entry.getKey());
+			for (int i = entry.getKey().equals(from) ? skip : 0; i < entry.getValue().size(); i++) {
+				if (distinctBy != null && !records.isEmpty() && group.equals(previousGroup)) {
+					break;
+				}
+				if (records.size() == limit) {
+					recordLookup(true);
+					return new IndexPage<>(List.copyOf(records), entry.getKey(), i);
+				}
+				records.add(entry.getValue().get(i));
+				previousGroup = group;
+			}
+		}
+		recordLookup(!records.isEmpty());
+		return new IndexPage<>(List.copyOf(records), null, 0);
+	}
+
+	/**
+	 * Returns the statistics of the index.
+	 *
+	 * @return The {@link IndexStats} of the index.
+	 */
+	public IndexStats getStats() {
+		Snapshot<K, T> snapshot = snapshot();
+		return new IndexStats(getName(), snapshot.entries().size(), snapshot.records().size(), lookups.get(), hits.get(), rebuilds.get(), updates.get());
+	}
+
+	/**
+	 * Counts a lookup in the statistics of the index.
+	 *
+	 * @param hit True if the lookup found at least one record.
+	 */
+	protected void recordLookup(boolean hit) {
+		lookups.incrementAndGet();
+		if (hit) {
+			hits.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Patches the index with a change of the records it indexes.
+	 *
+	 * The change is ignored if the index was not built from the records it
+	 * changes; the index is then built again at the next lookup. Indexes are
+	 * patched before the other listeners of the change are called.
+	 *
+	 * @param event The change of the records.
+	 */
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void onDataChange(DataChangeEvent event) {
+		Snapshot<K, T> snapshot = current;
+		if (event.typeOfData() != typeOfData || snapshot == null || snapshot.records() != event.before()) {
+			return;
+		}
+		PersistentMap<K, List<T>> entries = snapshot.entries();
+		List<T> removed = cast(event.removed());
+		List<T> added = cast(event.added());
+		for (int i = 0; i < Math.max(removed.size(), added.size()); i++) {
+			T oldRecord = i < removed.size() ? removed.get(i) : null;
+			T newRecord = i < added.size() ? added.get(i) : null;
+			Collection<K> oldKeys = oldRecord == null ? List.of() : keysOf(oldRecord);
+			Collection<K> newKeys = newRecord == null ? List.of() : keysOf(newRecord);
+			if (oldKeys.equals(newKeys)) {
+				for (K key : oldKeys) {
+					entries = replace(entries, key, oldRecord, newRecord);
+				}
+			} else {
+				for (K key : oldKeys) {
+					entries = remove(entries, key, oldRecord);
+				}
+				for (K key : newKeys) {
+					entries = append(entries, key, newRecord);
+				}
+			}
+		}
+		previous = snapshot;
+		current = new Snapshot<>(cast(event.after()), entries);
+		updates.incrementAndGet();
+	}
+
+	private Snapshot<K, T> snapshot() {
+		return snapshot(repository.loadTypeOfData(typeOfData, recordType));
+	}
+
+	private Snapshot<K, T> snapshot(List<T> records) {
+		Snapshot<K, T> snapshot = current;
+		if (snapshot != null && snapshot.records() == records) {
+			return snapshot;
+		}
+		snapshot = previous;
+		if (snapshot != null && snapshot.records() == records) {
+			return snapshot;
+		}
+		snapshot = kept();
+		if (snapshot != null && snapshot.records() == records) {
+			return snapshot;
+		}
+		return rebuild(records);
+	}
+
+	private synchronized Snapshot<K, T> rebuild(List<T> records) {
+		Map<K, List<T>> entries = new HashMap<>();
+		for (T record : records) {
+			for (K key : keysOf(record)) {
+				entries.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+			}
+		}
+		entries.replaceAll((key, list) -> Collections.unmodifiableList(list));
+		Snapshot<K, T> snapshot = new Snapshot<>(records, sorted ? PersistentMap.sorted(entries) : PersistentMap.hashed(entries));
+		if (current == null || !ReadContext.isBehind()) {
+			previous = current;
+			current = snapshot;
+		} else {
+			ReadContext.current().ifPresent(context -> context.keep(this, snapshot));
+		}
+		rebuilds.incrementAndGet();
+		return snapshot;
+	}
+
+	/**
+	 * Returns the snapshot kept by the read context of the thread, built from an
+	 * older version than the current one.
+	 */
+	@SuppressWarnings("unchecked")
+	private Snapshot<K, T> kept() {
+		return ReadContext.current().map(context -> (Snapshot<K, T>) context.getKept(this)).orElse(null);
+	}
+
+	private PersistentMap<K, List<T>> replace(PersistentMap<K, List<T>> entries, K key, T oldRecord, T newRecord) {
+		List<T> list = new ArrayList<>(entries.get(key));
+		list.set(list.indexOf(oldRecord), newRecord);
+		return entries.with(key, Collections.unmodifiableList(list));
+	}
+
+	private PersistentMap<K, List<T>> remove(PersistentMap<K, List<T>> entries, K key, T record) {
+		List<T> list = new ArrayList<>(entries.get(key));
+		list.remove(record);
+		return list.isEmpty() ? entries.without(key) : entries.with(key, Collections.unmodifiableList(list));
+	}
+
+	private PersistentMap<K, List<T>> append(PersistentMap<K, List<T>> entries, K key, T record) {
+		List<T> list = new ArrayList<>(entries.getOrDefault(key, List.of()));
+		list.add(record);
+		return entries.with(key, Collections.unmodifiableList(list));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<T> cast(List<Object> records) {
+		return (List<T>) (List<?>) records;
+	}
+}
@@ -0,0 +1,80 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.DataSet;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holder of the {@link ResidentBitmaps} of the current records.
+ *
+ * The bitmaps are tied to the persons, fire stations and medical records they
+ * were built from, and to the day their age groups were classified. Since the
+ * IDs of the residents are their positions in the list of persons, which a
+ * deletion shifts, the bitmaps are not patched: they are built again at the
+ * first search following a change of the records or of the day.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResidentBitmapIndex {
+
+	private final JsonRepository repository;
+
+	private volatile Snapshot current;
+
+	/**
+	 * The bitmaps of a version of the records.
+	 */
+	private record Snapshot(List<Person> persons, List<Firestation> firestations, List<MedicalRecord> medicalRecords, ResidentBitmaps bitmaps) {
+
+		boolean isBuiltFrom(List<Person> persons, List<Firestation> firestations, List<MedicalRecord> medicalRecords) {
+			return this.persons == persons && this.firestations == firestations && this.medicalRecords == medicalRecords
+					&& bitmaps.lastAdultBirthEpochDay() == AgeClassifier.lastAdultBirthEpochDay();
+		}
+	}
+
+	/**
+	 * Returns the bitmaps of the current records, building them if needed.
+	 *
+	 * @return The {@link ResidentBitmaps} of the current records.
+	 */
+	public ResidentBitmaps getBitmaps() {
+		DataSet dataSet = repository.getDataSet();
+		List<Person> persons = cast(dataSet.get(TypeOfData.PERSONS));
+		List<Firestation> firestations = cast(dataSet.get(TypeOfData.FIRESTATIONS));
+		List<MedicalRecord> medicalRecords = cast(dataSet.get(TypeOfData.MEDICALRECORDS));
+		Snapshot snapshot = current;
+		if (snapshot != null && snapshot.isBuiltFrom(persons, firestations, medicalRecords)) {
+			return snapshot.bitmaps();
+		}
+		return build(persons, firestations, medicalRecords);
+	}
+
+	private synchronized ResidentBitmaps build(List<Person> persons, List<Firestation> firestations, List<MedicalRecord> medicalRecords) {
+		Snapshot snapshot = current;
+		if (snapshot != null && snapshot.isBuiltFrom(persons, firestations, medicalRecords)) {
+			return snapshot.bitmaps();
+		}
+		long start = System.nanoTime();
+		ResidentBitmaps bitmaps = ResidentBitmaps.build(persons, firestations, medicalRecords, AgeClassifier.lastAdultBirthEpochDay());
+		log.debug("Resident bitmaps of {} persons built in {} ms", persons.size(), (System.nanoTime() - start) / 1_000_000);
+		current = new Snapshot(persons, firestations, medicalRecords, bitmaps);
+		return bitmaps;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> cast(List<Object> records) {
+		return (List<T>) (List<?>) records;
+	}
+}
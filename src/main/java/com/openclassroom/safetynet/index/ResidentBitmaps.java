@@ -0,0 +1,169 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import com.openclassroom.safetynet.constants.AgeGroup;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+
+/**
+ * Compressed bitmaps of the residents, for the combined searches.
+ *
+ * Each person is identified by its position in the list of persons the
+ * bitmaps are built from, a dense integer ID. The residents having a medical
+ * record are indexed in one bitmap per fire station covering their address,
+ * per age group, per allergy and per medication token (see
+ * {@link MedicalTokens}); a combined search is then the intersection of these
+ * bitmaps. Persons without a medical record are not indexed. The bitmaps are
+ * immutable.
+ */
+public final class ResidentBitmaps {
+
+	private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+	private final List<Person> residents;
+	private final MedicalRecord[] medicalRecords;
+	private final long lastAdultBirthEpochDay;
+	private final RoaringBitmap indexed;
+	private final RoaringBitmap children;
+	private final RoaringBitmap adults;
+	private final Map<Integer, RoaringBitmap> byStation;
+	private final Map<String, RoaringBitmap> byAllergy;
+	private final Map<String, RoaringBitmap> byMedication;
+
+	private ResidentBitmaps(List<Person> residents, MedicalRecord[] medicalRecords, long lastAdultBirthEpochDay, RoaringBitmap indexed,
+			RoaringBitmap children, RoaringBitmap adults, Map<Integer, RoaringBitmap> byStation, Map<String, RoaringBitmap> byAllergy,
+			Map<String, RoaringBitmap> byMedication) {
+		this.residents = residents;
+		this.medicalRecords = medicalRecords;
+		this.lastAdultBirthEpochDay = lastAdultBirthEpochDay;
+		this.indexed = indexed;
+		this.children = children;
+		this.adults = adults;
+		this.byStation = byStation;
+		this.byAllergy = byAllergy;
+		this.byMedication = byMedication;
+	}
+
+	/**
+	 * Builds the bitmaps of a version of the records.
+	 *
+	 * @param persons                The persons, whose positions are the IDs of
+	 *                               the residents.
+	 * @param firestations           The fire stations covering the addresses.
+	 * @param medicalRecords         The medical records, matched to the persons
+	 *                               by full name.
+	 * @param lastAdultBirthEpochDay The last birthdate of the adults, in epoch
+	 *                               days (see
+	 *                               {@link com.openclassroom.safetynet.model.AgeClassifier#lastAdultBirthEpochDay()}).
+	 * @return The bitmaps of the residents.
+	 */
+	public static ResidentBitmaps build(List<Person> persons, List<Firestation> firestations, List<MedicalRecord> medicalRecords,
+			long lastAdultBirthEpochDay) {
+		Map<String, MedicalRecord> medicalRecordsByFullName = new HashMap<>();
+		for (MedicalRecord medicalRecord : medicalRecords) {
+			medicalRecordsByFullName.putIfAbsent(medicalRecord.fullName(), medicalRecord);
+		}
+		Map<String, List<Integer>> stationsByAddress = new HashMap<>();
+		for (Firestation firestation : firestations) {
+			stationsByAddress.computeIfAbsent(firestation.address(), address -> new ArrayList<>()).add(firestation.station());
+		}
+		MedicalRecord[] residentMedicalRecords = new MedicalRecord[persons.size()];
+		RoaringBitmap indexed = new RoaringBitmap();
+		RoaringBitmap children = new RoaringBitmap();
+		RoaringBitmap adults = new RoaringBitmap();
+		Map<Integer, RoaringBitmap> byStation = new HashMap<>();
+		Map<String, RoaringBitmap> byAllergy = new HashMap<>();
+		Map<String, RoaringBitmap> byMedication = new HashMap<>();
+		for (int id = 0; id < persons.size(); id++) {
+			Person person = persons.get(id);
+			MedicalRecord medicalRecord = medicalRecordsByFullName.get(person.fullName());
+			if (medicalRecord == null) {
+				continue;
+			}
+			residentMedicalRecords[id] = medicalRecord;
+			indexed.add(id);
+			for (Integer station : stationsByAddress.getOrDefault(person.address(), List.of())) {
+				byStation.computeIfAbsent(station, key -> new RoaringBitmap()).add(id);
+			}
+			if (medicalRecord.birthEpochDay() != MedicalRecord.UNKNOWN_BIRTHDATE) {
+				(medicalRecord.birthEpochDay() > lastAdultBirthEpochDay ? children : adults).add(id);
+			}
+			for (String allergy : MedicalTokens.allergies(medicalRecord.allergies())) {
+				byAllergy.computeIfAbsent(allergy, key -> new RoaringBitmap()).add(id);
+			}
+			for (String medication : MedicalTokens.medications(medicalRecord.medications())) {
+				byMedication.computeIfAbsent(medication, key -> new RoaringBitmap()).add(id);
+			}
+		}
+		byStation.values().forEach(ResidentBitmaps::optimize);
+		byAllergy.values().forEach(ResidentBitmaps::optimize);
+		byMedication.values().forEach(ResidentBitmaps::optimize);
+		return new ResidentBitmaps(persons, residentMedicalRecords, lastAdultBirthEpochDay, optimize(indexed), optimize(children),
+				optimize(adults), Map.copyOf(byStation), Map.copyOf(byAllergy), Map.copyOf(byMedication));
+	}
+
+	/**
+	 * Selects the residents matching a filter.
+	 *
+	 * @param filter The combined filter.
+	 * @return A new bitmap of the IDs of the matching residents.
+	 */
+	public RoaringBitmap select(ResidentFilter filter) {
+		RoaringBitmap selected = indexed.clone();
+		if (!filter.stations().isEmpty()) {
+			selected.and(RoaringBitmap.or(filter.stations().stream().map(station -> byStation.getOrDefault(station, EMPTY)).iterator()));
+		}
+		if (filter.ageGroup() != null) {
+			selected.and(filter.ageGroup() == AgeGroup.CHILD ? children : adults);
+		}
+		for (String allergy : filter.allergies()) {
+			selected.and(byAllergy.getOrDefault(MedicalTokens.allergy(allergy), EMPTY));
+		}
+		for (String medication : filter.medications()) {
+			selected.and(byMedication.getOrDefault(MedicalTokens.medication(medication), EMPTY));
+		}
+		return selected;
+	}
+
+	/**
+	 * Returns a resident.
+	 *
+	 * @param id The ID of the resident.
+	 * @return The person with this ID.
+	 */
+	public Person resident(int id) {
+		return residents.get(id);
+	}
+
+	/**
+	 * Returns the medical record of a resident.
+	 *
+	 * @param id The ID of the resident.
+	 * @return The medical record of the person with this ID, or null if the
+	 *         person has none.
+	 */
+	public MedicalRecord medicalRecord(int id) {
+		return medicalRecords[id];
+	}
+
+	/**
+	 * Returns the last birthdate of the adults the age groups were built with.
+	 *
+	 * @return The last birthdate of the adults, in epoch days.
+	 */
+	public long lastAdultBirthEpochDay() {
+		return lastAdultBirthEpochDay;
+	}
+
+	private static RoaringBitmap optimize(RoaringBitmap bitmap) {
+		bitmap.runOptimize();
+		return bitmap;
+	}
+}
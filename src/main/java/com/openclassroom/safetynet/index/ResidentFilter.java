@@ -0,0 +1,31 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.List;
+
+import com.openclassroom.safetynet.constants.AgeGroup;
+
+/**
+ * Combined filter of the residents.
+ *
+ * A resident matches if they are covered by one of the stations, belong to
+ * the age group, and have all the allergies and all the medications. An empty
+ * list or a null age group does not filter.
+ *
+ * @param stations    The fire station numbers, any of which covers the
+ *                    resident.
+ * @param ageGroup    The age group of the resident, or null.
+ * @param allergies   The allergies the resident has, ignoring case.
+ * @param medications The medication names the resident takes, without dosage
+ *                    and ignoring case.
+ */
+public record ResidentFilter(List<Integer> stations, AgeGroup ageGroup, List<String> allergies, List<String> medications) {
+
+	/**
+	 * Constructs a filter, replacing the null lists with empty lists.
+	 */
+	public ResidentFilter {
+		stations = stations == null ? List.of() : List.copyOf(stations);
+		allergies = allergies == null ? List.of() : List.copyOf(allergies);
+		medications = medications == null ? List.of() : List.copyOf(medications);
+	}
+}
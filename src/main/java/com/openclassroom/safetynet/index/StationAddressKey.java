@@ -0,0 +1,21 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.Comparator;
+
+/**
+ * Key of the {@link FirestationStationAddressIndex}: a station number and an
+ * address it covers.
+ *
+ * @param station The station number.
+ * @param address The address covered by the station.
+ */
+public record StationAddressKey(int station, String address) implements Comparable<StationAddressKey> {
+
+	private static final Comparator<StationAddressKey> ORDER = Comparator.comparingInt(StationAddressKey::station)
+			.thenComparing(StationAddressKey::address);
+
+	@Override
+	public int compareTo(StationAddressKey other) {
+		return ORDER.compare(this, other);
+	}
+}
@@ -0,0 +1,287 @@
+package com.openclassroom.safetynet.index;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.model.AgeClassifier.AgeCounts;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.DataChangeEvent;
+import com.openclassroom.safetynet.repository.DataSet;
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.ReadContext;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counters of the adults and children covered by each fire station.
+ *
+ * The residents of an address are counted for each fire station covering the
+ * address, from the medical record matching their full name, exactly as the
+ * {@code /firestation} search counts them. The counters are tied to the
+ * persons, fire stations and medical records they were counted from, like a
+ * {@link RecordIndex}: they are counted again when the records are replaced
+ * as a whole, and patched on each {@link DataChangeEvent}, after the indexes,
+ * by counting again only the residents of the addresses the change touches,
+ * in a {@link PersistentMap} shared with the previous counters.
+ * The counters of a {@link ReadContext} pinned to an older version are kept
+ * by the context.
+ *
+ * The children turning adult are moved across once a day, by a scheduled pass
+ * which counts again only the residents whose birthday crosses the boundary.
+ * The pass also runs at the first read of the day if it has not run yet.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StationAgeCounters {
+
+	private static final String DAILY_CRON = "0 0 0 * * *";
+
+	private final JsonRepository repository;
+	private final TaskScheduler taskScheduler;
+	private final PersonAddressIndex personAddressIndex;
+	private final PersonNameIndex personNameIndex;
+	private final MedicalRecordNameIndex medicalRecordNameIndex;
+	private final FirestationAddressIndex firestationAddressIndex;
+
+	private volatile Snapshot current;
+	private volatile Snapshot previous;
+
+	/**
+	 * The counters of a version of the records, with the last birthdate of the
+	 * adults they were classified with.
+	 */
+	private record Snapshot(State state, long lastAdultBirthEpochDay, PersistentMap<Integer, AgeCounts> countsByStation) {
+	}
+
+	/**
+	 * A version of the records joined by the counters.
+	 */
+	private record State(List<Person> persons, List<Firestation> firestations, List<MedicalRecord> medicalRecords) {
+
+		boolean isSameAs(State other) {
+			return persons == other.persons && firestations == other.firestations && medicalRecords == other.medicalRecords;
+		}
+	}
+
+	/**
+	 * Schedules the daily pass moving the children turning adult.
+	 */
+	@PostConstruct
+	void init() {
+		taskScheduler.schedule(this::advanceDay, new CronTrigger(DAILY_CRON));
+	}
+
+	/**
+	 * Returns the number of adults and children covered by a fire station.
+	 *
+	 * @param stationNumber The fire station number.
+	 * @return The {@link AgeCounts} of the station, none if the station covers no
+	 *         resident.
+	 */
+	public AgeCounts getCounts(int stationNumber) {
+		Snapshot snapshot = snapshot(currentState());
+		if (snapshot.lastAdultBirthEpochDay() != AgeClassifier.lastAdultBirthEpochDay()) {
+			snapshot = advance(snapshot);
+		}
+		return snapshot.countsByStation().getOrDefault(stationNumber, AgeCounts.NONE);
+	}
+
+	/**
+	 * Patches the counters with a change of the persons, fire stations or medical
+	 * records.
+	 *
+	 * The change is ignored if the counters were not counted from the records it
+	 * changes; they are then counted again at the next read.
+	 *
+	 * @param event The change of the records.
+	 */
+	@EventListener
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public synchronized void onDataChange(DataChangeEvent event) {
+		Snapshot snapshot = current;
+		if (snapshot == null) {
+			return;
+		}
+		State before = snapshot.state();
+		List<?> changed = switch (event.typeOfData()) {
+		case PERSONS -> before.persons();
+		case FIRESTATIONS -> before.firestations();
+		case MEDICALRECORDS -> before.medicalRecords();
+		};
+		if (changed != event.before()) {
+			return;
+		}
+		State after = switch (event.typeOfData()) {
+		case PERSONS -> new State(cast(event.after()), before.firestations(), before.medicalRecords());
+		case FIRESTATIONS -> new State(before.persons(), cast(event.after()), before.medicalRecords());
+		case MEDICALRECORDS -> new State(before.persons(), before.firestations(), cast(event.after()));
+		};
+		Set<String> addresses = new LinkedHashSet<>();
+		for (Object record : event.removed()) {
+			addresses.addAll(addressesOf(record, before));
+		}
+		for (Object record : event.added()) {
+			addresses.addAll(addressesOf(record, after));
+		}
+		long lastAdultBirthEpochDay = snapshot.lastAdultBirthEpochDay();
+		PersistentMap<Integer, AgeCounts> countsByStation = snapshot.countsByStation();
+		for (String address : addresses) {
+			AgeCounts oldCounts = countAt(address, before, lastAdultBirthEpochDay);
+			for (Firestation firestation : firestationAddressIndex.get(address, before.firestations())) {
+				countsByStation = countsByStation.merge(firestation.station(), oldCounts, AgeCounts::minus);
+			}
+			AgeCounts newCounts = countAt(address, after, lastAdultBirthEpochDay);
+			for (Firestation firestation : firestationAddressIndex.get(address, after.firestations())) {
+				countsByStation = countsByStation.merge(firestation.station(), newCounts, AgeCounts::plus);
+			}
+		}
+		publish(new Snapshot(after, lastAdultBirthEpochDay, countsByStation));
+	}
+
+	/**
+	 * Moves the children who turned adult since the last pass, run once a day.
+	 */
+	void advanceDay() {
+		Snapshot snapshot = current;
+		if (snapshot != null && snapshot.lastAdultBirthEpochDay() != AgeClassifier.lastAdultBirthEpochDay()) {
+			advance(snapshot);
+		}
+	}
+
+	private synchronized Snapshot advance(Snapshot snapshot) {
+		long lastAdultBirthEpochDay = AgeClassifier.lastAdultBirthEpochDay();
+		long from = Math.min(snapshot.lastAdultBirthEpochDay(), lastAdultBirthEpochDay);
+		long to = Math.max(snapshot.lastAdultBirthEpochDay(), lastAdultBirthEpochDay);
+		State state = snapshot.state();
+		Set<String> addresses = new LinkedHashSet<>();
+		for (MedicalRecord medicalRecord : state.medicalRecords()) {
+			if (medicalRecord.birthEpochDay() > from && medicalRecord.birthEpochDay() <= to) {
+				addresses.addAll(addressesOf(medicalRecord, state));
+			}
+		}
+		PersistentMap<Integer, AgeCounts> countsByStation = snapshot.countsByStation();
+		for (String address : addresses) {
+			AgeCounts delta = countAt(address, state, lastAdultBirthEpochDay).minus(countAt(address, state, snapshot.lastAdultBirthEpochDay()));
+			for (Firestation firestation : firestationAddressIndex.get(address, state.firestations())) {
+				countsByStation = countsByStation.merge(firestation.station(), delta, AgeCounts::plus);
+			}
+		}
+		log.debug("{} addresses counted again for the birthdays up to epoch day {}", addresses.size(), lastAdultBirthEpochDay);
+		Snapshot advanced = new Snapshot(state, lastAdultBirthEpochDay, countsByStation);
+		if (current == snapshot) {
+			publish(advanced);
+		}
+		return advanced;
+	}
+
+	private Snapshot snapshot(State state) {
+		Snapshot snapshot = current;
+		if (snapshot != null && snapshot.state().isSameAs(state)) {
+			return snapshot;
+		}
+		snapshot = previous;
+		if (snapshot != null && snapshot.state().isSameAs(state)) {
+			return snapshot;
+		}
+		snapshot = kept();
+		if (snapshot != null && snapshot.state().isSameAs(state)) {
+			return snapshot;
+		}
+		return count(state);
+	}
+
+	private synchronized Snapshot count(State state) {
+		long lastAdultBirthEpochDay = AgeClassifier.lastAdultBirthEpochDay();
+		Map<String, AgeCounts> countsByAddress = new HashMap<>();
+		Map<Integer, AgeCounts> countsByStation = new HashMap<>();
+		for (Firestation firestation : state.firestations()) {
+			AgeCounts counts = countsByAddress.computeIfAbsent(firestation.address(), address -> countAt(address, state, lastAdultBirthEpochDay));
+			countsByStation.merge(firestation.station(), counts, AgeCounts::plus);
+		}
+		Snapshot snapshot = new Snapshot(state, lastAdultBirthEpochDay, PersistentMap.hashed(countsByStation));
+		if (current == null || !ReadContext.isBehind()) {
+			publish(snapshot);
+		} else {
+			ReadContext.current().ifPresent(context -> context.keep(this, snapshot));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns the counters kept by the read context of the thread, counted from
+	 * an older version than the current one.
+	 */
+	private Snapshot kept() {
+		return ReadContext.current().map(context -> (Snapshot) context.getKept(this)).orElse(null);
+	}
+
+	private void publish(Snapshot snapshot) {
+		previous = current;
+		current = snapshot;
+	}
+
+	/**
+	 * Counts the residents of an address having a medical record with a known
+	 * birthdate.
+	 */
+	private AgeCounts countAt(String address, State state, long lastAdultBirthEpochDay) {
+		int adults = 0;
+		int children = 0;
+		for (Person person : personAddressIndex.get(address, state.persons())) {
+			List<MedicalRecord> medicalRecords = medicalRecordNameIndex.get(person.fullName(), state.medicalRecords());
+			if (medicalRecords.isEmpty() || medicalRecords.get(0).birthEpochDay() == MedicalRecord.UNKNOWN_BIRTHDATE) {
+				continue;
+			}
+			if (medicalRecords.get(0).birthEpochDay() > lastAdultBirthEpochDay) {
+				children++;
+			} else {
+				adults++;
+			}
+		}
+		return new AgeCounts(adults, children);
+	}
+
+	/**
+	 * Returns the addresses whose residents are counted differently when a record
+	 * changes.
+	 */
+	private Collection<String> addressesOf(Object record, State state) {
+		if (record instanceof Person person) {
+			return List.of(person.address());
+		} else if (record instanceof Firestation firestation) {
+			return List.of(firestation.address());
+		} else if (record instanceof MedicalRecord medicalRecord) {
+			return personNameIndex.get(new NameKey(medicalRecord.lastName(), medicalRecord.firstName()), state.persons()).stream().map(Person::address)
+					.toList();
+		}
+		return List.of();
+	}
+
+	private State currentState() {
+		DataSet dataSet = repository.getDataSet();
+		return new State(cast(dataSet.get(TypeOfData.PERSONS)), cast(dataSet.get(TypeOfData.FIRESTATIONS)), cast(dataSet.get(TypeOfData.MEDICALRECORDS)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> cast(List<Object> records) {
+		return (List<T>) (List<?>) records;
+	}
+}
@@ -0,0 +1,153 @@
+package com.openclassroom.safetynet.model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Computes ages and classifies persons as children or adults from their
+ * birthdate in epoch days (see {@link MedicalRecord#birthEpochDay()}).
+ *
+ * The current date and the birthdate threshold between children and adults
+ * are computed once per day and cached, so that classifying a person is a
+ * single comparison of epoch days. A person is a child up to and including
+ * {@value #CHILD_MAX_AGE} years old.
+ */
+public final class AgeClassifier {
+
+	/**
+	 * The maximum age of a child.
+	 */
+	public static final int CHILD_MAX_AGE = 18;
+
+	private static final Clock CLOCK = Clock.systemDefaultZone();
+
+	private static volatile Today today = computeToday();
+
+	/**
+	 * The current date, with the last birthdate of the adults and the instant the
+	 * date changes.
+	 */
+	private record Today(LocalDate date, long lastAdultBirthEpochDay, long validUntilMillis) {
+	}
+
+	/**
+	 * Counts of adults and children.
+	 *
+	 * @param adults   The number of adults.
+	 * @param children The number of children.
+	 */
+	public record AgeCounts(int adults, int children) {
+
+		/**
+		 * No adult and no child.
+		 */
+		public static final AgeCounts NONE = new AgeCounts(0, 0);
+
+		/**
+		 * Adds counts to these counts.
+		 *
+		 * @param other The counts to add.
+		 * @return The sum of the counts.
+		 */
+		public AgeCounts plus(AgeCounts other) {
+			return new AgeCounts(adults + other.adults, children + other.children);
+		}
+
+		/**
+		 * Subtracts counts from these counts.
+		 *
+		 * @param other The counts to subtract.
+		 * @return The difference of the counts.
+		 */
+		public AgeCounts minus(AgeCounts other) {
+			return new AgeCounts(adults - other.adults, children - other.children);
+		}
+	}
+
+	private AgeClassifier() {
+	}
+
+	/**
+	 * Returns the current date, cached for the day.
+	 *
+	 * @return The current date in the default time zone.
+	 */
+	public static LocalDate today() {
+		return currentToday().date();
+	}
+
+	/**
+	 * Returns the last birthdate of the adults, in epoch days, cached for the day.
+	 *
+	 * A person born on or before this day is an adult, a person born after it is
+	 * a child.
+	 *
+	 * @return The last birthdate of the adults, in epoch days.
+	 */
+	public static long lastAdultBirthEpochDay() {
+		return currentToday().lastAdultBirthEpochDay();
+	}
+
+	/**
+	 * Computes the age of a person.
+	 *
+	 * @param birthEpochDay The birthdate of the person, in epoch days.
+	 * @return The age of the person in years.
+	 */
+	public static int age(long birthEpochDay) {
+		return Period.between(LocalDate.ofEpochDay(birthEpochDay), today()).getYears();
+	}
+
+	/**
+	 * Checks if a person is a child.
+	 *
+	 * @param birthEpochDay The birthdate of the person, in epoch days.
+	 * @return True if the person is {@value #CHILD_MAX_AGE} years old or less,
+	 *         false otherwise.
+	 */
+	public static boolean isChild(long birthEpochDay) {
+		return birthEpochDay > lastAdultBirthEpochDay();
+	}
+
+	/**
+	 * Counts the adults and children among birthdates.
+	 *
+	 * Unknown birthdates ({@link MedicalRecord#UNKNOWN_BIRTHDATE}) are not
+	 * counted.
+	 *
+	 * @param birthEpochDays The birthdates, in epoch days.
+	 * @return The {@link AgeCounts} of the birthdates.
+	 */
+	public static AgeCounts count(int[] birthEpochDays) {
+		long lastAdultBirthEpochDay = lastAdultBirthEpochDay();
+		int adults = 0;
+		int children = 0;
+		for (int birthEpochDay : birthEpochDays) {
+			if (birthEpochDay == MedicalRecord.UNKNOWN_BIRTHDATE) {
+				continue;
+			}
+			if (birthEpochDay > lastAdultBirthEpochDay) {
+				children++;
+			} else {
+				adults++;
+			}
+		}
+		return new AgeCounts(adults, children);
+	}
+
+	private static Today currentToday() {
+		Today current = today;
+		if (CLOCK.millis() >= current.validUntilMillis()) {
+			current = computeToday();
+			today = current;
+		}
+		return current;
+	}
+
+	private static Today computeToday() {
+		LocalDate date = LocalDate.now(CLOCK);
+		long validUntilMillis = date.plusDays(1).atStartOfDay(CLOCK.getZone()).toInstant().toEpochMilli();
+		return new Today(date, date.minusYears(CHILD_MAX_AGE + 1L).toEpochDay(), validUntilMillis);
+	}
+}
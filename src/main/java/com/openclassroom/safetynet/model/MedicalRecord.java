@@ -1,11 +1,14 @@
 package com.openclassroom.safetynet.model;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.Period;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.validation.constraints.NotBlank;
@@ -14,20 +17,90 @@ import jakarta.validation.constraints.NotNull;
 /**
  * Represents medical record information for a person.
  *
- * @param firstName   The first name of the person.
- * @param lastName    The last name of the person.
- * @param birthdate   The birthdate of the person.
- * @param medications A list of medications the person is taking.
- * @param allergies   A list of allergies the person has.
+ * The birthdate is parsed once, when the record is constructed, into a number
+ * of days since the epoch from which the age and the child or adult
+ * classification are computed by the {@link AgeClassifier}.
+ *
+ * @param firstName     The first name of the person.
+ * @param lastName      The last name of the person.
+ * @param birthdate     The birthdate of the person ("MM/dd/yyyy").
+ * @param medications   A list of medications the person is taking.
+ * @param allergies     A list of allergies the person has.
+ * @param birthEpochDay The birthdate of the person in days since the epoch, or
+ *                      {@link #UNKNOWN_BIRTHDATE} if the birthdate cannot be
+ *                      parsed.
  */
 
-@JsonIgnoreProperties(value = { "age", "child", "adult" }, ignoreUnknown = false)
+@JsonIgnoreProperties(value = { "age", "child", "adult", "birthEpochDay" }, ignoreUnknown = false)
 @JsonPropertyOrder({ "firstName", "lastName", "birthdate", "medications", "allergies" })
 public record MedicalRecord(@NotBlank String firstName, @NotBlank String lastName, @NotBlank String birthdate, @NotNull List<String> medications,
-		@NotNull List<String> allergies) {
+		@NotNull List<String> allergies, int birthEpochDay) {
+
+	/**
+	 * The {@code birthEpochDay} of a birthdate which cannot be parsed.
+	 */
+	public static final int UNKNOWN_BIRTHDATE = Integer.MIN_VALUE;
 
 	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
+	/**
+	 * Constructs a {@code MedicalRecord}, parsing the birthdate.
+	 *
+	 * @param firstName   The first name of the person.
+	 * @param lastName    The last name of the person.
+	 * @param birthdate   The birthdate of the person ("MM/dd/yyyy").
+	 * @param medications A list of medications the person is taking.
+	 * @param allergies   A list of allergies the person has.
+	 */
+	@JsonCreator
+	public MedicalRecord(@JsonProperty("firstName") String firstName, @JsonProperty("lastName") String lastName,
+			@JsonProperty("birthdate") String birthdate, @JsonProperty("medications") List<String> medications,
+			@JsonProperty("allergies") List<String> allergies) {
+		this(firstName, lastName, birthdate, medications, allergies, parseBirthdate(birthdate));
+	}
+
+	/**
+	 * Parses a birthdate into a number of days since the epoch.
+	 *
+	 * Plain "MM/dd/yyyy" dates are read directly, any other date (including the
+	 * days which may not exist in every month) is handed to the
+	 * {@link DateTimeFormatter}.
+	 *
+	 * @param birthdate The birthdate ("MM/dd/yyyy").
+	 * @return The number of days since the epoch, or {@link #UNKNOWN_BIRTHDATE}
+	 *         if the birthdate cannot be parsed.
+	 */
+	public static int parseBirthdate(String birthdate) {
+		if (birthdate == null) {
+			return UNKNOWN_BIRTHDATE;
+		}
+		if (birthdate.length() == 10 && birthdate.charAt(2) == '/' && birthdate.charAt(5) == '/') {
+			int month = digits(birthdate, 0, 2);
+			int day = digits(birthdate, 3, 5);
+			int year = digits(birthdate, 6, 10);
+			if (month >= 1 && month <= 12 && day >= 1 && day <= 28 && year > 0) {
+				return (int) LocalDate.of(year, month, day).toEpochDay();
+			}
+		}
+		try {
+			return Math.toIntExact(LocalDate.parse(birthdate, FORMATTER).toEpochDay());
+		} catch (DateTimeException | ArithmeticException e) {
+			return UNKNOWN_BIRTHDATE;
+		}
+	}
+
+	private static int digits(String value, int from, int to) {
+		int result = 0;
+		for (int i = from; i < to; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result;
+	}
+
 	/**
 	 * Returns the full name of the person by combining the first name and last
 	 * name.
@@ -42,35 +115,40 @@ public record MedicalRecord(@NotBlank String firstName, @NotBlank String lastNam
 
 	/**
 	 * Calculates the person's age based on the provided birthdate.
-	 * 
-	 * The birthdate is parsed from the string value of {@code birthdate}
-	 * ("format:"MM/dd/yyyy").
 	 *
 	 * @return The person's age in years.
+	 * @throws DateTimeParseException If the birthdate cannot be parsed.
 	 */
 
 	public int getAge() {
-		LocalDate birthdate = LocalDate.parse(this.birthdate, FORMATTER);
-		LocalDate today = LocalDate.now();
-		return Period.between(birthdate, today).getYears();
+		return AgeClassifier.age(knownBirthEpochDay());
 	}
 
 	/**
 	 * Checks if the person is a child (under 18 years old).
 	 *
 	 * @return True if the person is a child, false otherwise.
+	 * @throws DateTimeParseException If the birthdate cannot be parsed.
 	 */
 	public boolean isChild() {
-		return this.getAge() <= 18;
+		return AgeClassifier.isChild(knownBirthEpochDay());
 	}
 
 	/**
 	 * Checks if the person is an adult (over 18 years old).
 	 *
 	 * @return True if the person is an adult, false otherwise.
+	 * @throws DateTimeParseException If the birthdate cannot be parsed.
 	 */
 	public boolean isAdult() {
-		return this.getAge() > 18;
+		return !isChild();
+	}
+
+	private int knownBirthEpochDay() {
+		if (birthEpochDay == UNKNOWN_BIRTHDATE) {
+			LocalDate.parse(birthdate, FORMATTER);
+		}
+		return birthEpochDay;
 	}
 
 }
@@ -0,0 +1,246 @@
+package com.openclassroom.safetynet.repository;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.exceptions.DataLoadingException;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+
+/**
+ * Encoder and decoder of the compact binary snapshot of the dataset.
+ *
+ * The snapshot starts with a header identifying the JSON file it was produced
+ * from (size and checksum), followed by a dictionary
+ * holding each distinct string once, and by the records of each type of data.
+ * Strings are written as indexes into the dictionary and numbers as variable
+ * length integers, so loading the snapshot needs no JSON parsing and allocates
+ * each distinct string only once.
+ */
+@Component
+public class BinarySnapshotCodec {
+
+	private static final int MAGIC = 0x534E4232;
+	private static final int NULL = 0;
+
+	/**
+	 * Identifies the JSON file a binary snapshot was produced from.
+	 *
+	 * @param jsonSize     The size of the JSON file, in bytes.
+	 * @param jsonChecksum The checksum of the JSON file.
+	 */
+	public record Stamp(long jsonSize, long jsonChecksum) {
+	}
+
+	/**
+	 * Writes a binary snapshot of the dataset.
+	 *
+	 * @param stamp The stamp of the JSON file holding the same dataset.
+	 * @param data  The records of each type of data.
+	 * @param out   The stream to write to, which is left open.
+	 * @throws IOException If the snapshot cannot be written.
+	 */
+	public void write(Stamp stamp, Map<TypeOfData, List<Object>> data, OutputStream out) throws IOException {
+		Map<String, Integer> dictionary = new LinkedHashMap<>();
+		data.values().forEach(records -> records.forEach(record -> collectStrings(record, dictionary)));
+
+		DataOutputStream output = new DataOutputStream(out);
+		output.writeInt(MAGIC);
+		output.writeLong(stamp.jsonSize());
+		output.writeLong(stamp.jsonChecksum());
+		writeVarInt(output, dictionary.size());
+		for (String value : dictionary.keySet()) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(output, bytes.length);
+			output.write(bytes);
+		}
+		for (TypeOfData typeOfData : TypeOfData.values()) {
+			List<Object> records = data.getOrDefault(typeOfData, List.of());
+			writeVarInt(output, records.size());
+			for (Object record : records) {
+				writeRecord(output, record, dictionary);
+			}
+		}
+		output.flush();
+	}
+
+	/**
+	 * Reads a binary snapshot if it was produced from the JSON file with the
+	 * given size and checksum.
+	 *
+	 * The modification time is not part of the stamp: a JSON file rewritten
+	 * within the resolution of the clock, or restored with its old time, must
+	 * not be taken for the file of the snapshot, while a file only touched still
+	 * is. A snapshot written with the modification time by an older version has
+	 * another format and is rejected.
+	 *
+	 * @param in           The stream to read from, which is left open.
+	 * @param jsonSize     The size of the current JSON file.
+	 * @param jsonChecksum The checksum of the current JSON file.
+	 * @return The stamp and records of the snapshot, or an empty optional if the
+	 *         snapshot was produced from another JSON file.
+	 * @throws DataLoadingException If the stream is not a binary snapshot or is
+	 *                              truncated.
+	 */
+	public Optional<Snapshot> read(InputStream in, long jsonSize, long jsonChecksum) {
+		try {
+			DataInputStream input = new DataInputStream(in);
+			if (input.readInt() != MAGIC) {
+				throw new DataLoadingException("Error loading binary snapshot: unknown format");
+			}
+			Stamp stamp = new Stamp(input.readLong(), input.readLong());
+			if (stamp.jsonSize() != jsonSize || stamp.jsonChecksum() != jsonChecksum) {
+				return Optional.empty();
+			}
+			String[] dictionary = new String[readVarInt(input)];
+			for (int i = 0; i < dictionary.length; i++) {
+				byte[] bytes = new byte[readVarInt(input)];
+				input.readFully(bytes);
+				dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+			Map<TypeOfData, List<Object>> data = new EnumMap<>(TypeOfData.class);
+			for (TypeOfData typeOfData : TypeOfData.values()) {
+				int count = readVarInt(input);
+				List<Object> records = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					records.add(readRecord(input, typeOfData, dictionary));
+				}
+				data.put(typeOfData, List.copyOf(records));
+			}
+			return Optional.of(new Snapshot(stamp, data));
+		} catch (IOException e) {
+			throw new DataLoadingException("Error loading binary snapshot: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Content of a binary snapshot.
+	 *
+	 * @param stamp The stamp of the JSON file the snapshot was produced from.
+	 * @param data  The records of each type of data.
+	 */
+	public record Snapshot(Stamp stamp, Map<TypeOfData, List<Object>> data) {
+	}
+
+	private static void collectStrings(Object record, Map<String, Integer> dictionary) {
+		if (record instanceof Person p) {
+			collectStrings(dictionary, Arrays.asList(p.firstName(), p.lastName(), p.address(), p.city(), p.zip(), p.phone(), p.email()));
+		} else if (record instanceof Firestation f) {
+			collectStrings(dictionary, Arrays.asList(f.address()));
+		} else if (record instanceof MedicalRecord m) {
+			collectStrings(dictionary, Arrays.asList(m.firstName(), m.lastName(), m.birthdate()));
+			collectStrings(dictionary, m.medications());
+			collectStrings(dictionary, m.allergies());
+		} else {
+			throw new IllegalArgumentException("Unexpected record: " + record);
+		}
+	}
+
+	private static void collectStrings(Map<String, Integer> dictionary, List<String> values) {
+		if (values != null) {
+			values.stream().filter(Objects::nonNull).forEach(value -> dictionary.putIfAbsent(value, dictionary.size() + 1));
+		}
+	}
+
+	private static void writeRecord(DataOutputStream output, Object record, Map<String, Integer> dictionary) throws IOException {
+		if (record instanceof Person p) {
+			for (String value : Arrays.asList(p.firstName(), p.lastName(), p.address(), p.city(), p.zip(), p.phone(), p.email())) {
+				writeString(output, value, dictionary);
+			}
+		} else if (record instanceof Firestation f) {
+			writeString(output, f.address(), dictionary);
+			writeVarInt(output, f.station());
+		} else if (record instanceof MedicalRecord m) {
+			writeString(output, m.firstName(), dictionary);
+			writeString(output, m.lastName(), dictionary);
+			writeString(output, m.birthdate(), dictionary);
+			writeStrings(output, m.medications(), dictionary);
+			writeStrings(output, m.allergies(), dictionary);
+		} else {
+			throw new IllegalArgumentException("Unexpected record: " + record);
+		}
+	}
+
+	private static Object readRecord(DataInputStream input, TypeOfData typeOfData, String[] dictionary) throws IOException {
+		return switch (typeOfData) {
+		case PERSONS -> new Person(readString(input, dictionary), readString(input, dictionary), readString(input, dictionary),
+				readString(input, dictionary), readString(input, dictionary), readString(input, dictionary), readString(input, dictionary));
+		case FIRESTATIONS -> new Firestation(readString(input, dictionary), readVarInt(input));
+		case MEDICALRECORDS -> new MedicalRecord(readString(input, dictionary), readString(input, dictionary), readString(input, dictionary),
+				readStrings(input, dictionary), readStrings(input, dictionary));
+		};
+	}
+
+	private static void writeString(DataOutputStream output, String value, Map<String, Integer> dictionary) throws IOException {
+		writeVarInt(output, value == null ? NULL : dictionary.get(value));
+	}
+
+	private static String readString(DataInputStream input, String[] dictionary) throws IOException {
+		int index = readVarInt(input);
+		return index == NULL ? null : dictionary[index - 1];
+	}
+
+	private static void writeStrings(DataOutputStream output, List<String> values, Map<String, Integer> dictionary) throws IOException {
+		if (values == null) {
+			writeVarInt(output, NULL);
+			return;
+		}
+		writeVarInt(output, values.size() + 1);
+		for (String value : values) {
+			writeString(output, value, dictionary);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream input, String[] dictionary) throws IOException {
+		int size = readVarInt(input);
+		if (size == NULL) {
+			return null;
+		}
+		List<String> values = new ArrayList<>(size - 1);
+		for (int i = 1; i < size; i++) {
+			values.add(readString(input, dictionary));
+		}
+		return values;
+	}
+
+	/**
+	 * Writes an integer in zigzag variable length encoding: small values, negative
+	 * or not, take a single byte.
+	 */
+	private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+		int zigzag = (value << 1) ^ (value >> 31);
+		while ((zigzag & ~0x7F) != 0) {
+			output.writeByte((zigzag & 0x7F) | 0x80);
+			zigzag >>>= 7;
+		}
+		output.writeByte(zigzag);
+	}
+
+	private static int readVarInt(DataInputStream input) throws IOException {
+		int zigzag = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = input.readUnsignedByte();
+			zigzag |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+}
@@ -0,0 +1,42 @@
+package com.openclassroom.safetynet.repository;
+
+import java.util.List;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+
+/**
+ * Event published by the {@link JsonRepository} when a mutation changed the
+ * records of a type of data.
+ *
+ * The event is published once the change is persisted, by the writer thread
+ * or by the group commit writer, right before the version of the dataset
+ * holding the change is published, so that the listeners can bring structures
+ * derived from the records up to date incrementally. The events of a group
+ * commit are published in the order of their changes. Listeners must be quick
+ * and must not write to the repository.
+ *
+ * @param typeOfData The type of data changed.
+ * @param before     The read-only list of records before the change.
+ * @param after      The read-only list of records after the change.
+ * @param splice     The change turning {@code before} into {@code after}.
+ */
+public record DataChangeEvent(TypeOfData typeOfData, List<Object> before, List<Object> after, Splice splice) {
+
+	/**
+	 * Returns the records removed by the change.
+	 *
+	 * @return The read-only list of the records removed, in their order.
+	 */
+	public List<Object> removed() {
+		return before.subList(splice.from(), splice.from() + splice.deleteCount());
+	}
+
+	/**
+	 * Returns the records added by the change.
+	 *
+	 * @return The read-only list of the records added, in their order.
+	 */
+	public List<Object> added() {
+		return after.subList(splice.from(), splice.from() + splice.added().size());
+	}
+}
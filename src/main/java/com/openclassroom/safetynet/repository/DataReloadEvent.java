@@ -0,0 +1,11 @@
+package com.openclassroom.safetynet.repository;
+
+/**
+ * Event published by the {@link JsonRepository} once the whole dataset has
+ * been reloaded from the JSON files, which is not announced record by record
+ * by {@link DataChangeEvent}s.
+ *
+ * @param dataSet The dataset reloaded.
+ */
+public record DataReloadEvent(DataSet dataSet) {
+}
@@ -0,0 +1,118 @@
+package com.openclassroom.safetynet.repository;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+
+/**
+ * Immutable version of the in-memory dataset.
+ *
+ * The repository publishes a new {@code DataSet} for every applied mutation,
+ * so a reader holding one always sees the records of every type of data as
+ * they were at that version, whatever the writes made meanwhile.
+ *
+ * The dataset also records the {@link Revision} of each type of data, that is
+ * the version and time of its last change, so that a result can be tagged with
+ * the revisions of the types of data it was computed from.
+ *
+ * @param version   The version of the dataset, incremented by every mutation
+ *                  and reload.
+ * @param data      The read-only list of records of each type of data.
+ * @param revisions The read-only revision of each type of data.
+ */
+public record DataSet(long version, Map<TypeOfData, List<Object>> data, Map<TypeOfData, Revision> revisions) {
+
+	/**
+	 * The dataset published before the first load.
+	 */
+	public static final DataSet EMPTY = new DataSet(0, Map.of(), Map.of());
+
+	/**
+	 * The last change of a type of data.
+	 *
+	 * @param version  The version of the dataset which changed the type of data.
+	 * @param modified The time of the change.
+	 */
+	public record Revision(long version, Instant modified) {
+
+		/**
+		 * The revision of a type of data never loaded.
+		 */
+		public static final Revision NONE = new Revision(0, Instant.EPOCH);
+	}
+
+	/**
+	 * Constructs a {@code DataSet}, copying the maps of records and revisions.
+	 *
+	 * @param version   The version of the dataset.
+	 * @param data      The read-only list of records of each type of data.
+	 * @param revisions The revision of each type of data.
+	 */
+	public DataSet {
+		Map<TypeOfData, List<Object>> copy = new EnumMap<>(TypeOfData.class);
+		copy.putAll(data);
+		data = Collections.unmodifiableMap(copy);
+		Map<TypeOfData, Revision> revisionsCopy = new EnumMap<>(TypeOfData.class);
+		revisionsCopy.putAll(revisions);
+		revisions = Collections.unmodifiableMap(revisionsCopy);
+	}
+
+	/**
+	 * Returns the revision of a type of data.
+	 *
+	 * @param typeOfData The type of data.
+	 * @return The last change of the type of data, {@link Revision#NONE} if it
+	 *         was never loaded.
+	 */
+	public Revision revisionOf(TypeOfData typeOfData) {
+		return revisions.getOrDefault(typeOfData, Revision.NONE);
+	}
+
+	/**
+	 * Returns the records of a type of data.
+	 *
+	 * @param typeOfData The type of data.
+	 * @return The read-only list of records, empty if there is none.
+	 */
+	public List<Object> get(TypeOfData typeOfData) {
+		return data.getOrDefault(typeOfData, List.of());
+	}
+
+	/**
+	 * Returns the next version of the dataset, with the records of one type of
+	 * data replaced and its revision updated.
+	 *
+	 * @param typeOfData The type of data to replace.
+	 * @param records    The new read-only list of records.
+	 * @return The next version of the dataset.
+	 */
+	public DataSet with(TypeOfData typeOfData, List<Object> records) {
+		Map<TypeOfData, List<Object>> next = new EnumMap<>(TypeOfData.class);
+		next.putAll(data);
+		next.put(typeOfData, records);
+		Map<TypeOfData, Revision> nextRevisions = new EnumMap<>(TypeOfData.class);
+		nextRevisions.putAll(revisions);
+		nextRevisions.put(typeOfData, new Revision(version + 1, Instant.now()));
+		return new DataSet(version + 1, next, nextRevisions);
+	}
+
+	/**
+	 * Returns the next version of the dataset, with all the records replaced and
+	 * all the revisions updated.
+	 *
+	 * @param records The new read-only list of records of each type of data.
+	 * @return The next version of the dataset.
+	 */
+	public DataSet replacedBy(Map<TypeOfData, List<Object>> records) {
+		Revision revision = new Revision(version + 1, Instant.now());
+		Map<TypeOfData, Revision> nextRevisions = new EnumMap<>(TypeOfData.class);
+		for (TypeOfData typeOfData : TypeOfData.values()) {
+			nextRevisions.put(typeOfData, revision);
+		}
+		return new DataSet(version + 1, records, nextRevisions);
+	}
+}
@@ -0,0 +1,158 @@
+package com.openclassroom.safetynet.repository;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.openclassroom.safetynet.exceptions.DataSavingException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background writer persisting mutations in groups.
+ *
+ * A caller first applies its mutation in memory, then calls {@link #commit()}.
+ * The writer thread waits for the other commits arriving within the window,
+ * runs the flush once for the whole group and then releases every caller of
+ * the group. The flush must persist every mutation applied before it started,
+ * so one flush covers any number of concurrent mutations.
+ */
+@Slf4j
+public class GroupCommitWriter implements Closeable {
+
+	private static final CompletableFuture<Void> STOP = new CompletableFuture<>();
+
+	private final Runnable flush;
+	private final long windowNanos;
+	private final int maxGroupSize;
+	private final BlockingQueue<CompletableFuture<Void>> pending = new LinkedBlockingQueue<>();
+	private final AtomicLong commits = new AtomicLong();
+	private final AtomicLong flushes = new AtomicLong();
+	private final Thread thread;
+
+	private boolean closed;
+
+	/**
+	 * Constructs a {@code GroupCommitWriter} and starts its thread.
+	 *
+	 * @param name         The name of the writer thread.
+	 * @param flush        The action persisting every mutation applied so far. It
+	 *                     reports a failure by throwing a
+	 *                     {@link DataSavingException}.
+	 * @param window       How long the first commit of a group waits for others.
+	 * @param maxGroupSize The number of commits flushed at most together.
+	 */
+	public GroupCommitWriter(String name, Runnable flush, Duration window, int maxGroupSize) {
+		this.flush = flush;
+		this.windowNanos = window.toNanos();
+		this.maxGroupSize = maxGroupSize;
+		this.thread = new Thread(this::run, name);
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Waits until a flush started after this call has completed.
+	 *
+	 * @throws DataSavingException If the flush failed, if the writer is closed or
+	 *                             if the calling thread is interrupted.
+	 */
+	public void commit() {
+		CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+		synchronized (this) {
+			if (closed) {
+				throw new DataSavingException("Error saving data: the writer is closed");
+			}
+			pending.add(acknowledgement);
+		}
+		commits.incrementAndGet();
+		try {
+			acknowledgement.get();
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof DataSavingException dataSavingException ? dataSavingException
+					: new DataSavingException("Error saving data: " + e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataSavingException("Error saving data: interrupted while waiting for the flush");
+		}
+	}
+
+	/**
+	 * Returns the number of commits acknowledged or waiting.
+	 *
+	 * @return The number of calls to {@link #commit()}.
+	 */
+	public long getCommitCount() {
+		return commits.get();
+	}
+
+	/**
+	 * Returns the number of flushes run, each one covering a group of commits.
+	 *
+	 * @return The number of flushes.
+	 */
+	public long getFlushCount() {
+		return flushes.get();
+	}
+
+	/**
+	 * Flushes the pending commits and stops the writer thread. Later commits are
+	 * rejected.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			pending.add(STOP);
+		}
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void run() {
+		List<CompletableFuture<Void>> group = new ArrayList<>();
+		boolean running = true;
+		while (running) {
+			try {
+				CompletableFuture<Void> next = pending.take();
+				long deadline = System.nanoTime() + windowNanos;
+				while (next != null && next != STOP) {
+					group.add(next);
+					next = group.size() < maxGroupSize ? pending.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : null;
+				}
+				running = next != STOP;
+			} catch (InterruptedException e) {
+				log.warn("Group commit writer {} interrupted", thread.getName());
+			}
+			flushGroup(group);
+			group.clear();
+		}
+	}
+
+	private void flushGroup(List<CompletableFuture<Void>> group) {
+		if (group.isEmpty()) {
+			return;
+		}
+		try {
+			flush.run();
+			flushes.incrementAndGet();
+			group.forEach(acknowledgement -> acknowledgement.complete(null));
+		} catch (RuntimeException e) {
+			log.error("Flush of {} mutations failed: {}", group.size(), e.getMessage());
+			group.forEach(acknowledgement -> acknowledgement.completeExceptionally(e));
+		}
+	}
+}
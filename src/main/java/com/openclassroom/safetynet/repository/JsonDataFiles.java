@@ -0,0 +1,250 @@
+package com.openclassroom.safetynet.repository;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.StorageLayout;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.exceptions.DataLoadingException;
+import com.openclassroom.safetynet.exceptions.DataSavingException;
+
+/**
+ * JSON files holding the dataset, in one of the {@link StorageLayout}s.
+ *
+ * With the {@link StorageLayout#SINGLE_FILE} layout the dataset is the JSON
+ * data file itself. With the {@link StorageLayout#PER_COLLECTION} layout, the
+ * dataset is split into one file per type of data, in a directory named after
+ * the JSON data file ({@code data.json} gives {@code data/persons.json} and so
+ * on). Each of these files is a JSON data document holding a single section,
+ * so both layouts are read the same way.
+ *
+ * Every file is written to a temporary file moved over it, so that a crash
+ * never leaves a partially written file. The checksum of the dataset combines
+ * the checksums of its files and identifies the stored content, and the
+ * checksum of the file of each type of data identifies the stored records of
+ * that type, even when the files were not all written together.
+ */
+public class JsonDataFiles {
+
+	private static final String JSON_EXTENSION = ".json";
+	private static final String TEMP_EXTENSION = ".tmp";
+
+	private final Path jsonFile;
+	private final StorageLayout layout;
+	private final ObjectMapper objectMapper;
+	private final JsonDataReader jsonDataReader;
+	private final Map<Path, Long> checksums = new HashMap<>();
+
+	/**
+	 * Constructs the {@code JsonDataFiles} of a JSON data file.
+	 *
+	 * @param jsonFile       The JSON data file.
+	 * @param layout         The layout of the files {@link StorageLayout}.
+	 * @param objectMapper   The mapper used to write the files.
+	 * @param jsonDataReader The reader used to read the files.
+	 */
+	public JsonDataFiles(Path jsonFile, StorageLayout layout, ObjectMapper objectMapper, JsonDataReader jsonDataReader) {
+		this.jsonFile = jsonFile;
+		this.layout = layout;
+		this.objectMapper = objectMapper;
+		this.jsonDataReader = jsonDataReader;
+	}
+
+	/**
+	 * Returns the layout of the files.
+	 *
+	 * @return The layout {@link StorageLayout}.
+	 */
+	public StorageLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Checks if the files of the dataset exist.
+	 *
+	 * @return True if every file of the layout exists, false otherwise.
+	 */
+	public boolean exists() {
+		return files().values().stream().distinct().allMatch(Files::exists);
+	}
+
+	/**
+	 * Reads the whole dataset.
+	 *
+	 * @return The records of each type of data, in mutable maps of read-only
+	 *         lists.
+	 * @throws DataLoadingException If a file cannot be read or is malformed.
+	 */
+	public Map<TypeOfData, List<Object>> read() {
+		Map<TypeOfData, List<Object>> data = new EnumMap<>(TypeOfData.class);
+		if (layout == StorageLayout.SINGLE_FILE) {
+			data.putAll(readFile(jsonFile, EnumSet.allOf(TypeOfData.class)));
+		} else {
+			files().forEach((type, file) -> data.putAll(readFile(file, EnumSet.of(type))));
+		}
+		return data;
+	}
+
+	/**
+	 * Writes the given types of data of the dataset.
+	 *
+	 * With the {@link StorageLayout#SINGLE_FILE} layout the whole dataset is
+	 * written whatever the types.
+	 *
+	 * @param data  The whole dataset.
+	 * @param types The types of data changed since they were last written.
+	 * @return The checksum of the dataset now stored.
+	 * @throws DataSavingException If a file cannot be written.
+	 */
+	public long write(Map<TypeOfData, List<Object>> data, Set<TypeOfData> types) {
+		if (layout == StorageLayout.SINGLE_FILE) {
+			writeFile(jsonFile, data);
+		} else {
+			for (TypeOfData type : types) {
+				writeFile(files().get(type), Map.of(type, data.getOrDefault(type, List.of())));
+			}
+		}
+		return checksum();
+	}
+
+	/**
+	 * Returns the checksum of the stored dataset.
+	 *
+	 * The checksum of each file is computed while the file is read or written,
+	 * or by reading the file if it was neither.
+	 *
+	 * @return The checksum of the single file, or a checksum of the checksums of
+	 *         each file.
+	 * @throws DataLoadingException If a file has to be read and cannot be.
+	 */
+	public long checksum() {
+		if (layout == StorageLayout.SINGLE_FILE) {
+			return checksum(jsonFile);
+		}
+		CRC32 crc = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+		for (Path file : files().values()) {
+			buffer.clear();
+			crc.update(buffer.putLong(checksum(file)).array());
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Returns the checksum of the stored file of each type of data.
+	 *
+	 * With the {@link StorageLayout#SINGLE_FILE} layout every type of data has
+	 * the checksum of the single file.
+	 *
+	 * @return The checksum of the file of each type of data.
+	 * @throws DataLoadingException If a file has to be read and cannot be.
+	 */
+	public Map<TypeOfData, Long> checksums() {
+		Map<TypeOfData, Long> typeChecksums = new EnumMap<>(TypeOfData.class);
+		files().forEach((type, file) -> typeChecksums.put(type, checksum(file)));
+		return typeChecksums;
+	}
+
+	/**
+	 * Returns the total size of the files.
+	 *
+	 * @return The size in bytes.
+	 * @throws IOException If a file cannot be accessed.
+	 */
+	public long size() throws IOException {
+		long size = 0;
+		for (Path file : files().values().stream().distinct().toList()) {
+			size += Files.size(file);
+		}
+		return size;
+	}
+
+	private Map<TypeOfData, Path> files() {
+		Map<TypeOfData, Path> files = new EnumMap<>(TypeOfData.class);
+		String fileName = jsonFile.getFileName().toString();
+		Path directory = jsonFile.resolveSibling(fileName.endsWith(JSON_EXTENSION) ? fileName.substring(0, fileName.length() - JSON_EXTENSION.length())
+				: fileName + ".d");
+		for (TypeOfData type : TypeOfData.values()) {
+			files.put(type, layout == StorageLayout.SINGLE_FILE ? jsonFile : directory.resolve(type.getJsonKey() + JSON_EXTENSION));
+		}
+		return files;
+	}
+
+	private long checksum(Path file) {
+		Long checksum = checksums.get(file);
+		if (checksum == null) {
+			CRC32 crc = new CRC32();
+			try (InputStream in = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), crc)) {
+				in.transferTo(OutputStream.nullOutputStream());
+			} catch (IOException e) {
+				throw new DataLoadingException("Error loading data: " + e.getMessage());
+			}
+			checksum = crc.getValue();
+			checksums.put(file, checksum);
+		}
+		return checksum;
+	}
+
+	/**
+	 * Streams a JSON file into lists of records, computing the checksum of the
+	 * file on the way.
+	 */
+	private Map<TypeOfData, List<Object>> readFile(Path file, Set<TypeOfData> types) {
+		CRC32 crc = new CRC32();
+		try (InputStream in = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), crc)) {
+			Map<TypeOfData, List<Object>> data = jsonDataReader.read(in, types);
+			in.transferTo(OutputStream.nullOutputStream());
+			checksums.put(file, crc.getValue());
+			return data;
+		} catch (IOException e) {
+			throw new DataLoadingException("Error loading data: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes a JSON data document to a temporary file moved over the file.
+	 *
+	 * The checksum of the file is updated.
+	 */
+	private void writeFile(Path file, Map<TypeOfData, List<Object>> data) {
+		Map<String, List<Object>> jsonData = new LinkedHashMap<>();
+		for (TypeOfData type : TypeOfData.values()) {
+			if (data.containsKey(type)) {
+				jsonData.put(type.getJsonKey(), data.get(type));
+			}
+		}
+		Path tempFile = file.resolveSibling(file.getFileName() + TEMP_EXTENSION);
+		try {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			byte[] content = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(jsonData);
+			Files.write(tempFile, content);
+			try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			checksums.put(file, crc.getValue());
+		} catch (IOException e) {
+			throw new DataSavingException("Error saving data: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.openclassroom.safetynet.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.exceptions.DataLoadingException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streaming reader of the JSON data file.
+ *
+ * The file is read token by token with a {@link JsonParser}: each element of
+ * the requested sections is bound straight to its record type, and the other
+ * sections are skipped without being materialized. Only the records
+ * themselves are kept in memory, never the whole JSON tree.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonDataReader {
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Reads the requested sections of a JSON data document into lists of
+	 * records.
+	 *
+	 * @param in    The stream of the JSON document, which is left open.
+	 * @param types The types of data to read, the other sections are skipped.
+	 * @return The read-only list of records of each requested type, empty if the
+	 *         section is missing from the document.
+	 * @throws DataLoadingException If the document cannot be read or is
+	 *                              malformed.
+	 */
+	public Map<TypeOfData, List<Object>> read(InputStream in, Set<TypeOfData> types) {
+		Map<TypeOfData, List<Object>> data = new EnumMap<>(TypeOfData.class);
+		types.forEach(type -> data.put(type, new ArrayList<>()));
+		read(in, types, (type, element) -> data.get(type).add(element));
+		data.replaceAll((type, records) -> List.copyOf(records));
+		return data;
+	}
+
+	/**
+	 * Reads the requested sections of a JSON data document, handing each record
+	 * to the consumer as soon as it is read.
+	 *
+	 * @param in       The stream of the JSON document, which is left open.
+	 * @param types    The types of data to read, the other sections are skipped.
+	 * @param consumer The consumer receiving the type and the record of each
+	 *                 element, in document order.
+	 * @throws DataLoadingException If the document cannot be read or is
+	 *                              malformed.
+	 */
+	public void read(InputStream in, Set<TypeOfData> types, BiConsumer<TypeOfData, Object> consumer) {
+		try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				TypeOfData type = typeOf(parser.currentName());
+				JsonToken token = parser.nextToken();
+				if (type == null || !types.contains(type)) {
+					parser.skipChildren();
+					continue;
+				}
+				expect(parser, token, JsonToken.START_ARRAY);
+				ObjectReader reader = objectMapper.readerFor(type.getRecordType());
+				while (parser.nextToken() != JsonToken.END_ARRAY) {
+					expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+					consumer.accept(type, reader.readValue(parser));
+				}
+			}
+		} catch (IOException e) {
+			throw new DataLoadingException("Error loading data: " + e.getMessage());
+		}
+	}
+
+	private static TypeOfData typeOf(String jsonKey) {
+		for (TypeOfData type : TypeOfData.values()) {
+			if (type.getJsonKey().equals(jsonKey)) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) {
+		if (actual != expected) {
+			throw new DataLoadingException("Error loading data: expected " + expected + " but found " + actual + " at " + parser.currentLocation());
+		}
+	}
+}
@@ -1,77 +1,674 @@
 package com.openclassroom.safetynet.repository;
 
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.config.StorageProperties;
+import com.openclassroom.safetynet.constants.FsyncPolicy;
 import com.openclassroom.safetynet.constants.JsonDataFilePath;
+import com.openclassroom.safetynet.constants.StorageLayout;
 import com.openclassroom.safetynet.constants.TypeOfData;
 import com.openclassroom.safetynet.exceptions.DataLoadingException;
 import com.openclassroom.safetynet.exceptions.DataSavingException;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Repository for managing JSON data.
  *
- * This class provides methods for saving, loading, and retrieving data from a
- * JSON file.
+ * The whole JSON file is streamed once at startup into an in-memory dataset of
+ * records by the {@link JsonDataReader}, so the file is only used for
+ * persistence. The dataset is an immutable, versioned {@link DataSet}
+ * published through an atomic reference: reads take the current version
+ * without any locking. Mutations are functions of the current records, all
+ * applied in order by a single writer thread which persists the change and
+ * publishes the next version, so concurrent writes never lose each other's
+ * changes. Each change is announced by a {@link DataChangeEvent} before its
+ * version is published, and each reload by a {@link DataReloadEvent}.
+ *
+ * While a {@link ReadContext} is open on a thread, such as during a request,
+ * the reads of that thread are served from the version pinned by the context.
+ *
+ * The strings of the loaded records go through a {@link StringDictionary}, so
+ * each distinct city, address, medication or allergy is held once in memory;
+ * the records added by a mutation are interned in the same dictionary.
+ *
+ * The files are laid out as configured by the storage layout (see
+ * {@link JsonDataFiles}): either the single JSON file, or one JSON file per
+ * type of data so that a write only rewrites the file of the changed type.
+ * When switching to the per-collection layout, the JSON file is migrated at
+ * startup.
+ *
+ * By default each write rewrites the JSON file. When the mutation journal is
+ * enabled (see {@link StorageProperties.Journal}), each write only appends one
+ * {@link Splice} to the {@link MutationJournal}, and the JSON file is rewritten
+ * in the background once the journal holds enough entries. At startup the
+ * journal is replayed on top of the JSON file.
+ *
+ * When the binary snapshot is enabled (see
+ * {@link StorageProperties.BinarySnapshot}), the JSON file is loaded from the
+ * snapshot written next to it by the {@link BinarySnapshotCodec} as long as
+ * the snapshot matches the JSON file. Otherwise the JSON file is parsed and
+ * the snapshot is written again; it is also written at shutdown if the JSON
+ * file changed in the meantime.
+ *
+ * When group commit is enabled (see {@link StorageProperties.GroupCommit}),
+ * writes are applied to a staged version of the dataset right away and then
+ * wait for the {@link GroupCommitWriter}, which persists all the writes of a
+ * group with a single JSON file rewrite or journal force. The staged version is
+ * published, with the events of its changes, only once it is persisted; if the
+ * flush fails, the staged writes are rolled back and reported as failed, so a
+ * write reported as failed is never seen by the readers nor persisted later.
  */
 @Repository
 @RequiredArgsConstructor
+@Slf4j
 public class JsonRepository {
 
+	private static final String JOURNAL_EXTENSION = ".journal";
+	private static final String BINARY_SNAPSHOT_EXTENSION = ".bin";
+	private static final String TEMP_EXTENSION = ".tmp";
+
 	private final ObjectMapper objectMapper;
 	private final Environment environment;
+	private final StorageProperties storageProperties;
+	private final TaskScheduler taskScheduler;
+	private final JsonDataReader jsonDataReader;
+	private final BinarySnapshotCodec binarySnapshotCodec;
+	private final ApplicationEventPublisher eventPublisher;
+
+	private static final long UNCHANGED = -1;
+
+	private final AtomicReference<DataSet> dataSet = new AtomicReference<>(DataSet.EMPTY);
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "safetynet-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private volatile MutationJournal journal;
+	private volatile GroupCommitWriter groupCommitWriter;
+	private final Set<TypeOfData> unsavedTypes = EnumSet.noneOf(TypeOfData.class);
+	private JsonDataFiles files;
+	private boolean binarySnapshotStale;
+	private StringDictionary stringDictionary = new StringDictionary();
+	private DataSet staged = DataSet.EMPTY;
+	private final List<StagedEvent> unpublishedEvents = new ArrayList<>();
+	private long appliedSequence;
+	private long publishedSequence;
+	private final NavigableMap<Long, Long> rolledBackSequences = new TreeMap<>();
+	private MutationJournal.Mark publishedJournalMark;
+
+	/**
+	 * Loads the JSON file into the in-memory dataset at startup, schedules the
+	 * journal maintenance when the journal is enabled and starts the group commit
+	 * writer when group commit is enabled.
+	 */
+	@PostConstruct
+	void init() {
+		reload();
+		StorageProperties.Journal journalProperties = storageProperties.journal();
+		if (journalProperties.enabled()) {
+			taskScheduler.scheduleWithFixedDelay(this::maintainJournal, journalProperties.fsyncInterval());
+		}
+		StorageProperties.GroupCommit groupCommitProperties = storageProperties.groupCommit();
+		if (groupCommitProperties.enabled()) {
+			groupCommitWriter = new GroupCommitWriter("safetynet-group-commit", this::flush, groupCommitProperties.window(),
+					groupCommitProperties.maxGroupSize());
+		}
+	}
+
+	/**
+	 * Discards the in-memory dataset and reloads it from the JSON files, or from
+	 * their binary snapshot when enabled and up to date, replaying the journal
+	 * when it is enabled. The single JSON file is migrated to the per-collection
+	 * layout if that layout is configured and its files do not exist yet.
+	 *
+	 * This is only needed when the JSON file has been replaced outside the
+	 * application.
+	 *
+	 * @throws DataLoadingException If an error occurs while loading the data from
+	 *                              the JSON file.
+	 */
+	public synchronized void reload() {
+		JsonDataFiles configuredFiles = new JsonDataFiles(Path.of(getJsonFilePath()), storageProperties.layout(), objectMapper, jsonDataReader);
+		boolean migrating = configuredFiles.getLayout() != StorageLayout.SINGLE_FILE && !configuredFiles.exists();
+		files = migrating ? new JsonDataFiles(Path.of(getJsonFilePath()), StorageLayout.SINGLE_FILE, objectMapper, jsonDataReader) : configuredFiles;
+		unsavedTypes.clear();
+
+		Map<TypeOfData, List<Object>> loaded;
+		long checksum;
+		Optional<BinarySnapshotCodec.Snapshot> snapshot = storageProperties.binarySnapshot().enabled() && !migrating ? readBinarySnapshot()
+				: Optional.empty();
+		if (snapshot.isPresent()) {
+			loaded = new EnumMap<>(snapshot.get().data());
+			checksum = snapshot.get().stamp().jsonChecksum();
+			binarySnapshotStale = false;
+		} else {
+			loaded = files.read();
+			checksum = files.checksum();
+			binarySnapshotStale = true;
+			if (storageProperties.binarySnapshot().enabled() && !migrating) {
+				writeBinarySnapshot(loaded, checksum);
+			}
+		}
+		if (storageProperties.journal().enabled()) {
+			closeJournal();
+			journal = new MutationJournal(Path.of(getJsonFilePath() + JOURNAL_EXTENSION), objectMapper, storageProperties.journal().fsync());
+			for (Splice splice : journal.open(files.checksums())) {
+				TypeOfData typeOfData = splice.typeOfData();
+				loaded.put(typeOfData, toRecords(typeOfData, splice.applyTo(loaded.get(typeOfData))));
+			}
+		}
+		stringDictionary = new StringDictionary();
+		loaded.replaceAll((typeOfData, records) -> stringDictionary.internAll(records));
+		DataSet reloaded = dataSet.get().replacedBy(loaded);
+		dataSet.set(reloaded);
+		staged = reloaded;
+		unpublishedEvents.clear();
+		publishedSequence = appliedSequence;
+		publishedJournalMark = journal == null ? null : journal.mark();
+		ReadContext.current().ifPresent(ReadContext::unpin);
+		eventPublisher.publishEvent(new DataReloadEvent(reloaded));
+		log.debug("Dataset loaded from {}{} : {} persons, {} firestations, {} medical records, {} distinct strings", getJsonFilePath(),
+				snapshot.isPresent() ? BINARY_SNAPSHOT_EXTENSION : "", loaded.get(TypeOfData.PERSONS).size(), loaded.get(TypeOfData.FIRESTATIONS).size(),
+				loaded.get(TypeOfData.MEDICALRECORDS).size(), stringDictionary.size());
+
+		if (migrating) {
+			files = configuredFiles;
+			writeFiles(loaded, EnumSet.allOf(TypeOfData.class));
+			if (journal != null) {
+				journal.reset(files.checksums());
+				publishedJournalMark = journal.mark();
+			}
+			log.info("{} migrated to the {} storage layout", getJsonFilePath(), files.getLayout());
+		}
+	}
 
 	/**
-	 * Saves data to the JSON file.
+	 * Saves data to the in-memory dataset and persists the change, replacing all
+	 * the records of the type of data.
 	 *
 	 * @param typeOfData The type of data to save. This is used to determine the
 	 *                   correct key in the JSON file.
 	 * @param data       The list of data objects to save.
-	 * @throws DataSavingException If an error occurs while saving the data to the
-	 *                             JSON file.
+	 * @throws DataSavingException If an error occurs while saving the data.
+	 * @see #update(TypeOfData, UnaryOperator)
+	 */
+	public void saveData(TypeOfData typeOfData, List<?> data) {
+		update(typeOfData, records -> List.copyOf(data));
+	}
+
+	/**
+	 * Applies a mutation to the records of a type of data and persists the
+	 * change, either by appending it to the journal or by rewriting the JSON
+	 * file.
+	 *
+	 * The mutation runs on the writer thread, against the records of the latest
+	 * version of the dataset, so it always sees the changes of the mutations
+	 * applied before it. The next version of the dataset is published once the
+	 * change is written. With group commit, the change is persisted together
+	 * with the other changes saved concurrently, and this method returns once it
+	 * is durable and published.
+	 *
+	 * @param typeOfData The type of data to change.
+	 * @param mutation   The function computing the new records from the current
+	 *                   read-only records. It returns its argument to leave the
+	 *                   records unchanged, and may throw a runtime exception to
+	 *                   reject the mutation, which is then rethrown here.
+	 * @return True if the records were changed, false otherwise.
+	 * @throws DataSavingException If an error occurs while saving the data, or
+	 *                             if the repository is shutting down.
 	 */
-	public void saveData(TypeOfData typeOfData, List<Object> data) {
-		Map<String, List<Object>> jsonData = loadJsonAllData();
-		jsonData.put(typeOfData.getJsonKey(), data);
+	public boolean update(TypeOfData typeOfData, UnaryOperator<List<Object>> mutation) {
+		GroupCommitWriter groupWriter = groupCommitWriter;
+		Future<Long> applied;
 		try {
-			objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(getJsonFilePath()), jsonData);
-		} catch (IOException e) {
-			throw new DataSavingException("Error saving data: " + e.getMessage());
+			applied = writer.submit(() -> apply(typeOfData, mutation, groupWriter != null));
+		} catch (RejectedExecutionException e) {
+			throw new DataSavingException("Error saving data: the writer is shut down");
+		}
+		long sequence;
+		try {
+			sequence = applied.get();
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException
+					: new DataSavingException("Error saving data: " + e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataSavingException("Error saving data: interrupted while waiting for the writer");
+		}
+		if (sequence != UNCHANGED && groupWriter != null) {
+			commit(groupWriter, sequence);
+		}
+		if (sequence != UNCHANGED) {
+			ReadContext.current().ifPresent(ReadContext::unpin);
 		}
+		return sequence != UNCHANGED;
+	}
+
+	/**
+	 * Applies a mutation to the typed records of a type of data and persists the
+	 * change.
+	 *
+	 * The records are handed to the mutation and taken back as they are, without
+	 * any conversion.
+	 *
+	 * @param <T>        The record type of the type of data.
+	 * @param typeOfData The type of data to change.
+	 * @param recordType The record type of the type of data.
+	 * @param mutation   The function computing the new records from the current
+	 *                   read-only records, as for
+	 *                   {@link #update(TypeOfData, UnaryOperator)}.
+	 * @return True if the records were changed, false otherwise.
+	 * @throws IllegalArgumentException If the record type is not the one of the
+	 *                                  type of data.
+	 * @throws DataSavingException      If an error occurs while saving the data.
+	 */
+	public <T> boolean update(TypeOfData typeOfData, Class<T> recordType, UnaryOperator<List<T>> mutation) {
+		checkRecordType(typeOfData, recordType);
+		return update(typeOfData, records -> {
+			List<T> mutated = mutation.apply(typed(records));
+			return mutated == records ? records : typed(mutated);
+		});
+	}
+
+	/**
+	 * Returns the current version of the in-memory dataset.
+	 *
+	 * Reading several types of data from the same {@link DataSet} gives a
+	 * consistent view of them.
+	 *
+	 * @return The current dataset.
+	 */
+	public DataSet getDataSet() {
+		return ReadContext.current().map(ReadContext::getDataSet).orElseGet(dataSet::get);
+	}
+
+	/**
+	 * Opens a read context on the current thread, pinning the dataset read until
+	 * it is closed (see {@link ReadContext}).
+	 *
+	 * @return The context, to close at the end of the request.
+	 * @throws IllegalStateException If a context is already open on the thread.
+	 */
+	public ReadContext openReadContext() {
+		return ReadContext.open(dataSet::get);
+	}
+
+	/**
+	 * Returns the group commit writer, to expose its counters.
+	 *
+	 * @return The writer, or null if group commit is disabled.
+	 */
+	public GroupCommitWriter getGroupCommitWriter() {
+		return groupCommitWriter;
 	}
 
 	/**
-	 * Returns the path to the JSON file.
+	 * Returns the data of the given type from the in-memory dataset.
+	 *
+	 * The returned list is read-only.
 	 *
-	 * The path is determined based on whether the "test.mode" system property is
-	 * set to "true". If it is, the test file path is used; otherwise, the regular
-	 * file path is used.
-	 * 
 	 * @param typeOfData The type of data to load.
-	 * @return The path to the JSON file.
+	 * @return The list of data objects of the given type.
 	 */
 	public List<Object> loadTypeOfData(TypeOfData typeOfData) {
-		Map<String, List<Object>> data = loadJsonAllData();
-		return data.getOrDefault(typeOfData.getJsonKey(), new ArrayList<>());
+		return read(typeOfData);
+	}
+
+	/**
+	 * Returns the typed records of the given type from the in-memory dataset.
+	 *
+	 * The records are returned as they are held in memory, without any
+	 * conversion. The returned list is read-only.
+	 *
+	 * @param <T>        The record type of the type of data.
+	 * @param typeOfData The type of data to load.
+	 * @param recordType The record type of the type of data.
+	 * @return The list of records of the given type.
+	 * @throws IllegalArgumentException If the record type is not the one of the
+	 *                                  type of data.
+	 */
+	public <T> List<T> loadTypeOfData(TypeOfData typeOfData, Class<T> recordType) {
+		checkRecordType(typeOfData, recordType);
+		return typed(read(typeOfData));
+	}
+
+	/**
+	 * Folds the journal into new JSON files and empties the journal.
+	 *
+	 * Writes wait for the compaction to complete, reads are not affected. If the
+	 * compaction is interrupted after rewriting some of the files, the journal
+	 * still holds the checksums of the files not rewritten yet, so its entries
+	 * for them are replayed at the next startup (see {@link MutationJournal}).
+	 * The {@link StringDictionary} is then started again from the records held,
+	 * releasing the values that the mutations removed.
+	 *
+	 * The compaction is skipped while group commit holds writes staged and not
+	 * flushed yet: only the published version is written, so emptying the
+	 * journal would lose their entries once the flush acknowledges them.
+	 *
+	 * @throws DataSavingException If an error occurs while writing the JSON file.
+	 */
+	public synchronized void compactJournal() {
+		if (journal == null || journal.size() == 0) {
+			return;
+		}
+		if (staged != dataSet.get()) {
+			log.debug("Journal compaction postponed, {} staged writes are not flushed yet", appliedSequence - publishedSequence);
+			return;
+		}
+		int entries = journal.size();
+		writeFiles(dataSet.get().data(), EnumSet.copyOf(unsavedTypes));
+		journal.reset(files.checksums());
+		stringDictionary = StringDictionary.of(staged.data().values());
+		log.debug("{} journal entries compacted into {}, {} distinct strings kept", entries, getJsonFilePath(), stringDictionary.size());
 	}
 
-	private Map<String, List<Object>> loadJsonAllData() {
+	/**
+	 * Stops the writer thread and flushes the pending group commits, compacts the
+	 * journal and closes it when the application stops, then writes the binary
+	 * snapshot if the JSON file changed since it was last written.
+	 */
+	@PreDestroy
+	void shutdown() {
+		writer.shutdown();
 		try {
-			return objectMapper.readValue(new File(getJsonFilePath()), new TypeReference<>() {
-			});
-		} catch (Exception e) {
-			throw new DataLoadingException("Error loading data: " + e.getMessage());
+			if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+				log.warn("Writer thread still running at shutdown");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (groupCommitWriter != null) {
+			groupCommitWriter.close();
+		}
+		synchronized (this) {
+			compactJournal();
+			closeJournal();
+			if (storageProperties.binarySnapshot().enabled() && binarySnapshotStale) {
+				writeBinarySnapshot(dataSet.get().data(), files.checksum());
+			}
+		}
+	}
+
+	/**
+	 * Applies a mutation on the writer thread to the staged version of the
+	 * dataset and writes the change to the journal or the JSON file, unless the
+	 * write is deferred to the next {@link #flush()}. The next version is
+	 * published right away, unless it is deferred to the next flush as well.
+	 *
+	 * @return The sequence number of the change, or {@link #UNCHANGED} if the
+	 *         records were not changed.
+	 */
+	private synchronized long apply(TypeOfData typeOfData, UnaryOperator<List<Object>> mutation, boolean deferred) {
+		DataSet before = staged;
+		List<Object> records = before.get(typeOfData);
+		List<Object> mutated = mutation.apply(records);
+		if (mutated == records) {
+			return UNCHANGED;
+		}
+		List<Object> converted = toRecords(typeOfData, mutated);
+		Splice splice = Splice.diff(typeOfData, records, converted);
+		DataSet next = before.with(typeOfData, stringDictionary.intern(converted, splice.from(), splice.added().size()));
+		unsavedTypes.add(typeOfData);
+		if (journal == null) {
+			if (!deferred) {
+				writeFiles(next.data(), EnumSet.copyOf(unsavedTypes));
+			}
+		} else if (!splice.isEmpty() && deferred) {
+			journal.appendUnforced(splice);
+		} else if (!splice.isEmpty()) {
+			journal.append(splice);
+		}
+		staged = next;
+		appliedSequence++;
+		if (!splice.isEmpty()) {
+			unpublishedEvents.add(new StagedEvent(appliedSequence, new DataChangeEvent(typeOfData, records, next.get(typeOfData), splice)));
+		}
+		if (!deferred) {
+			publish(next, appliedSequence, journal == null ? null : journal.mark());
+		}
+		return appliedSequence;
+	}
+
+	/**
+	 * Persists every change applied so far, run by the group commit writer once
+	 * per group: forces the journal, or rewrites the JSON file. The changes are
+	 * then published, or rolled back if they could not be persisted.
+	 *
+	 * @throws DataSavingException If the changes cannot be persisted.
+	 */
+	private void flush() {
+		DataSet flushed;
+		long sequence;
+		MutationJournal.Mark journalMark;
+		MutationJournal currentJournal;
+		synchronized (this) {
+			flushed = staged;
+			sequence = appliedSequence;
+			currentJournal = journal;
+			journalMark = currentJournal == null ? null : currentJournal.mark();
+			if (currentJournal == null && !unsavedTypes.isEmpty()) {
+				try {
+					writeFiles(flushed.data(), EnumSet.copyOf(unsavedTypes));
+				} catch (DataSavingException e) {
+					rollBack();
+					throw e;
+				}
+			}
+		}
+		if (currentJournal != null && storageProperties.journal().fsync() == FsyncPolicy.ALWAYS) {
+			try {
+				currentJournal.sync();
+			} catch (DataSavingException e) {
+				synchronized (this) {
+					rollBack();
+				}
+				throw e;
+			}
+		}
+		synchronized (this) {
+			publish(flushed, sequence, journalMark);
+		}
+	}
+
+	/**
+	 * Publishes a persisted version of the dataset, after the events of the
+	 * changes it holds, unless a later version was already published or the
+	 * dataset was reloaded meanwhile.
+	 */
+	private void publish(DataSet persisted, long sequence, MutationJournal.Mark journalMark) {
+		if (sequence <= publishedSequence) {
+			return;
+		}
+		while (!unpublishedEvents.isEmpty() && unpublishedEvents.get(0).sequence() <= sequence) {
+			eventPublisher.publishEvent(unpublishedEvents.remove(0).event());
+		}
+		dataSet.set(persisted);
+		publishedSequence = sequence;
+		publishedJournalMark = journalMark;
+	}
+
+	/**
+	 * Rolls the staged changes back to the published version after a failed
+	 * flush: their journal entries are removed and their writers are told they
+	 * failed.
+	 */
+	private void rollBack() {
+		log.error("Rolling back {} staged writes", appliedSequence - publishedSequence);
+		rolledBackSequences.put(publishedSequence + 1, appliedSequence);
+		staged = dataSet.get();
+		unpublishedEvents.clear();
+		if (journal != null && publishedJournalMark != null) {
+			try {
+				journal.rollback(publishedJournalMark);
+			} catch (DataSavingException e) {
+				log.error("Journal rollback failed: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Event of a change staged and not published yet.
+	 */
+	private record StagedEvent(long sequence, DataChangeEvent event) {
+	}
+
+	/**
+	 * Waits for the group commit of a change, and checks that the change was
+	 * published rather than rolled back.
+	 */
+	private void commit(GroupCommitWriter groupWriter, long sequence) {
+		DataSavingException failure = null;
+		try {
+			groupWriter.commit();
+		} catch (DataSavingException e) {
+			failure = e;
+		}
+		synchronized (this) {
+			Map.Entry<Long, Long> rolledBack = rolledBackSequences.floorEntry(sequence);
+			if (sequence <= publishedSequence && (rolledBack == null || rolledBack.getValue() < sequence)) {
+				return;
+			}
+		}
+		throw failure != null ? failure : new DataSavingException("Error saving data: the write was rolled back after a failed flush");
+	}
+
+	private void maintainJournal() {
+		MutationJournal currentJournal = journal;
+		if (currentJournal == null) {
+			return;
+		}
+		try {
+			if (storageProperties.journal().fsync() == FsyncPolicy.INTERVAL) {
+				currentJournal.sync();
+			}
+			if (currentJournal.size() >= storageProperties.journal().compactionThreshold()) {
+				compactJournal();
+			}
+		} catch (DataSavingException e) {
+			log.error("Journal maintenance failed: {}", e.getMessage());
+		}
+	}
+
+	private void closeJournal() {
+		if (journal != null) {
+			try {
+				journal.close();
+			} catch (IOException e) {
+				log.error("Error closing journal: {}", e.getMessage());
+			}
+			journal = null;
+		}
+	}
+
+	/**
+	 * Reads the records of a type of data from the read context of the thread if
+	 * one is open, else from the published dataset.
+	 */
+	private List<Object> read(TypeOfData typeOfData) {
+		Optional<ReadContext> context = ReadContext.current();
+		return context.isPresent() ? context.get().read(typeOfData) : dataSet.get().get(typeOfData);
+	}
+
+	private static void checkRecordType(TypeOfData typeOfData, Class<?> recordType) {
+		if (typeOfData.getRecordType() != recordType) {
+			throw new IllegalArgumentException("Records of " + typeOfData + " are not " + recordType.getSimpleName());
+		}
+	}
+
+	/**
+	 * Views records as their record type, which {@link #toRecords} guarantees
+	 * for every list held in the dataset.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> typed(List<?> records) {
+		return (List<T>) records;
+	}
+
+	private List<Object> toRecords(TypeOfData typeOfData, List<Object> data) {
+		Class<?> recordType = typeOfData.getRecordType();
+		return data.stream().map(o -> recordType.isInstance(o) ? o : objectMapper.convertValue(o, recordType)).toList();
+	}
+
+	/**
+	 * Writes the given types of data to the JSON files.
+	 */
+	private void writeFiles(Map<TypeOfData, List<Object>> data, Set<TypeOfData> types) {
+		files.write(data, types);
+		unsavedTypes.removeAll(types);
+		binarySnapshotStale = true;
+	}
+
+	/**
+	 * Reads the binary snapshot of the JSON files.
+	 *
+	 * @return The snapshot, or an empty optional if there is none, if it does not
+	 *         match the current JSON files or if it cannot be read.
+	 */
+	private Optional<BinarySnapshotCodec.Snapshot> readBinarySnapshot() {
+		Path snapshotFile = Path.of(getJsonFilePath() + BINARY_SNAPSHOT_EXTENSION);
+		if (!Files.exists(snapshotFile)) {
+			return Optional.empty();
+		}
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshotFile))) {
+			return binarySnapshotCodec.read(in, files.size(), files.checksum());
+		} catch (IOException | DataLoadingException e) {
+			log.warn("Ignoring binary snapshot {}: {}", snapshotFile, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Writes the binary snapshot of the JSON files, which must hold the given
+	 * data. A failure is only logged since the JSON files remain the reference.
+	 */
+	private void writeBinarySnapshot(Map<TypeOfData, List<Object>> data, long checksum) {
+		Path snapshotFile = Path.of(getJsonFilePath() + BINARY_SNAPSHOT_EXTENSION);
+		Path tempFile = Path.of(getJsonFilePath() + BINARY_SNAPSHOT_EXTENSION + TEMP_EXTENSION);
+		try {
+			BinarySnapshotCodec.Stamp stamp = new BinarySnapshotCodec.Stamp(files.size(), checksum);
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+				binarySnapshotCodec.write(stamp, data, out);
+			}
+			Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			binarySnapshotStale = false;
+		} catch (IOException e) {
+			log.error("Error writing binary snapshot {}: {}", snapshotFile, e.getMessage());
 		}
 	}
 
@@ -82,4 +679,4 @@ public class JsonRepository {
 			return JsonDataFilePath.JSONFILEPATH;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,313 @@
+package com.openclassroom.safetynet.repository;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.FsyncPolicy;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.exceptions.DataLoadingException;
+import com.openclassroom.safetynet.exceptions.DataSavingException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of the mutations applied since the JSON file was last
+ * written.
+ *
+ * The journal is a text file holding one compact JSON line per
+ * {@link Splice}. Its first line is a header holding, for each type of data,
+ * the checksum of the JSON file the entries of that type apply to, so that
+ * entries already folded into a newer JSON file are never replayed twice. As
+ * the files of the types are checked one by one, a compaction interrupted
+ * after rewriting some of the files only discards the entries of the rewritten
+ * files, and the entries of the others are still replayed.
+ */
+@Slf4j
+public class MutationJournal implements Closeable {
+
+	private final Path path;
+	private final ObjectMapper objectMapper;
+	private final FsyncPolicy fsyncPolicy;
+
+	private FileChannel channel;
+	private int size;
+	private volatile boolean dirty;
+
+	/**
+	 * Constructs a {@code MutationJournal} stored at the given path.
+	 *
+	 * @param path         The path of the journal file.
+	 * @param objectMapper The mapper used to write and read the entries.
+	 * @param fsyncPolicy  When the journal is forced to the storage device
+	 *                     {@link FsyncPolicy}.
+	 */
+	public MutationJournal(Path path, ObjectMapper objectMapper, FsyncPolicy fsyncPolicy) {
+		this.path = path;
+		this.objectMapper = objectMapper;
+		this.fsyncPolicy = fsyncPolicy;
+	}
+
+	/**
+	 * Opens the journal for appending and returns the entries to replay.
+	 *
+	 * The entries of a type of data written against another JSON file than the
+	 * one whose checksum is given for that type are discarded. An unreadable last
+	 * line is a torn entry, left by a crash during its append, and is ignored;
+	 * an unreadable line followed by other entries means the journal is corrupt.
+	 *
+	 * @param baseChecksums The checksum of the JSON file currently loaded for
+	 *                      each type of data.
+	 * @return The entries to replay on top of the JSON files, in order.
+	 * @throws DataLoadingException If the journal cannot be read or opened, or if
+	 *                              it is corrupt.
+	 */
+	public synchronized List<Splice> open(Map<TypeOfData, Long> baseChecksums) {
+		try {
+			List<Splice> entries = Files.exists(path) ? readEntries(baseChecksums) : List.of();
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			rewrite(baseChecksums, entries);
+			return entries;
+		} catch (IOException e) {
+			throw new DataLoadingException("Error loading journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Appends an entry to the journal.
+	 *
+	 * With the {@link FsyncPolicy#ALWAYS} policy the entry is forced to the
+	 * storage device before this method returns. An entry that cannot be forced
+	 * is removed again, so that a write reported as failed is never replayed.
+	 *
+	 * @param splice The entry to append.
+	 * @throws DataSavingException If the entry cannot be written or forced.
+	 */
+	public synchronized void append(Splice splice) {
+		Mark mark = mark();
+		appendUnforced(splice);
+		if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+			try {
+				sync();
+			} catch (DataSavingException e) {
+				undo(mark, e);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Appends an entry to the journal without forcing it, whatever the policy.
+	 *
+	 * The caller is responsible for calling {@link #sync()} before the entry is
+	 * considered durable, which lets one force cover several entries.
+	 *
+	 * @param splice The entry to append.
+	 * @throws DataSavingException If the entry cannot be written, in which case
+	 *                             any part of it already written is removed.
+	 */
+	public synchronized void appendUnforced(Splice splice) {
+		Mark mark = mark();
+		try {
+			write(objectMapper.writeValueAsString(splice));
+			size++;
+			dirty = true;
+		} catch (IOException e) {
+			DataSavingException failure = new DataSavingException("Error saving journal entry: " + e.getMessage());
+			undo(mark, failure);
+			throw failure;
+		}
+	}
+
+	/**
+	 * Forces the appended entries to the storage device, if any were appended
+	 * since the last force.
+	 *
+	 * @throws DataSavingException If the journal cannot be forced.
+	 */
+	public void sync() {
+		if (!dirty) {
+			return;
+		}
+		try {
+			dirty = false;
+			channel.force(false);
+		} catch (IOException e) {
+			throw new DataSavingException("Error syncing journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Empties the journal after its entries have been folded into new JSON
+	 * files.
+	 *
+	 * @param baseChecksums The checksum of the new JSON file of each type of
+	 *                      data.
+	 * @throws DataSavingException If the journal cannot be truncated.
+	 */
+	public synchronized void reset(Map<TypeOfData, Long> baseChecksums) {
+		try {
+			rewrite(baseChecksums, List.of());
+		} catch (IOException e) {
+			throw new DataSavingException("Error resetting journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the end of the journal, to roll back the entries appended after it.
+	 *
+	 * @return The current end of the journal.
+	 * @throws DataSavingException If the journal cannot be accessed.
+	 */
+	public synchronized Mark mark() {
+		try {
+			return new Mark(channel.size(), size);
+		} catch (IOException e) {
+			throw new DataSavingException("Error accessing journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes the entries appended after a mark, whose mutations failed to be
+	 * persisted, so that they are never replayed.
+	 *
+	 * @param mark The end of the journal to go back to.
+	 * @throws DataSavingException If the journal cannot be truncated.
+	 */
+	public synchronized void rollback(Mark mark) {
+		try {
+			channel.truncate(mark.position());
+			channel.force(false);
+			size = mark.size();
+			dirty = false;
+		} catch (IOException e) {
+			throw new DataSavingException("Error rolling back journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the number of entries appended since the last reset.
+	 *
+	 * @return The number of entries in the journal.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Forces and closes the journal file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null && channel.isOpen()) {
+			sync();
+			channel.close();
+		}
+	}
+
+	/**
+	 * Rolls back a failed append, keeping the failure of the rollback as
+	 * suppressed by the failure of the append.
+	 */
+	private void undo(Mark mark, DataSavingException failure) {
+		try {
+			rollback(mark);
+		} catch (DataSavingException e) {
+			failure.addSuppressed(e);
+		}
+	}
+
+	private void rewrite(Map<TypeOfData, Long> baseChecksums, List<Splice> entries) throws IOException {
+		channel.truncate(0);
+		write(objectMapper.writeValueAsString(new Header(baseChecksums)));
+		for (Splice entry : entries) {
+			write(objectMapper.writeValueAsString(entry));
+		}
+		channel.force(false);
+		size = entries.size();
+		dirty = false;
+	}
+
+	private void write(String line) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+		channel.position(channel.size());
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private List<Splice> readEntries(Map<TypeOfData, Long> baseChecksums) throws IOException {
+		List<Splice> entries = new ArrayList<>();
+		Set<TypeOfData> discarded = EnumSet.noneOf(TypeOfData.class);
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			Map<TypeOfData, Long> bases = line == null ? Map.of() : readHeader(line);
+			int lineNumber = 1;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				Splice entry;
+				try {
+					entry = objectMapper.readValue(line, Splice.class);
+				} catch (JsonProcessingException e) {
+					if (reader.readLine() != null) {
+						throw new DataLoadingException("Error loading journal: corrupt entry at line " + lineNumber + " of " + path + ": "
+								+ e.getOriginalMessage());
+					}
+					log.warn("Torn entry at the end of journal {} is ignored: {}", path, e.getOriginalMessage());
+					break;
+				}
+				if (Objects.equals(bases.get(entry.typeOfData()), baseChecksums.get(entry.typeOfData()))) {
+					entries.add(entry);
+				} else {
+					discarded.add(entry.typeOfData());
+				}
+			}
+		}
+		if (!discarded.isEmpty()) {
+			log.warn("Journal {} does not match the loaded JSON files of {}, their entries are discarded", path, discarded);
+		}
+		log.debug("{} entries read from journal {}", entries.size(), path);
+		return entries;
+	}
+
+	private Map<TypeOfData, Long> readHeader(String line) {
+		try {
+			Map<TypeOfData, Long> bases = objectMapper.readValue(line, Header.class).bases();
+			return bases == null ? Map.of() : bases;
+		} catch (JsonProcessingException e) {
+			return Map.of();
+		}
+	}
+
+	/**
+	 * End of the journal at a point in time.
+	 *
+	 * @param position The size of the journal file.
+	 * @param size     The number of entries of the journal.
+	 */
+	public record Mark(long position, int size) {
+	}
+
+	/**
+	 * First line of the journal.
+	 *
+	 * @param bases The checksum of the JSON file the entries of each type of data
+	 *              apply to.
+	 */
+	record Header(Map<TypeOfData, Long> bases) {
+	}
+}
@@ -0,0 +1,183 @@
+package com.openclassroom.safetynet.repository;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+
+/**
+ * Read context of one request, which pins the version of the dataset read by
+ * the request.
+ *
+ * While a context is open on a thread, the reads of the {@link JsonRepository}
+ * made on that thread, directly by the services or through the indexes, are
+ * all served from the {@link DataSet} pinned at the first read, so they see a
+ * consistent view of every type of data even if writes are published in the
+ * meantime. Each type of data is thus loaded at most once from the published
+ * dataset. A write made by the request itself, or a reload, unpins the
+ * dataset so that the following reads see the change.
+ *
+ * The context counts, for each type of data, the loads from the published
+ * dataset and the reads served, so that they can be checked per request.
+ *
+ * Once the pinned dataset is older than the published one, the structures
+ * derived from its records, such as the snapshots of the indexes, are no
+ * longer kept by their owners. The context keeps them instead for the rest of
+ * the request (see {@link #keep(Object, Object)}), so that each of them is
+ * built once per request rather than at each lookup.
+ */
+public final class ReadContext implements AutoCloseable {
+
+	private static final ThreadLocal<ReadContext> CURRENT = new ThreadLocal<>();
+
+	private final Supplier<DataSet> publishedDataSet;
+	private final Map<TypeOfData, Integer> loads = new EnumMap<>(TypeOfData.class);
+	private final Map<TypeOfData, Integer> reads = new EnumMap<>(TypeOfData.class);
+	private final Set<TypeOfData> pinnedTypes = EnumSet.noneOf(TypeOfData.class);
+	private final Map<Object, Object> kept = new IdentityHashMap<>();
+	private DataSet dataSet;
+
+	private ReadContext(Supplier<DataSet> publishedDataSet) {
+		this.publishedDataSet = publishedDataSet;
+	}
+
+	/**
+	 * Opens a read context on the current thread.
+	 *
+	 * @param publishedDataSet The supplier of the published dataset.
+	 * @return The context, to close at the end of the request.
+	 * @throws IllegalStateException If a context is already open on the thread.
+	 */
+	static ReadContext open(Supplier<DataSet> publishedDataSet) {
+		if (CURRENT.get() != null) {
+			throw new IllegalStateException("A read context is already open on " + Thread.currentThread().getName());
+		}
+		ReadContext context = new ReadContext(publishedDataSet);
+		CURRENT.set(context);
+		return context;
+	}
+
+	/**
+	 * Returns the read context open on the current thread.
+	 *
+	 * @return The context, or empty if none is open.
+	 */
+	public static Optional<ReadContext> current() {
+		return Optional.ofNullable(CURRENT.get());
+	}
+
+	/**
+	 * Checks if the thread reads an older version of the dataset than the
+	 * published one, because its read context pinned it before a write was
+	 * published.
+	 *
+	 * Structures derived from the records use it to avoid replacing what they
+	 * built from the published version with what they build from an older one.
+	 *
+	 * @return True if a context is open on the thread and its pinned dataset is
+	 *         not the published one, false otherwise.
+	 */
+	public static boolean isBehind() {
+		ReadContext context = CURRENT.get();
+		return context != null && context.dataSet != null && context.dataSet != context.publishedDataSet.get();
+	}
+
+	/**
+	 * Returns the dataset read by the request, pinning the published one at the
+	 * first call.
+	 *
+	 * @return The pinned dataset.
+	 */
+	public DataSet getDataSet() {
+		if (dataSet == null) {
+			dataSet = publishedDataSet.get();
+		}
+		return dataSet;
+	}
+
+	/**
+	 * Reads the records of a type of data from the pinned dataset.
+	 *
+	 * @param typeOfData The type of data to read.
+	 * @return The read-only list of records.
+	 */
+	List<Object> read(TypeOfData typeOfData) {
+		List<Object> records = getDataSet().get(typeOfData);
+		if (pinnedTypes.add(typeOfData)) {
+			loads.merge(typeOfData, 1, Integer::sum);
+		}
+		reads.merge(typeOfData, 1, Integer::sum);
+		return records;
+	}
+
+	/**
+	 * Keeps the structure an owner derived from the records of the pinned
+	 * dataset, replacing the one it kept before.
+	 *
+	 * @param owner   The owner of the structure, such as an index.
+	 * @param derived The structure.
+	 */
+	public void keep(Object owner, Object derived) {
+		kept.put(owner, derived);
+	}
+
+	/**
+	 * Returns the structure kept by an owner. The owner checks that it was
+	 * derived from the records it reads.
+	 *
+	 * @param owner The owner of the structure.
+	 * @return The structure, or null if the owner kept none.
+	 */
+	public Object getKept(Object owner) {
+		return kept.get(owner);
+	}
+
+	/**
+	 * Unpins the dataset after a write or a reload made by the request, so that
+	 * the next read pins the new version.
+	 */
+	void unpin() {
+		dataSet = null;
+		pinnedTypes.clear();
+		kept.clear();
+	}
+
+	/**
+	 * Returns the number of loads of each type of data from the published
+	 * dataset, which is 1 unless the request wrote data in between.
+	 *
+	 * @return The read-only map of each type of data read to its number of
+	 *         loads.
+	 */
+	public Map<TypeOfData, Integer> getLoads() {
+		return Collections.unmodifiableMap(loads);
+	}
+
+	/**
+	 * Returns the number of reads of each type of data served by the context.
+	 *
+	 * @return The read-only map of each type of data read to its number of
+	 *         reads.
+	 */
+	public Map<TypeOfData, Integer> getReads() {
+		return Collections.unmodifiableMap(reads);
+	}
+
+	/**
+	 * Closes the context, so that the next reads of the thread see the
+	 * published dataset.
+	 */
+	@Override
+	public void close() {
+		if (CURRENT.get() == this) {
+			CURRENT.remove();
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.openclassroom.safetynet.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.openclassroom.safetynet.constants.TypeOfData;
+
+/**
+ * Represents one change to a list of data: {@code deleteCount} elements are
+ * removed at position {@code from} and replaced by the {@code added} elements.
+ *
+ * A splice is the unit written to the mutation journal. Any change made by the
+ * services (add, replace, remove) is described by a single splice.
+ *
+ * @param typeOfData  The type of data the change applies to.
+ * @param from        The index of the first removed or added element.
+ * @param deleteCount The number of elements removed at {@code from}.
+ * @param added       The elements inserted at {@code from}.
+ */
+@JsonIgnoreProperties(value = { "empty" })
+@JsonPropertyOrder({ "typeOfData", "from", "deleteCount", "added" })
+public record Splice(TypeOfData typeOfData, int from, int deleteCount, List<Object> added) {
+
+	/**
+	 * Computes the smallest splice turning {@code before} into {@code after}.
+	 *
+	 * The common prefix and suffix of both lists are skipped, and the remaining
+	 * middle part becomes the splice.
+	 *
+	 * @param typeOfData The type of data of both lists.
+	 * @param before     The list before the change.
+	 * @param after      The list after the change.
+	 * @return The splice describing the change, which is empty if both lists are
+	 *         equal.
+	 */
+	public static Splice diff(TypeOfData typeOfData, List<Object> before, List<Object> after) {
+		int max = Math.min(before.size(), after.size());
+		int prefix = 0;
+		while (prefix < max && Objects.equals(before.get(prefix), after.get(prefix))) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < max - prefix && Objects.equals(before.get(before.size() - 1 - suffix), after.get(after.size() - 1 - suffix))) {
+			suffix++;
+		}
+		return new Splice(typeOfData, prefix, before.size() - suffix - prefix, List.copyOf(after.subList(prefix, after.size() - suffix)));
+	}
+
+	/**
+	 * Checks if the splice changes nothing.
+	 *
+	 * @return True if no element is removed nor added, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return deleteCount == 0 && added.isEmpty();
+	}
+
+	/**
+	 * Applies the splice to a list.
+	 *
+	 * @param list The list to change, which is left untouched.
+	 * @return A new read-only list with the change applied.
+	 * @throws IndexOutOfBoundsException If the splice does not fit the list.
+	 */
+	public List<Object> applyTo(List<Object> list) {
+		List<Object> result = new ArrayList<>(list.size() - deleteCount + added.size());
+		result.addAll(list.subList(0, from));
+		result.addAll(added);
+		result.addAll(list.subList(from + deleteCount, list.size()));
+		return List.copyOf(result);
+	}
+}
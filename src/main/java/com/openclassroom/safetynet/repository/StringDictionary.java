@@ -0,0 +1,170 @@
+package com.openclassroom.safetynet.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+
+/**
+ * Dictionary of the strings held by the records, so that each distinct value
+ * is stored once in memory.
+ *
+ * The persons, fire stations and medical records repeat the same cities, zip
+ * codes, addresses, medications and allergies across many residents, and each
+ * parsed record holds its own copy of them. Interning a record replaces each
+ * of these strings by the canonical instance of the dictionary, and each of
+ * its lists of medications or allergies by a canonical read-only list, so the
+ * copies become garbage right after loading. Equal values of the interned
+ * records are then the same instance, which {@link String#equals(Object)}
+ * compares by reference first. The names, phone numbers, e-mails and
+ * birthdates are nearly unique, so they are kept as they are: interning them
+ * would only grow the dictionary.
+ *
+ * The dictionary is not thread-safe: the {@link JsonRepository} only uses it
+ * while holding its lock, and starts a new one at each reload and compaction
+ * (see {@link #of(Collection)}) so that the values no longer held by any
+ * record are released.
+ */
+public final class StringDictionary {
+
+	private final Map<String, String> strings = new HashMap<>();
+	private final Map<List<String>, List<String>> lists = new HashMap<>();
+
+	/**
+	 * Starts a dictionary of the values held by records already interned, which
+	 * stay the canonical instances.
+	 *
+	 * @param records The lists of interned records.
+	 * @return The dictionary of their values.
+	 */
+	public static StringDictionary of(Collection<List<Object>> records) {
+		StringDictionary dictionary = new StringDictionary();
+		records.forEach(list -> list.forEach(dictionary::retain));
+		return dictionary;
+	}
+
+	/**
+	 * Returns the canonical instance of a string.
+	 *
+	 * @param value The string, may be null.
+	 * @return The string of the dictionary equal to {@code value}, which becomes
+	 *         the canonical instance if there was none, or null.
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		String canonical = strings.putIfAbsent(value, value);
+		return canonical == null ? value : canonical;
+	}
+
+	/**
+	 * Returns the canonical instance of a list of strings.
+	 *
+	 * @param values The list of strings, may be null or hold null elements, which
+	 *               are kept.
+	 * @return The read-only list of the dictionary equal to {@code values}, of
+	 *         canonical strings, or null.
+	 */
+	public List<String> intern(List<String> values) {
+		if (values == null) {
+			return null;
+		}
+		List<String> canonical = lists.get(values);
+		if (canonical == null) {
+			List<String> interned = new ArrayList<>(values.size());
+			values.forEach(value -> interned.add(intern(value)));
+			canonical = Collections.unmodifiableList(interned);
+			lists.put(canonical, canonical);
+		}
+		return canonical;
+	}
+
+	/**
+	 * Returns a record equal to the given one holding the canonical instances of
+	 * its strings.
+	 *
+	 * @param record A person, fire station or medical record.
+	 * @return The interned record.
+	 */
+	public Object internRecord(Object record) {
+		if (record instanceof Person person) {
+			return new Person(person.firstName(), person.lastName(), intern(person.address()), intern(person.city()), intern(person.zip()),
+					person.phone(), person.email());
+		}
+		if (record instanceof Firestation firestation) {
+			return new Firestation(intern(firestation.address()), firestation.station());
+		}
+		if (record instanceof MedicalRecord medicalRecord) {
+			return new MedicalRecord(medicalRecord.firstName(), medicalRecord.lastName(), medicalRecord.birthdate(), intern(medicalRecord.medications()),
+					intern(medicalRecord.allergies()), medicalRecord.birthEpochDay());
+		}
+		throw new IllegalArgumentException("Unsupported record: " + record.getClass().getSimpleName());
+	}
+
+	private void retain(Object record) {
+		if (record instanceof Person person) {
+			intern(person.address());
+			intern(person.city());
+			intern(person.zip());
+		} else if (record instanceof Firestation firestation) {
+			intern(firestation.address());
+		} else if (record instanceof MedicalRecord medicalRecord) {
+			retain(medicalRecord.medications());
+			retain(medicalRecord.allergies());
+		}
+	}
+
+	private void retain(List<String> values) {
+		if (values != null) {
+			values.forEach(this::intern);
+			lists.putIfAbsent(values, values);
+		}
+	}
+
+	/**
+	 * Interns all the records of a list.
+	 *
+	 * @param records The records.
+	 * @return The read-only list of the interned records, in the same order.
+	 */
+	public List<Object> internAll(List<Object> records) {
+		return intern(records, 0, records.size());
+	}
+
+	/**
+	 * Interns the records of a range of a list, keeping the other records as
+	 * they are.
+	 *
+	 * @param records The records.
+	 * @param from    The index of the first record to intern.
+	 * @param count   The number of records to intern.
+	 * @return The list itself if {@code count} is 0, else a read-only list of the
+	 *         records with the range interned.
+	 */
+	public List<Object> intern(List<Object> records, int from, int count) {
+		if (count == 0) {
+			return records;
+		}
+		List<Object> interned = new ArrayList<>(records);
+		for (int i = from; i < from + count; i++) {
+			interned.set(i, internRecord(interned.get(i)));
+		}
+		return List.copyOf(interned);
+	}
+
+	/**
+	 * Returns the number of distinct strings of the dictionary.
+	 *
+	 * @return The number of distinct strings.
+	 */
+	public int size() {
+		return strings.size();
+	}
+}
@@ -2,12 +2,13 @@ package com.openclassroom.safetynet.service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.AddressIndex;
+import com.openclassroom.safetynet.index.FirestationAddressIndex;
+import com.openclassroom.safetynet.index.FirestationStationIndex;
 import com.openclassroom.safetynet.model.Firestation;
 import com.openclassroom.safetynet.repository.JsonRepository;
 
@@ -23,7 +24,9 @@ import lombok.extern.slf4j.Slf4j;
 public class FirestationService {
 
 	private final JsonRepository repository;
-	private final ObjectMapper objectMapper;
+	private final FirestationAddressIndex firestationAddressIndex;
+	private final FirestationStationIndex firestationStationIndex;
+	private final AddressIndex addressIndex;
 
 	/**
 	 * Creates a new fire station.
@@ -31,91 +34,111 @@ public class FirestationService {
 	 * @param firestation The fire station to create {@link Firestation}.
 	 */
 	public void createFirestation(Firestation firestation) {
-		List<Firestation> firestations = allFireStations();
-		firestations.add(firestation);
-		saveFirestations(firestations);
-		log.debug("Add firestation {} in allFireStations() : {}", firestation, firestations);
+		repository.update(TypeOfData.FIRESTATIONS, Firestation.class, current -> {
+			List<Firestation> firestations = new ArrayList<>(current);
+			firestations.add(firestation);
+			log.debug("Add firestation {} in allFireStations() : {}", firestation, firestations);
+			return List.copyOf(firestations);
+		});
 	}
 
 	/**
 	 * Updates an existing fire station.
 	 *
+	 * The address is matched as written, or else once normalized by the
+	 * {@link AddressIndex}, such as {@code 1509 culver street} for
+	 * {@code 1509 Culver St}.
+	 *
 	 * @param address     The address of the station to update.
 	 * @param firestation The updated fire station {@link Firestation}.
 	 */
 	public void updateFirestation(String address, Firestation firestation) {
-		Firestation existingFirestation = getFirestationByAddress(address);
-		log.debug("Found existing firestation: {}", existingFirestation);
-		if (existingFirestation == null) {
-			log.error("Unknown address: {}", address);
-			throw new IllegalArgumentException("Unknown address: " + address);
-		}
-		List<Firestation> firestations = allFireStations();
-		firestations.set(firestations.indexOf(existingFirestation), firestation);
-		log.debug("Updated firestation list: {}", firestations);
-		saveFirestations(firestations);
+		repository.update(TypeOfData.FIRESTATIONS, Firestation.class, current -> {
+			List<Firestation> firestations = new ArrayList<>(current);
+			Firestation existingFirestation = getFirestationByAddress(current, address);
+			log.debug("Found existing firestation: {}", existingFirestation);
+			if (existingFirestation == null) {
+				log.error("Unknown address: {}", address);
+				throw new IllegalArgumentException("Unknown address: " + address);
+			}
+			firestations.set(firestations.indexOf(existingFirestation), firestation);
+			log.debug("Updated firestation list: {}", firestations);
+			return List.copyOf(firestations);
+		});
 	}
 
 	/**
 	 * Deletes an existing fire station.
 	 *
+	 * The address is matched as written, or else once normalized by the
+	 * {@link AddressIndex}.
+	 *
 	 * @param address The address of the station to delete.
 	 * @return True if the fire station was deleted successfully, false otherwise.
 	 */
 	public Boolean deleteFirestation(String address) {
-		List<Firestation> firestations = allFireStations();
-		boolean firestationsDeleted;
-		if (address.length() <= 2) {
-			int stationNumber = Integer.parseInt(address);
-			firestationsDeleted = firestations.removeIf(f -> f.station() == stationNumber);
-		} else {
-			firestationsDeleted = firestations.removeIf(f -> f.address().equals(address));
-		}
+		boolean firestationsDeleted = repository.update(TypeOfData.FIRESTATIONS, Firestation.class, current -> {
+			List<Firestation> firestations = new ArrayList<>(current);
+			boolean removed;
+			if (address.length() <= 2) {
+				int stationNumber = Integer.parseInt(address);
+				removed = firestations.removeIf(f -> f.station() == stationNumber);
+			} else {
+				Firestation existingFirestation = getFirestationByAddress(current, address);
+				removed = existingFirestation != null && firestations.removeIf(f -> f.address().equals(existingFirestation.address()));
+			}
+			return removed ? List.copyOf(firestations) : current;
+		});
 		if (firestationsDeleted) {
-			saveFirestations(firestations);
 			log.debug("Fire station deleted successfully for {}.", address);
 		}
 		return firestationsDeleted;
 	}
 
 	/**
-	 * Returns the list of fire stations corresponding to the given station numbers.
+	 * Returns the list of fire stations corresponding to the given station
+	 * number, from the {@link FirestationStationIndex}.
 	 *
-	 * @param stationNumber The station numbers.
+	 * @param stationNumber The station number.
 	 * @return The corresponding fire stations {@link Firestation}.
 	 */
 	public List<Firestation> findFireStationByStationNumber(int stationNumber) {
-		return allFireStations().stream().filter(f -> f.station() == stationNumber).toList();
+		return firestationStationIndex.get(stationNumber);
 	}
 
 	/**
 	 * Returns the list of fire stations corresponding to the given station numbers.
 	 *
 	 * @param stationNumbers The list of station numbers.
-	 * @return The list of corresponding fire stations {@link Firestation}.
+	 * @return The list of corresponding fire stations {@link Firestation}, in the
+	 *         order of the station numbers.
 	 */
 	public List<Firestation> getFirestationByListStationNumber(List<Integer> stationNumbers) {
-		return allFireStations().stream().filter(firestation -> stationNumbers.contains(firestation.station())).toList();
+		return firestationStationIndex.getAll(stationNumbers.stream().distinct().toList()).values().stream().flatMap(List::stream).toList();
 	}
 
 	/**
-	 * Returns the fire station corresponding to the given address.
+	 * Returns the fire station corresponding to the given address, from the
+	 * {@link FirestationAddressIndex}. The address is matched as written, or else
+	 * once normalized by the {@link AddressIndex}.
 	 *
 	 * @param address The address of the station.
 	 * @return The corresponding fire station {@link Firestation}.
 	 */
 	public Firestation getFirestationByAddress(String address) {
-		return allFireStations().stream().filter(firestation -> firestation.address().contains(address)).findFirst().orElse(null);
-	}
-
-	private List<Firestation> allFireStations() {
-		return repository.loadTypeOfData(TypeOfData.FIRESTATIONS).stream()
-				.map(firestationObj -> objectMapper.convertValue(firestationObj, Firestation.class))
-				.collect(Collectors.toCollection(ArrayList::new));
+		return getFirestationByAddress(repository.loadTypeOfData(TypeOfData.FIRESTATIONS, Firestation.class), address);
 	}
 
-	private void saveFirestations(List<Firestation> firestations) {
-		repository.saveData(TypeOfData.FIRESTATIONS, firestations.stream()
-				.map(firestationObj -> objectMapper.convertValue(firestationObj, Firestation.class)).collect(Collectors.toList()));
+	private Firestation getFirestationByAddress(List<Firestation> firestations, String address) {
+		List<Firestation> found = firestationAddressIndex.get(address, firestations);
+		if (found.isEmpty()) {
+			for (String normalizedMatch : addressIndex.getExact(address)) {
+				found = firestationAddressIndex.get(normalizedMatch, firestations);
+				if (!found.isEmpty()) {
+					break;
+				}
+			}
+		}
+		return found.isEmpty() ? null : found.get(0);
 	}
 }
@@ -1,14 +1,15 @@
 package com.openclassroom.safetynet.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.MedicalRecordNameIndex;
 import com.openclassroom.safetynet.model.MedicalRecord;
 import com.openclassroom.safetynet.model.Person;
 import com.openclassroom.safetynet.repository.JsonRepository;
@@ -25,7 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 public class MedicalRecordService {
 
 	private final JsonRepository repository;
-	private final ObjectMapper objectMapper;
+	private final MedicalRecordNameIndex medicalRecordNameIndex;
 
 	/**
 	 * Creates a new medical record.
@@ -33,10 +34,12 @@ public class MedicalRecordService {
 	 * @param medicalRecord The medical record to create {@link MedicalRecord}.
 	 */
 	public void createMedicalRecord(MedicalRecord medicalRecord) {
-		List<MedicalRecord> medicalRecords = allMedicalRecords();
-		medicalRecords.add(medicalRecord);
-		saveMedicalRecords(medicalRecords);
-		log.debug("Add medicalRecord {} in allMedicalRecords() : {}", medicalRecord, medicalRecords);
+		repository.update(TypeOfData.MEDICALRECORDS, MedicalRecord.class, current -> {
+			List<MedicalRecord> medicalRecords = new ArrayList<>(current);
+			medicalRecords.add(medicalRecord);
+			log.debug("Add medicalRecord {} in allMedicalRecords() : {}", medicalRecord, medicalRecords);
+			return List.copyOf(medicalRecords);
+		});
 	}
 
 	/**
@@ -50,16 +53,18 @@ public class MedicalRecordService {
 	 */
 	public void updateMedicalRecord(String firstName, String lastName, MedicalRecord medicalRecord) {
 		String fullName = firstName + " " + lastName;
-		MedicalRecord existingMedicalRecord = getMedicalRecordByFullName(fullName);
-		if (existingMedicalRecord == null) {
-			log.error("Unknown person: {}", fullName);
-			throw new IllegalArgumentException("Unknown person: " + fullName);
-		}
-		log.debug("Found existing medical record for: {} = {}", fullName, existingMedicalRecord);
-		List<MedicalRecord> medicalRecords = allMedicalRecords();
-		medicalRecords.set(medicalRecords.indexOf(existingMedicalRecord), medicalRecord);
-		saveMedicalRecords(medicalRecords);
-		log.debug("Updated medical record list with {} = {}", medicalRecord, medicalRecords);
+		repository.update(TypeOfData.MEDICALRECORDS, MedicalRecord.class, current -> {
+			List<MedicalRecord> medicalRecords = new ArrayList<>(current);
+			MedicalRecord existingMedicalRecord = medicalRecords.stream().filter(m -> m.fullName().equals(fullName)).findFirst().orElse(null);
+			if (existingMedicalRecord == null) {
+				log.error("Unknown person: {}", fullName);
+				throw new IllegalArgumentException("Unknown person: " + fullName);
+			}
+			log.debug("Found existing medical record for: {} = {}", fullName, existingMedicalRecord);
+			medicalRecords.set(medicalRecords.indexOf(existingMedicalRecord), medicalRecord);
+			log.debug("Updated medical record list with {} = {}", medicalRecord, medicalRecords);
+			return List.copyOf(medicalRecords);
+		});
 	}
 
 	/**
@@ -71,23 +76,41 @@ public class MedicalRecordService {
 	 */
 	public boolean deleteMedicalRecord(String firstName, String lastName) {
 		String fullName = firstName + " " + lastName;
-		List<MedicalRecord> medicalRecords = allMedicalRecords();
-		boolean medicalRecordDeleted = medicalRecords.removeIf(m -> m.fullName().equals(fullName));
+		boolean medicalRecordDeleted = repository.update(TypeOfData.MEDICALRECORDS, MedicalRecord.class, current -> {
+			List<MedicalRecord> medicalRecords = new ArrayList<>(current);
+			return medicalRecords.removeIf(m -> m.fullName().equals(fullName)) ? List.copyOf(medicalRecords) : current;
+		});
 		if (medicalRecordDeleted) {
-			saveMedicalRecords(medicalRecords);
 			log.debug("Medical record deleted successfully for {}.", fullName);
 		}
 		return medicalRecordDeleted;
 	}
 
 	/**
-	 * Retrieves a medical record by the full name of the person.
+	 * Retrieves a medical record by the full name of the person, from the
+	 * {@link MedicalRecordNameIndex}.
 	 *
 	 * @param fullName The first name and the last name of the person.
 	 * @return The medical record for the specified person {@link MedicalRecord}.
 	 */
 	public MedicalRecord getMedicalRecordByFullName(String fullName) {
-		return allMedicalRecords().stream().filter(medicalRecord -> medicalRecord.fullName().equals(fullName)).findFirst().orElse(null);
+		List<MedicalRecord> medicalRecords = medicalRecordNameIndex.get(fullName);
+		return medicalRecords.isEmpty() ? null : medicalRecords.get(0);
+	}
+
+	/**
+	 * Retrieves the medical records of a list of persons in a single pass over
+	 * the {@link MedicalRecordNameIndex}.
+	 *
+	 * @param persons The list of persons {@link Person}.
+	 * @return A map of the full name of each person having a medical record to
+	 *         this medical record {@link MedicalRecord}.
+	 */
+	public Map<String, MedicalRecord> getMedicalRecordsByFullName(List<Person> persons) {
+		Map<String, MedicalRecord> medicalRecords = new HashMap<>();
+		medicalRecordNameIndex.getAll(persons.stream().map(Person::fullName).toList())
+				.forEach((fullName, records) -> medicalRecords.put(fullName, records.get(0)));
+		return medicalRecords;
 	}
 
 	/**
@@ -98,19 +121,12 @@ public class MedicalRecordService {
 	 *         {@link MedicalRecord}.
 	 */
 	public List<MedicalRecord> getPersonMedicalRecords(List<Person> persons) {
-		return persons.stream().map(p -> getMedicalRecordByFullName(p.fullName())).filter(Objects::nonNull).toList();
+		Map<String, MedicalRecord> medicalRecords = getMedicalRecordsByFullName(persons);
+		return persons.stream().map(p -> medicalRecords.get(p.fullName())).filter(Objects::nonNull).toList();
 	}
 
 	private List<MedicalRecord> allMedicalRecords() {
-		return repository.loadTypeOfData(TypeOfData.MEDICALRECORDS).stream()
-				.map(medicalRecordObj -> objectMapper.convertValue(medicalRecordObj, MedicalRecord.class))
-				.collect((Collectors.toCollection(ArrayList::new)));
-	}
-
-	private void saveMedicalRecords(List<MedicalRecord> medicalRecords) {
-
-		repository.saveData(TypeOfData.MEDICALRECORDS, medicalRecords.stream()
-				.map(medicalRecordsObj -> objectMapper.convertValue(medicalRecordsObj, MedicalRecord.class)).collect(Collectors.toList()));
+		return repository.loadTypeOfData(TypeOfData.MEDICALRECORDS, MedicalRecord.class);
 	}
 
 }
@@ -0,0 +1,75 @@
+package com.openclassroom.safetynet.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import com.openclassroom.safetynet.exceptions.InvalidCursorException;
+
+/**
+ * Position of the next page of a paged search, sent to the client as an opaque
+ * cursor.
+ *
+ * The position is the key of the first result of the next page in the sorted
+ * index searched, and the number of results of that key already returned. The
+ * next page seeks the index to that key, so it does not depend on the number
+ * of pages before it, and it stays valid whatever the records added or removed
+ * meanwhile: a removed key is skipped, and an added key is returned if it
+ * comes after the position.
+ *
+ * The cursor also holds the parameters of the search it was returned by, so
+ * that it cannot be sent back to another search.
+ *
+ * @param key  The key of the first result of the next page.
+ * @param skip The number of results of the key already returned.
+ */
+record PageCursor(List<String> key, int skip) {
+
+	private static final String SEPARATOR = "\u0000";
+
+	/**
+	 * Encodes the cursor of a search.
+	 *
+	 * @param query The parameters of the search.
+	 * @return The opaque cursor.
+	 */
+	String encode(List<String> query) {
+		List<String> parts = new ArrayList<>(query);
+		parts.addAll(key);
+		parts.add(String.valueOf(skip));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(String.join(SEPARATOR, parts).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes the cursor sent back to a search.
+	 *
+	 * @param cursor  The opaque cursor, empty for the first page.
+	 * @param query   The parameters of the search.
+	 * @param keySize The number of parts of the key of the search.
+	 * @return The position of the page, or null for the first page.
+	 * @throws InvalidCursorException If the cursor is malformed or was returned
+	 *                                by another search.
+	 */
+	static PageCursor decode(String cursor, List<String> query, int keySize) {
+		if (cursor.isEmpty()) {
+			return null;
+		}
+		List<String> parts;
+		int skip;
+		try {
+			parts = Arrays.asList(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1));
+			skip = parts.size() == query.size() + keySize + 1 ? Integer.parseInt(parts.get(parts.size() - 1)) : -1;
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException("Invalid cursor: " + cursor);
+		}
+		if (skip < 0) {
+			throw new InvalidCursorException("Invalid cursor: " + cursor);
+		}
+		if (!parts.subList(0, query.size()).equals(query)) {
+			throw new InvalidCursorException("Cursor of another search: " + cursor);
+		}
+		return new PageCursor(List.copyOf(parts.subList(query.size(), query.size() + keySize)), skip);
+	}
+}
@@ -2,21 +2,53 @@ package com.openclassroom.safetynet.service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.dto.AddressFloodInfo;
 import com.openclassroom.safetynet.dto.Child;
 import com.openclassroom.safetynet.dto.MedicalRecordInfo;
+import com.openclassroom.safetynet.dto.Page;
 import com.openclassroom.safetynet.dto.PersonCoveredByStation;
 import com.openclassroom.safetynet.dto.PersonFloodInfo;
 import com.openclassroom.safetynet.dto.PersonsAndStationInfo;
 import com.openclassroom.safetynet.dto.PersonsLastNameInfo;
+import com.openclassroom.safetynet.dto.ResidentInfo;
+import com.openclassroom.safetynet.dto.ResidentSearch;
+import com.openclassroom.safetynet.dto.StationSummary;
+import com.openclassroom.safetynet.exceptions.InvalidCursorException;
+import com.openclassroom.safetynet.index.AddressIndex;
+import com.openclassroom.safetynet.index.AddressMatch;
+import com.openclassroom.safetynet.index.CityEmailKey;
+import com.openclassroom.safetynet.index.FirestationStationAddressIndex;
+import com.openclassroom.safetynet.index.HashJoin;
+import com.openclassroom.safetynet.index.IndexPage;
+import com.openclassroom.safetynet.index.MedicalRecordAllergyIndex;
+import com.openclassroom.safetynet.index.MedicalRecordMedicationIndex;
+import com.openclassroom.safetynet.index.MedicalTokens;
+import com.openclassroom.safetynet.index.NameKey;
+import com.openclassroom.safetynet.index.PersonAddressIndex;
+import com.openclassroom.safetynet.index.PersonCityEmailIndex;
+import com.openclassroom.safetynet.index.PersonCityIndex;
+import com.openclassroom.safetynet.index.PersonNameIndex;
+import com.openclassroom.safetynet.index.ResidentBitmapIndex;
+import com.openclassroom.safetynet.index.ResidentBitmaps;
+import com.openclassroom.safetynet.index.ResidentFilter;
+import com.openclassroom.safetynet.index.StationAgeCounters;
+import com.openclassroom.safetynet.index.StationAddressKey;
+import com.openclassroom.safetynet.model.AgeClassifier.AgeCounts;
 import com.openclassroom.safetynet.model.Firestation;
 import com.openclassroom.safetynet.model.MedicalRecord;
 import com.openclassroom.safetynet.model.Person;
@@ -32,11 +64,29 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class PersonService {
+	/**
+	 * The default maximum number of persons returned by a last name prefix
+	 * search.
+	 */
+	public static final int LAST_NAME_PREFIX_LIMIT = 50;
+	/**
+	 * The maximum number of similar addresses listed for an unknown address.
+	 */
+	public static final int ADDRESS_CANDIDATES = 5;
 	private String unknownStationNumber = "Unknown station number: ";
-	private final ObjectMapper objectMapper;
 	private final JsonRepository repository;
 	private final MedicalRecordService medicalRecordService;
 	private final FirestationService firestationService;
+	private final PersonAddressIndex personAddressIndex;
+	private final PersonCityIndex personCityIndex;
+	private final StationAgeCounters stationAgeCounters;
+	private final ResidentBitmapIndex residentBitmapIndex;
+	private final MedicalRecordMedicationIndex medicalRecordMedicationIndex;
+	private final MedicalRecordAllergyIndex medicalRecordAllergyIndex;
+	private final AddressIndex addressIndex;
+	private final PersonCityEmailIndex personCityEmailIndex;
+	private final PersonNameIndex personNameIndex;
+	private final FirestationStationAddressIndex firestationStationAddressIndex;
 
 	/**
 	 * Creates a new Person.
@@ -45,10 +95,12 @@ public class PersonService {
 	 * 
 	 */
 	public void createPerson(Person person) {
-		List<Person> persons = allPersons();
-		persons.add(person);
-		savePersons(persons);
-		log.debug("Add person {} in allPersons() : {}", person, persons);
+		repository.update(TypeOfData.PERSONS, Person.class, current -> {
+			List<Person> persons = new ArrayList<>(current);
+			persons.add(person);
+			log.debug("Add person {} in allPersons() : {}", person, persons);
+			return List.copyOf(persons);
+		});
 	}
 
 	/**
@@ -60,16 +112,18 @@ public class PersonService {
 	 */
 	public void updatePerson(String firstName, String lastName, Person person) {
 		String fullName = firstName + " " + lastName;
-		Person existingPerson = getPersonByFullName(fullName);
-		if (existingPerson == null) {
-			log.error("Unknown person: {}", fullName);
-			throw new IllegalArgumentException("Unknown person: " + fullName);
-		}
-		List<Person> persons = allPersons();
-		log.debug("Found existing person: {}", existingPerson);
-		persons.set(persons.indexOf(existingPerson), person);
-		savePersons(persons);
-		log.debug("Updated person list: {}", persons);
+		repository.update(TypeOfData.PERSONS, Person.class, current -> {
+			List<Person> persons = new ArrayList<>(current);
+			Person existingPerson = getPersonByFullName(persons, fullName);
+			if (existingPerson == null) {
+				log.error("Unknown person: {}", fullName);
+				throw new IllegalArgumentException("Unknown person: " + fullName);
+			}
+			log.debug("Found existing person: {}", existingPerson);
+			persons.set(persons.indexOf(existingPerson), person);
+			log.debug("Updated person list: {}", persons);
+			return List.copyOf(persons);
+		});
 	}
 
 	/**
@@ -81,10 +135,11 @@ public class PersonService {
 	 */
 	public boolean deletePerson(String firstName, String lastName) {
 		String fullName = firstName + " " + lastName;
-		List<Person> persons = allPersons();
-		boolean personDeleted = persons.removeIf(p -> p.fullName().equals(fullName));
+		boolean personDeleted = repository.update(TypeOfData.PERSONS, Person.class, current -> {
+			List<Person> persons = new ArrayList<>(current);
+			return persons.removeIf(p -> p.fullName().equals(fullName)) ? List.copyOf(persons) : current;
+		});
 		if (personDeleted) {
-			savePersons(persons);
 			log.debug("Person {} deleted successfully.", fullName);
 		}
 		return personDeleted;
@@ -113,6 +168,50 @@ public class PersonService {
 		return new PersonCoveredByStation(personByStation, medicalRecords);
 	}
 
+	/**
+	 * Checks that a fire station covers at least one address, so that a search
+	 * for an unknown station fails before its result is looked up or found not
+	 * modified.
+	 *
+	 * @param stationNumber The fire station number.
+	 * @throws IllegalArgumentException If the station covers no address.
+	 */
+	public void checkStation(int stationNumber) {
+		if (firestationService.findFireStationByStationNumber(stationNumber).isEmpty()) {
+			log.error("Unknown station number: {}", stationNumber);
+			throw new IllegalArgumentException(unknownStationNumber + stationNumber);
+		}
+	}
+
+	/**
+	 * Checks that the fire stations cover at least one address, as
+	 * {@link #checkStation(int)} does for a single station.
+	 *
+	 * @param stationNumbers The fire station numbers.
+	 * @throws IllegalArgumentException If none of the stations covers an address.
+	 */
+	public void checkStations(List<Integer> stationNumbers) {
+		if (firestationService.getFirestationByListStationNumber(stationNumbers).isEmpty()) {
+			log.error("Unknown station number: {}", stationNumbers);
+			throw new IllegalArgumentException(unknownStationNumber + stationNumbers);
+		}
+	}
+
+	/**
+	 * Returns the number of adults and children covered by a given fire station,
+	 * read from the {@link StationAgeCounters}.
+	 *
+	 * @param stationNumber The fire station number.
+	 * @return A {@link StationSummary} of the station.
+	 * @throws IllegalArgumentException If the station covers no address, an
+	 *                                  exception is thrown.
+	 */
+	public StationSummary stationSummary(int stationNumber) {
+		checkStation(stationNumber);
+		AgeCounts counts = stationAgeCounters.getCounts(stationNumber);
+		return new StationSummary(stationNumber, counts.adults(), counts.children());
+	}
+
 	/**
 	 * Returns information about the people and fire station associated with a given
 	 * address.
@@ -126,18 +225,18 @@ public class PersonService {
 	 *                                  address, an exception is thrown.
 	 */
 	public PersonsAndStationInfo getPersonsAndStationInfoByAddress(String address) {
+		address = resolveAddress(address);
 		List<Person> persons = getPersonsByAddress(address);
 		log.debug("Result of getPersonsByAddress for address {} = {} ", address, persons);
 		if ((persons).isEmpty()) {
 			log.error("Unknown address: {}", address);
 			throw new IllegalArgumentException("Unknown address: " + address);
 		}
-		List<MedicalRecordInfo> medicalRecordInfos = persons.stream()
-				.map(p -> new MedicalRecordInfo(p, medicalRecordService.getMedicalRecordByFullName(p.fullName()))).toList();
+		List<MedicalRecordInfo> medicalRecordInfos = getMedicalRecordInfosByListPersons(persons);
 		log.debug("Result of getMedicalRecordInfosByPersons for persons found in getPersonsByAddress : {}", medicalRecordInfos);
 		Firestation firestation = firestationService.getFirestationByAddress(address);
 		log.debug("Result of getFirestationByAddress the fire station number associated with address : {} = {} ", address, firestation.station());
-		return new PersonsAndStationInfo(medicalRecordInfos, firestation.station());
+		return new PersonsAndStationInfo(address, medicalRecordInfos, firestation.station());
 	}
 
 	/**
@@ -149,13 +248,87 @@ public class PersonService {
 	 *                                  an exception is thrown.
 	 */
 	public List<String> personEmails(String city) {
-		List<Person> persons = allPersons();
-		List<Person> matchingPersons = persons.stream().filter(person -> person.city().equals(city)).toList();
+		return personEmails(city, false);
+	}
+
+	/**
+	 * Retrieves email addresses of persons residing in a specific city, from the
+	 * {@link PersonCityIndex}.
+	 *
+	 * @param city     The city to retrieve email addresses for.
+	 * @param distinct True to return each email address once, even if it is
+	 *                 shared by several persons.
+	 * @return A list of String containing the extracted email addresses.
+	 * @throws IllegalArgumentException If no persons are found at the given city,
+	 *                                  an exception is thrown.
+	 */
+	public List<String> personEmails(String city, boolean distinct) {
+		List<Person> matchingPersons = personCityIndex.get(city);
 		log.debug("Result of matchingPersons for city {} = {} ", city, matchingPersons);
 		if (matchingPersons.isEmpty()) {
 			throw new IllegalArgumentException("Unknown city: " + city);
 		}
-		return matchingPersons.stream().map(Person::email).toList();
+		Stream<String> emails = matchingPersons.stream().map(Person::email);
+		return distinct ? emails.distinct().toList() : emails.toList();
+	}
+
+	/**
+	 * Streams the email addresses of persons residing in a specific city, from
+	 * the {@link PersonCityIndex}, as they are read.
+	 *
+	 * @param city     The city to retrieve email addresses for.
+	 * @param distinct True to send each email address once, even if it is shared
+	 *                 by several persons.
+	 * @param sink     The consumer of the email addresses, which may throw to
+	 *                 stop the stream.
+	 * @throws IllegalArgumentException If no persons are found at the given city,
+	 *                                  an exception is thrown before any email
+	 *                                  address is sent.
+	 */
+	public void streamEmails(String city, boolean distinct, Consumer<? super String> sink) {
+		List<Person> matchingPersons = personCityIndex.get(city);
+		log.debug("Result of matchingPersons for city {} = {} persons", city, matchingPersons.size());
+		if (matchingPersons.isEmpty()) {
+			throw new IllegalArgumentException("Unknown city: " + city);
+		}
+		Set<String> sent = distinct ? new HashSet<>() : null;
+		for (Person person : matchingPersons) {
+			if (sent == null || sent.add(person.email())) {
+				sink.accept(person.email());
+			}
+		}
+	}
+
+	/**
+	 * Retrieves a page of the email addresses of persons residing in a specific
+	 * city, in the order of the email addresses, from the
+	 * {@link PersonCityEmailIndex}.
+	 *
+	 * @param city     The city to retrieve email addresses for.
+	 * @param distinct True to return each email address once, even if it is
+	 *                 shared by several persons.
+	 * @param cursor   The cursor returned with the previous page, empty for the
+	 *                 first page.
+	 * @param limit    The maximum number of email addresses of the page.
+	 * @return A {@link Page} of the email addresses.
+	 * @throws IllegalArgumentException If no persons are found at the given city,
+	 *                                  an exception is thrown.
+	 * @throws InvalidCursorException   If the cursor is invalid.
+	 */
+	public Page<String> pageEmails(String city, boolean distinct, String cursor, int limit) {
+		List<String> query = List.of("communityEmail", city, String.valueOf(distinct));
+		PageCursor position = PageCursor.decode(cursor, query, 3);
+		CityEmailKey from = position == null ? new CityEmailKey(city, "", "", "")
+				: new CityEmailKey(city, position.key().get(0), position.key().get(1), position.key().get(2));
+		IndexPage<CityEmailKey, Person> page = personCityEmailIndex.page(from, position == null ? 0 : position.skip(), key -> key.city().equals(city),
+				distinct ? CityEmailKey::email : null, limit);
+		log.debug("Result of page of emails for city {} = {} persons", city, page.records().size());
+		if (position == null && page.records().isEmpty()) {
+			throw new IllegalArgumentException("Unknown city: " + city);
+		}
+		String nextCursor = page.nextKey() == null ? null
+				: new PageCursor(List.of(page.nextKey().email(), page.nextKey().lastName(), page.nextKey().firstName()), page.nextSkip()).encode(query);
+		return new Page<>(page.records().stream().map(Person::email).toList(), nextCursor);
 	}
 
 	/**
@@ -169,25 +342,60 @@ public class PersonService {
 	 *                                  address, an exception is thrown.
 	 */
 	public List<Child> getChildsByAddress(String address) {
+		address = resolveAddress(address);
 		List<Person> personsByAddress = getPersonsByAddress(address);
 		log.debug("Result of getPersonsByAddress for address {} = {} ", address, personsByAddress);
 		if (personsByAddress.isEmpty()) {
 			log.error("Unknown address: {}", address);
 			throw new IllegalArgumentException("Unknown address: " + address);
 		}
-		return personsByAddress.stream().filter(person -> medicalRecordService.getMedicalRecordByFullName(person.fullName()).isChild())
-				.map(p -> new Child(p, medicalRecordService.getMedicalRecordByFullName(p.fullName()))).toList();
+		Map<String, MedicalRecord> medicalRecords = medicalRecordService.getMedicalRecordsByFullName(personsByAddress);
+		return personsByAddress.stream().filter(person -> medicalRecords.containsKey(person.fullName()) && medicalRecords.get(person.fullName()).isChild())
+				.map(p -> new Child(p, medicalRecords.get(p.fullName()))).toList();
 	}
 
 	/**
-	 * Retrieves persons by address.
+	 * Resolves an address, possibly formatted differently, to an address of the
+	 * records, from the {@link AddressIndex}.
+	 *
+	 * @param address The address to resolve.
+	 * @return The address as written in the records.
+	 * @throws IllegalArgumentException If no address is equal once normalized, an
+	 *                                  exception is thrown listing the similar
+	 *                                  addresses, if any.
+	 */
+	public String resolveAddress(String address) {
+		String resolved = addressIndex.resolve(address).orElseThrow(() -> {
+			List<AddressMatch> candidates = addressIndex.search(address, ADDRESS_CANDIDATES);
+			log.error("Unknown address: {}, similar addresses : {}", address, candidates);
+			return new IllegalArgumentException("Unknown address: " + address + (candidates.isEmpty() ? ""
+					: ", did you mean: " + candidates.stream().map(AddressMatch::address).collect(Collectors.joining(", "))));
+		});
+		log.debug("Address {} resolved to {}", address, resolved);
+		return resolved;
+	}
+
+	/**
+	 * Searches the addresses similar to an address, from the
+	 * {@link AddressIndex}.
+	 *
+	 * @param address The address to search.
+	 * @param limit   The maximum number of addresses returned.
+	 * @return The matching addresses {@link AddressMatch}, best first.
+	 */
+	public List<AddressMatch> searchAddresses(String address, int limit) {
+		return addressIndex.search(address, limit);
+	}
+
+	/**
+	 * Retrieves persons by address, from the {@link PersonAddressIndex}.
 	 *
 	 * @param address The address to retrieve persons for.
 	 * @return A list of persons residing at the specified address
 	 *         {@link Person}.
 	 */
 	public List<Person> getPersonsByAddress(String address) {
-		return allPersons().stream().filter(person -> person.address().equals(address)).toList();
+		return personAddressIndex.get(address);
 	}
 
 	/**
@@ -200,10 +408,30 @@ public class PersonService {
 		return getPersonsByStation(stationNumber).stream().map(Person::phone).toList();
 	}
 
+	/**
+	 * Streams the phone numbers of persons covered by a specific station, as
+	 * each address of the station is probed in the {@link PersonAddressIndex}.
+	 *
+	 * @param stationNumber The station number to retrieve phone numbers for.
+	 * @param sink          The consumer of the phone numbers, which may throw to
+	 *                      stop the stream.
+	 * @throws IllegalArgumentException If the station covers no address, an
+	 *                                  exception is thrown before any phone
+	 *                                  number is sent.
+	 */
+	public void streamPhoneNumbersByStation(int stationNumber, Consumer<? super String> sink) {
+		for (Firestation firestation : getFirestationsByStation(stationNumber)) {
+			personAddressIndex.get(firestation.address()).forEach(person -> sink.accept(person.phone()));
+		}
+	}
+
 	/**
 	 * Retrieves a list of PersonsLastNameInfo objects for persons with the given
 	 * last name.
 	 *
+	 * A last name ending with {@code *} is a prefix: the persons whose last name
+	 * starts with it are returned, at most {@link #LAST_NAME_PREFIX_LIMIT}.
+	 *
 	 * @param lastName The last name of the persons to retrieve.
 	 * @return A list of PersonsLastNameInfo objects containing the extracted
 	 *         information {@link PersonsLastNameInfo}.
@@ -211,14 +439,71 @@ public class PersonService {
 	 *                                  lastName, an exception is thrown.
 	 */
 	public List<PersonsLastNameInfo> listOfPersonsByLastName(String lastName) {
-		List<Person> persons = allPersons();
-		List<Person> matchingPersons = persons.stream().filter(person -> person.lastName().equals(lastName)).toList();
+		return listOfPersonsByLastName(lastName, LAST_NAME_PREFIX_LIMIT);
+	}
+
+	/**
+	 * Retrieves a list of PersonsLastNameInfo objects for persons with the given
+	 * last name, in the order of their last and first names, from the
+	 * {@link PersonNameIndex}.
+	 *
+	 * A last name ending with {@code *} is a prefix: the persons whose last name
+	 * starts with it are returned.
+	 *
+	 * @param lastName The last name of the persons to retrieve, or a prefix
+	 *                 followed by {@code *}.
+	 * @param limit    The maximum number of persons returned for a prefix.
+	 * @return A list of PersonsLastNameInfo objects containing the extracted
+	 *         information {@link PersonsLastNameInfo}.
+	 * @throws IllegalArgumentException If no persons are found at the given
+	 *                                  lastName, an exception is thrown.
+	 */
+	public List<PersonsLastNameInfo> listOfPersonsByLastName(String lastName, int limit) {
+		List<Person> matchingPersons = lastName.endsWith("*") ? personNameIndex.getByPrefix(lastName.substring(0, lastName.length() - 1), limit)
+				: personNameIndex.getByLastName(lastName);
 		log.debug("Result of matchingPersons for  last name {} = {} ", lastName, matchingPersons);
 		if (matchingPersons.isEmpty()) {
 			throw new IllegalArgumentException("Unknown last name: " + lastName);
 		}
-		return matchingPersons.stream()
-				.map(person -> new PersonsLastNameInfo(person, medicalRecordService.getMedicalRecordByFullName(person.fullName()))).toList();
+		Map<String, MedicalRecord> medicalRecords = medicalRecordService.getMedicalRecordsByFullName(matchingPersons);
+		return matchingPersons.stream().map(person -> new PersonsLastNameInfo(person, medicalRecords.get(person.fullName()))).toList();
+	}
+
+	/**
+	 * Retrieves a page of the PersonsLastNameInfo objects for persons with the
+	 * given last name, in the order of their last and first names, from the
+	 * {@link PersonNameIndex}.
+	 *
+	 * A last name ending with {@code *} is a prefix: the persons whose last name
+	 * starts with it are returned.
+	 *
+	 * @param lastName The last name of the persons to retrieve, or a prefix
+	 *                 followed by {@code *}.
+	 * @param cursor   The cursor returned with the previous page, empty for the
+	 *                 first page.
+	 * @param limit    The maximum number of persons of the page.
+	 * @return A {@link Page} of PersonsLastNameInfo objects.
+	 * @throws IllegalArgumentException If no persons are found at the given
+	 *                                  lastName, an exception is thrown.
+	 * @throws InvalidCursorException   If the cursor is invalid.
+	 */
+	public Page<PersonsLastNameInfo> pageByLastName(String lastName, String cursor, int limit) {
+		List<String> query = List.of("personInfolastName", lastName);
+		PageCursor position = PageCursor.decode(cursor, query, 2);
+		boolean prefix = lastName.endsWith("*");
+		String name = prefix ? lastName.substring(0, lastName.length() - 1) : lastName;
+		NameKey from = position == null ? new NameKey(name, "") : new NameKey(position.key().get(0), position.key().get(1));
+		IndexPage<NameKey, Person> page = personNameIndex.page(from, position == null ? 0 : position.skip(),
+				key -> prefix ? key.lastName().startsWith(name) : key.lastName().equals(name), null, limit);
+		log.debug("Result of page of persons for last name {} = {} persons", lastName, page.records().size());
+		if (position == null && page.records().isEmpty()) {
+			throw new IllegalArgumentException("Unknown last name: " + lastName);
+		}
+		Map<String, MedicalRecord> medicalRecords = medicalRecordService.getMedicalRecordsByFullName(page.records());
+		String nextCursor = page.nextKey() == null ? null
+				: new PageCursor(List.of(page.nextKey().lastName(), page.nextKey().firstName()), page.nextSkip()).encode(query);
+		return new Page<>(page.records().stream().map(person -> new PersonsLastNameInfo(person, medicalRecords.get(person.fullName()))).toList(),
+				nextCursor);
 	}
 
 	/**
@@ -242,6 +527,84 @@ public class PersonService {
 		return new PersonFloodInfo(medicalRecordsByAddress);
 	}
 
+	/**
+	 * Streams information about people affected by a flood, address by address,
+	 * based on the fire station numbers.
+	 *
+	 * The people of each address and their medical records are looked up when
+	 * the address is reached, and each address is sent once even if it is covered by
+	 * several of the stations.
+	 *
+	 * @param stationNumber A list of fire station numbers.
+	 * @param sink          The consumer of the people of each address
+	 *                      {@link AddressFloodInfo}, which may throw to stop the
+	 *                      stream.
+	 * @throws IllegalArgumentException If no firestations are found at the given
+	 *                                  stationNumber list, an exception is thrown
+	 *                                  before any address is sent.
+	 */
+	public void streamFloodInfo(List<Integer> stationNumber, Consumer<? super AddressFloodInfo> sink) {
+		List<Firestation> firestations = firestationService.getFirestationByListStationNumber(stationNumber);
+		log.debug("Result of getFirestationByListStationNumber for station number {} = {} ", stationNumber, firestations);
+		if (firestations.isEmpty()) {
+			log.error("Unknown station number: {}", stationNumber);
+			throw new IllegalArgumentException(unknownStationNumber + stationNumber);
+		}
+		Set<String> sent = new HashSet<>();
+		for (Firestation firestation : firestations) {
+			String address = firestation.address();
+			if (sent.add(address)) {
+				sink.accept(new AddressFloodInfo(address, getMedicalRecordInfosByListPersons(personAddressIndex.get(address))));
+			}
+		}
+	}
+
+	/**
+	 * Returns a page of information about people affected by a flood, address by
+	 * address in the order of the addresses, based on the fire station numbers.
+	 *
+	 * Each station is paged from the {@link FirestationStationAddressIndex}, and
+	 * the addresses of the stations are merged so that each address is returned
+	 * once even if it is covered by several of the stations.
+	 *
+	 * @param stationNumber A list of fire station numbers.
+	 * @param cursor        The cursor returned with the previous page, empty for
+	 *                      the first page.
+	 * @param limit         The maximum number of addresses of the page.
+	 * @return A {@link Page} of the people of each address
+	 *         {@link AddressFloodInfo}.
+	 * @throws IllegalArgumentException If no firestations are found at the given
+	 *                                  stationNumber list, an exception is thrown.
+	 * @throws InvalidCursorException   If the cursor is invalid.
+	 */
+	public Page<AddressFloodInfo> pageFloodInfo(List<Integer> stationNumber, String cursor, int limit) {
+		List<Integer> stations = stationNumber.stream().distinct().sorted().toList();
+		List<String> query = List.of("flood", stations.toString());
+		PageCursor position = PageCursor.decode(cursor, query, 1);
+		String fromAddress = position == null ? "" : position.key().get(0);
+		TreeSet<String> addresses = new TreeSet<>();
+		for (int station : stations) {
+			firestationStationAddressIndex
+					.page(new StationAddressKey(station, fromAddress), 0, key -> key.station() == station, Function.identity(), limit + 1).records()
+					.forEach(firestation -> addresses.add(firestation.address()));
+		}
+		log.debug("Result of page of addresses for station number {} = {} ", stationNumber, addresses);
+		if (position == null && addresses.isEmpty()) {
+			log.error("Unknown station number: {}", stationNumber);
+			throw new IllegalArgumentException(unknownStationNumber + stationNumber);
+		}
+		List<AddressFloodInfo> floodInfos = new ArrayList<>();
+		String nextCursor = null;
+		for (String address : addresses) {
+			if (floodInfos.size() == limit) {
+				nextCursor = new PageCursor(List.of(address), 0).encode(query);
+				break;
+			}
+			floodInfos.add(new AddressFloodInfo(address, getMedicalRecordInfosByListPersons(personAddressIndex.get(address))));
+		}
+		return new Page<>(List.copyOf(floodInfos), nextCursor);
+	}
+
 	/**
 	 * Returns a map of fire station addresses to lists of medical record
 	 * information for people located at those addresses.
@@ -251,51 +614,154 @@ public class PersonService {
 	 *         information for people at those addresses.
 	 */
 	public Map<String, List<MedicalRecordInfo>> listOfPersonsByAddressByStationNumber(List<Firestation> firestations) {
+		List<List<Person>> personsByFirestation = joinPersons(firestations);
+		Map<String, MedicalRecord> medicalRecords = medicalRecordService.getMedicalRecordsByFullName(HashJoin.flatten(personsByFirestation));
 		Map<String, List<MedicalRecordInfo>> medicalRecordsByAddress = new HashMap<>();
-		for (Firestation firestation : firestations) {
-			List<Person> persons = new ArrayList<>(getPersonsByAddress(firestation.address()));
-			List<MedicalRecordInfo> medicalRecordInfos = getMedicalRecordInfosByListPersons(persons);
-			medicalRecordsByAddress.put(firestation.address(), medicalRecordInfos);
+		for (int i = 0; i < firestations.size(); i++) {
+			medicalRecordsByAddress.put(firestations.get(i).address(), personsByFirestation.get(i).stream()
+					.map(person -> new MedicalRecordInfo(person, medicalRecords.get(person.fullName()))).toList());
 		}
 		return medicalRecordsByAddress;
 	}
 
-	private List<Person> allPersons() {
-		return repository.loadTypeOfData(TypeOfData.PERSONS).stream().map(p -> objectMapper.convertValue(p, Person.class)).filter(Objects::nonNull)
-				.map(Person.class::cast).collect((Collectors.toCollection(ArrayList::new)));
+	/**
+	 * Searches the residents matching a combined filter, from the
+	 * {@link ResidentBitmapIndex}.
+	 *
+	 * @param filter The {@link ResidentFilter} combining the stations, age group,
+	 *               allergies and medications.
+	 * @param limit  The maximum number of residents returned.
+	 * @return A {@link ResidentSearch} with the number of matching residents and
+	 *         the first of them, in the order of the persons.
+	 */
+	public ResidentSearch searchResidents(ResidentFilter filter, int limit) {
+		ResidentBitmaps bitmaps = residentBitmapIndex.getBitmaps();
+		RoaringBitmap selected = bitmaps.select(filter);
+		log.debug("Result of the resident search {} = {} residents", filter, selected.getCardinality());
+		List<ResidentInfo> residents = new ArrayList<>(Math.min(limit, selected.getCardinality()));
+		IntIterator ids = selected.getIntIterator();
+		while (ids.hasNext() && residents.size() < limit) {
+			int id = ids.next();
+			residents.add(new ResidentInfo(bitmaps.resident(id), bitmaps.medicalRecord(id)));
+		}
+		return new ResidentSearch(selected.getCardinality(), residents);
 	}
 
-	private void savePersons(List<Person> persons) {
-		repository.saveData(TypeOfData.PERSONS,
-				persons.stream().map(personsObj -> objectMapper.convertValue(personsObj, Person.class)).collect(Collectors.toList()));
+	/**
+	 * Searches the residents taking a medication, from the
+	 * {@link MedicalRecordMedicationIndex}.
+	 *
+	 * @param medication    The name of the medication, without dosage and
+	 *                      ignoring case.
+	 * @param stationNumber The fire station covering the residents, or null.
+	 * @param address       The address of the residents, or null, resolved by
+	 *                      {@link #resolveAddress(String)}.
+	 * @param limit         The maximum number of residents returned.
+	 * @return A {@link ResidentSearch} with the number of matching residents and
+	 *         the first of them.
+	 * @throws IllegalArgumentException If no resident takes the medication, or
+	 *                                  the station number or the address is
+	 *                                  unknown.
+	 */
+	public ResidentSearch searchByMedication(String medication, Integer stationNumber, String address, int limit) {
+		List<MedicalRecord> medicalRecords = medicalRecordMedicationIndex.get(MedicalTokens.medication(medication));
+		log.debug("Result of medicalRecords for medication {} = {} ", medication, medicalRecords);
+		if (medicalRecords.isEmpty()) {
+			throw new IllegalArgumentException("Unknown medication: " + medication);
+		}
+		return searchByMedicalRecords(medicalRecords, stationNumber, address, limit);
 	}
 
-	private List<MedicalRecordInfo> getMedicalRecordInfosByListPersons(List<Person> persons) {
-		return persons.stream().map(this::getMedicalRecordInfosByPerson).toList();
+	/**
+	 * Searches the residents having an allergy, from the
+	 * {@link MedicalRecordAllergyIndex}.
+	 *
+	 * @param allergy       The allergy, ignoring case.
+	 * @param stationNumber The fire station covering the residents, or null.
+	 * @param address       The address of the residents, or null, resolved by
+	 *                      {@link #resolveAddress(String)}.
+	 * @param limit         The maximum number of residents returned.
+	 * @return A {@link ResidentSearch} with the number of matching residents and
+	 *         the first of them.
+	 * @throws IllegalArgumentException If no resident has the allergy, or the
+	 *                                  station number or the address is unknown.
+	 */
+	public ResidentSearch searchByAllergy(String allergy, Integer stationNumber, String address, int limit) {
+		List<MedicalRecord> medicalRecords = medicalRecordAllergyIndex.get(MedicalTokens.allergy(allergy));
+		log.debug("Result of medicalRecords for allergy {} = {} ", allergy, medicalRecords);
+		if (medicalRecords.isEmpty()) {
+			throw new IllegalArgumentException("Unknown allergy: " + allergy);
+		}
+		return searchByMedicalRecords(medicalRecords, stationNumber, address, limit);
 	}
 
-	private MedicalRecordInfo getMedicalRecordInfosByPerson(Person person) {
-		return new MedicalRecordInfo(person, medicalRecordService.getMedicalRecordByFullName(person.fullName()));
+	private ResidentSearch searchByMedicalRecords(List<MedicalRecord> medicalRecords, Integer stationNumber, String address, int limit) {
+		Set<String> addresses = null;
+		if (stationNumber != null) {
+			List<Firestation> firestations = firestationService.findFireStationByStationNumber(stationNumber);
+			if (firestations.isEmpty()) {
+				log.error("Unknown station number : {}", stationNumber);
+				throw new IllegalArgumentException(unknownStationNumber + stationNumber);
+			}
+			addresses = firestations.stream().map(Firestation::address).collect(Collectors.toSet());
+		}
+		if (address != null) {
+			String resolvedAddress = resolveAddress(address);
+			addresses = addresses == null || addresses.contains(resolvedAddress) ? Set.of(resolvedAddress) : Set.of();
+		}
+		int count = 0;
+		List<ResidentInfo> residents = new ArrayList<>();
+		Set<String> fullNames = new HashSet<>();
+		for (MedicalRecord medicalRecord : medicalRecords) {
+			if (!fullNames.add(medicalRecord.fullName())) {
+				continue;
+			}
+			for (Person person : personNameIndex.get(new NameKey(medicalRecord.lastName(), medicalRecord.firstName()))) {
+				if (addresses == null || addresses.contains(person.address())) {
+					count++;
+					if (residents.size() < limit) {
+						residents.add(new ResidentInfo(person, medicalRecord));
+					}
+				}
+			}
+		}
+		return new ResidentSearch(count, residents);
+	}
 
+	private List<MedicalRecordInfo> getMedicalRecordInfosByListPersons(List<Person> persons) {
+		Map<String, MedicalRecord> medicalRecords = medicalRecordService.getMedicalRecordsByFullName(persons);
+		return persons.stream().map(person -> new MedicalRecordInfo(person, medicalRecords.get(person.fullName()))).toList();
 	}
 
-	private Person getPersonByFullName(String fullName) {
-		return allPersons().stream().filter(p -> p.fullName().equals(fullName)).findFirst().orElse(null);
+	private static Person getPersonByFullName(List<Person> persons, String fullName) {
+		return persons.stream().filter(p -> p.fullName().equals(fullName)).findFirst().orElse(null);
 	}
 
 	private List<Person> getPersonsByStation(int stationNumber) {
+		return getPersonsByStationAddress(getFirestationsByStation(stationNumber));
+	}
+
+	private List<Firestation> getFirestationsByStation(int stationNumber) {
 		List<Firestation> firestation = firestationService.findFireStationByStationNumber(stationNumber);
 		log.debug("Result of findFireStationByStationNumber for stationNumber {} = {} ", stationNumber, firestation);
 		if (firestation.isEmpty()) {
 			log.error("Unknown station number : {}", stationNumber);
 			throw new IllegalArgumentException(unknownStationNumber + stationNumber);
 		}
-		return getPersonsByStationAddress(firestation);
+		return firestation;
 	}
 
 	private List<Person> getPersonsByStationAddress(List<Firestation> firestation) {
-		List<Person> persons = allPersons();
-		return firestation.stream().flatMap(f -> persons.stream().filter(person -> person.address().equals(f.address())).toList().stream()).toList();
+		return HashJoin.flatten(joinPersons(firestation));
+	}
+
+	/**
+	 * Joins fire stations to the persons living at their address, probing the
+	 * {@link PersonAddressIndex} which is the hash table of the persons by
+	 * address, already built and kept up to date.
+	 */
+	private List<List<Person>> joinPersons(List<Firestation> firestations) {
+		return HashJoin.probe(firestations, Firestation::address, personAddressIndex::get);
 	}
 
 }
@@ -0,0 +1,10 @@
+package com.openclassroom.safetynet.view;
+
+/**
+ * Key of the community email search.
+ *
+ * @param city     The city searched.
+ * @param distinct Whether each email address is returned once.
+ */
+public record CityQuery(String city, boolean distinct) {
+}
@@ -0,0 +1,12 @@
+package com.openclassroom.safetynet.view;
+
+/**
+ * Validators of a search result, for the conditional requests.
+ *
+ * @param etag         The entity tag, quoted, which changes whenever an input
+ *                     of the result changes.
+ * @param lastModified The time of the last change of an input of the result,
+ *                     in milliseconds since the epoch.
+ */
+public record DataTag(String etag, long lastModified) {
+}
@@ -0,0 +1,55 @@
+package com.openclassroom.safetynet.view;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.repository.DataSet;
+import com.openclassroom.safetynet.repository.DataSet.Revision;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Computes the {@link DataTag} of a search result from the inputs it is
+ * computed from, without computing the result.
+ *
+ * The inputs are the types of data the search reads, tagged with their
+ * {@link Revision} in the dataset read by the request, and the current day for
+ * the searches classifying the residents as children or adults. The entity tag
+ * lists the revision versions followed by the time of the last change, which
+ * also tells apart the datasets loaded by two runs of the application.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataTags {
+
+	private final JsonRepository repository;
+
+	/**
+	 * Returns the tag of a result.
+	 *
+	 * @param byAge  True if the result depends on the age of the residents, so
+	 *               on the current day.
+	 * @param inputs The types of data the result is computed from.
+	 * @return The {@link DataTag} of the result.
+	 */
+	public DataTag of(boolean byAge, TypeOfData... inputs) {
+		DataSet dataSet = repository.getDataSet();
+		long lastModified = Arrays.stream(inputs).map(dataSet::revisionOf).mapToLong(revision -> revision.modified().toEpochMilli()).max().orElse(0);
+		StringBuilder etag = new StringBuilder("\"");
+		etag.append(Arrays.stream(inputs).map(input -> String.valueOf(dataSet.revisionOf(input).version())).collect(Collectors.joining(".")));
+		etag.append('-').append(Long.toHexString(lastModified));
+		if (byAge) {
+			LocalDate today = AgeClassifier.today();
+			lastModified = Math.max(lastModified, today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+			etag.append('-').append(today.toEpochDay());
+		}
+		return new DataTag(etag.append('"').toString(), lastModified);
+	}
+}
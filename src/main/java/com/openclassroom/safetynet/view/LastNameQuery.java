@@ -0,0 +1,20 @@
+package com.openclassroom.safetynet.view;
+
+/**
+ * Key of the last name search.
+ *
+ * @param lastName The last name searched, or a prefix followed by {@code *}.
+ * @param limit    The maximum number of persons returned for a prefix.
+ */
+public record LastNameQuery(String lastName, int limit) {
+
+	/**
+	 * Checks if a last name is part of the result of the query.
+	 *
+	 * @param candidate The last name.
+	 * @return True if the query searches this last name or a prefix of it.
+	 */
+	public boolean matches(String candidate) {
+		return lastName.endsWith("*") ? candidate.startsWith(lastName.substring(0, lastName.length() - 1)) : candidate.equals(lastName);
+	}
+}
@@ -0,0 +1,162 @@
+package com.openclassroom.safetynet.view;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Results of a search kept per search key.
+ *
+ * A result is computed on the first request of its key and kept until a
+ * mutation touching the key invalidates it. The version of the dataset is
+ * read before a result is computed: a result is only kept if no mutation
+ * touching the view was announced since that version, so that a result
+ * computed while a mutation is applied is never kept once the mutation is
+ * visible. Failed searches are not kept.
+ *
+ * A kept result is only served to a request reading the version it was
+ * computed from or a later one, since a request pinned to an older version
+ * (see {@code ReadContext}) may not see the mutations it reflects, and only
+ * on the day it was computed, since the ages of the residents change with the
+ * day. The other requests compute their result, which replaces a result of an
+ * older version or day.
+ *
+ * @param <K> The type of the search key.
+ * @param <V> The type of the result.
+ */
+public class MaterializedView<K, V> {
+
+	private final String name;
+	private final boolean enabled;
+	private final int maxEntries;
+	private final LongSupplier version;
+	private final LongSupplier day;
+
+	private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+	private long invalidatedVersion = -1;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong rebuildNanos = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/**
+	 * A kept result, with the version of the dataset and the day it was computed
+	 * on.
+	 */
+	private record Entry<V>(V value, long version, long day) {
+	}
+
+	/**
+	 * Constructs a view whose results do not depend on the day.
+	 *
+	 * @param name       The name of the view, used in its statistics.
+	 * @param enabled    Whether the results are kept; if not, every request
+	 *                   computes its result.
+	 * @param maxEntries The maximum number of results kept.
+	 * @param version    The supplier of the version of the dataset read by the
+	 *                   current request.
+	 */
+	public MaterializedView(String name, boolean enabled, int maxEntries, LongSupplier version) {
+		this(name, enabled, maxEntries, version, () -> 0);
+	}
+
+	/**
+	 * Constructs a view whose results are only served on the day they were
+	 * computed.
+	 *
+	 * @param name       The name of the view, used in its statistics.
+	 * @param enabled    Whether the results are kept; if not, every request
+	 *                   computes its result.
+	 * @param maxEntries The maximum number of results kept.
+	 * @param version    The supplier of the version of the dataset read by the
+	 *                   current request.
+	 * @param day        The supplier of the current day, such as
+	 *                   {@code AgeClassifier::lastAdultBirthEpochDay}.
+	 */
+	public MaterializedView(String name, boolean enabled, int maxEntries, LongSupplier version, LongSupplier day) {
+		this.name = name;
+		this.enabled = enabled;
+		this.maxEntries = maxEntries;
+		this.version = version;
+		this.day = day;
+	}
+
+	/**
+	 * Returns the result of a key, computing it if it is not kept.
+	 *
+	 * @param key     The search key.
+	 * @param compute The search computing the result.
+	 * @return The result of the search.
+	 */
+	public V get(K key, Supplier<V> compute) {
+		if (!enabled) {
+			return compute.get();
+		}
+		long readVersion = version.getAsLong();
+		long readDay = day.getAsLong();
+		Entry<V> entry = entries.get(key);
+		if (entry != null && entry.version() <= readVersion && entry.day() == readDay) {
+			hits.incrementAndGet();
+			return entry.value();
+		}
+		misses.incrementAndGet();
+		long start = System.nanoTime();
+		V value = compute.get();
+		rebuildNanos.addAndGet(System.nanoTime() - start);
+		synchronized (this) {
+			Entry<V> kept = entries.get(key);
+			boolean room = kept == null ? entries.size() < maxEntries : kept.version() <= readVersion;
+			if (readVersion >= invalidatedVersion && room) {
+				entries.put(key, new Entry<>(value, readVersion, readDay));
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Invalidates the results of some keys, touched by the mutation producing a
+	 * version of the dataset.
+	 *
+	 * @param keys        The keys touched.
+	 * @param nextVersion The version of the dataset produced by the mutation.
+	 */
+	public synchronized void invalidate(Collection<K> keys, long nextVersion) {
+		invalidatedVersion = Math.max(invalidatedVersion, nextVersion);
+		for (K key : keys) {
+			if (entries.remove(key) != null) {
+				invalidations.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Invalidates the results of the keys matching a condition, touched by the
+	 * mutation producing a version of the dataset.
+	 *
+	 * @param touched     The condition of the keys touched.
+	 * @param nextVersion The version of the dataset produced by the mutation.
+	 */
+	public synchronized void invalidateIf(Predicate<K> touched, long nextVersion) {
+		invalidatedVersion = Math.max(invalidatedVersion, nextVersion);
+		entries.keySet().removeIf(key -> {
+			boolean removed = touched.test(key);
+			if (removed) {
+				invalidations.incrementAndGet();
+			}
+			return removed;
+		});
+	}
+
+	/**
+	 * Returns the statistics of the view.
+	 *
+	 * @return The {@link ViewStats} of the view.
+	 */
+	public ViewStats getStats() {
+		return new ViewStats(name, enabled, entries.size(), hits.get(), misses.get(), rebuildNanos.get() / 1_000, invalidations.get());
+	}
+}
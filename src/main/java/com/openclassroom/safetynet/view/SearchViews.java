@@ -0,0 +1,195 @@
+package com.openclassroom.safetynet.view;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import com.openclassroom.safetynet.config.ViewProperties;
+import com.openclassroom.safetynet.dto.Child;
+import com.openclassroom.safetynet.dto.PersonCoveredByStation;
+import com.openclassroom.safetynet.dto.PersonFloodInfo;
+import com.openclassroom.safetynet.dto.PersonsAndStationInfo;
+import com.openclassroom.safetynet.dto.PersonsLastNameInfo;
+import com.openclassroom.safetynet.index.FirestationAddressIndex;
+import com.openclassroom.safetynet.index.NameKey;
+import com.openclassroom.safetynet.index.PersonNameIndex;
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.DataChangeEvent;
+import com.openclassroom.safetynet.repository.DataReloadEvent;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+
+/**
+ * Materialized views of the searches of the {@code SearchController}, enabled
+ * by the {@link ViewProperties}.
+ *
+ * Each mutation is reduced to the addresses, stations, cities and last names
+ * it touches: the addresses and cities of the persons changed, the addresses
+ * of the persons whose medical record changed, the addresses and stations of
+ * the fire stations changed, and the stations covering all these addresses.
+ * Only the results of these keys are invalidated. A reload of the dataset
+ * invalidates every result, and so does the change of day, since the results
+ * classify the residents as children or adults; until then, the views giving
+ * ages do not serve a result computed on another day.
+ */
+@Component
+@Getter
+public class SearchViews {
+
+	private static final String DAILY_CRON = "0 0 0 * * *";
+
+	private final JsonRepository repository;
+	private final TaskScheduler taskScheduler;
+	private final PersonNameIndex personNameIndex;
+	private final FirestationAddressIndex firestationAddressIndex;
+
+	/**
+	 * The children by address ({@code /childAlert}).
+	 */
+	private final MaterializedView<String, List<Child>> childAlert;
+	/**
+	 * The phone numbers by station number ({@code /phoneAlert}).
+	 */
+	private final MaterializedView<Integer, List<String>> phoneAlert;
+	/**
+	 * The residents and station by address ({@code /fire}).
+	 */
+	private final MaterializedView<String, PersonsAndStationInfo> fire;
+	/**
+	 * The residents by list of station numbers ({@code /flood/stations}).
+	 */
+	private final MaterializedView<List<Integer>, PersonFloodInfo> flood;
+	/**
+	 * The persons covered by station number ({@code /firestation}).
+	 */
+	private final MaterializedView<Integer, PersonCoveredByStation> firestation;
+	/**
+	 * The residents by last name ({@code /personInfolastName}).
+	 */
+	private final MaterializedView<LastNameQuery, List<PersonsLastNameInfo>> personInfoLastName;
+	/**
+	 * The email addresses by city ({@code /communityEmail}).
+	 */
+	private final MaterializedView<CityQuery, List<String>> communityEmail;
+
+	/**
+	 * Constructs the views of the searches.
+	 *
+	 * @param viewProperties          The settings of the views.
+	 * @param repository              The repository, giving the version of the
+	 *                                dataset.
+	 * @param personNameIndex         The index giving the persons whose medical
+	 *                                record changed.
+	 * @param firestationAddressIndex The index giving the stations covering an
+	 *                                address.
+	 * @param taskScheduler           The scheduler of the daily invalidation.
+	 */
+	public SearchViews(ViewProperties viewProperties, JsonRepository repository, PersonNameIndex personNameIndex,
+			FirestationAddressIndex firestationAddressIndex, TaskScheduler taskScheduler) {
+		this.repository = repository;
+		this.taskScheduler = taskScheduler;
+		this.personNameIndex = personNameIndex;
+		this.firestationAddressIndex = firestationAddressIndex;
+		boolean enabled = viewProperties.enabled();
+		int maxEntries = viewProperties.maxEntries();
+		this.childAlert = new MaterializedView<>("childAlert", enabled, maxEntries, this::version, AgeClassifier::lastAdultBirthEpochDay);
+		this.phoneAlert = new MaterializedView<>("phoneAlert", enabled, maxEntries, this::version);
+		this.fire = new MaterializedView<>("fire", enabled, maxEntries, this::version, AgeClassifier::lastAdultBirthEpochDay);
+		this.flood = new MaterializedView<>("flood", enabled, maxEntries, this::version, AgeClassifier::lastAdultBirthEpochDay);
+		this.firestation = new MaterializedView<>("firestation", enabled, maxEntries, this::version, AgeClassifier::lastAdultBirthEpochDay);
+		this.personInfoLastName = new MaterializedView<>("personInfolastName", enabled, maxEntries, this::version,
+				AgeClassifier::lastAdultBirthEpochDay);
+		this.communityEmail = new MaterializedView<>("communityEmail", enabled, maxEntries, this::version);
+	}
+
+	/**
+	 * Schedules the daily invalidation of every result.
+	 */
+	@PostConstruct
+	void init() {
+		taskScheduler.schedule(() -> invalidateAll(version()), new CronTrigger(DAILY_CRON));
+	}
+
+	/**
+	 * Returns the statistics of every view.
+	 *
+	 * @return The {@link ViewStats} of each view.
+	 */
+	public List<ViewStats> getStats() {
+		return List.of(childAlert.getStats(), phoneAlert.getStats(), fire.getStats(), flood.getStats(), firestation.getStats(),
+				personInfoLastName.getStats(), communityEmail.getStats());
+	}
+
+	/**
+	 * Invalidates the results touched by a mutation.
+	 *
+	 * @param event The change of the records.
+	 */
+	@EventListener
+	public void onDataChange(DataChangeEvent event) {
+		Set<String> addresses = new HashSet<>();
+		Set<Integer> stations = new HashSet<>();
+		Set<String> cities = new HashSet<>();
+		Set<String> lastNames = new HashSet<>();
+		for (List<Object> records : List.of(event.removed(), event.added())) {
+			for (Object record : records) {
+				if (record instanceof Person person) {
+					addresses.add(person.address());
+					cities.add(person.city());
+					lastNames.add(person.lastName());
+				} else if (record instanceof Firestation changedFirestation) {
+					addresses.add(changedFirestation.address());
+					stations.add(changedFirestation.station());
+				} else if (record instanceof MedicalRecord medicalRecord) {
+					lastNames.add(medicalRecord.lastName());
+					personNameIndex.get(new NameKey(medicalRecord.lastName(), medicalRecord.firstName())).forEach(person -> addresses.add(person.address()));
+				}
+			}
+		}
+		for (String address : addresses) {
+			firestationAddressIndex.get(address).forEach(covering -> stations.add(covering.station()));
+		}
+		long nextVersion = version() + 1;
+		childAlert.invalidate(addresses, nextVersion);
+		fire.invalidate(addresses, nextVersion);
+		phoneAlert.invalidate(stations, nextVersion);
+		firestation.invalidate(stations, nextVersion);
+		flood.invalidateIf(stationNumbers -> stationNumbers.stream().anyMatch(stations::contains), nextVersion);
+		personInfoLastName.invalidateIf(query -> lastNames.stream().anyMatch(query::matches), nextVersion);
+		communityEmail.invalidateIf(query -> cities.contains(query.city()), nextVersion);
+	}
+
+	/**
+	 * Invalidates every result when the dataset is reloaded.
+	 *
+	 * @param event The reload of the dataset.
+	 */
+	@EventListener
+	public void onDataReload(DataReloadEvent event) {
+		invalidateAll(event.dataSet().version());
+	}
+
+	private void invalidateAll(long version) {
+		childAlert.invalidateIf(key -> true, version);
+		fire.invalidateIf(key -> true, version);
+		phoneAlert.invalidateIf(key -> true, version);
+		firestation.invalidateIf(key -> true, version);
+		flood.invalidateIf(key -> true, version);
+		personInfoLastName.invalidateIf(key -> true, version);
+		communityEmail.invalidateIf(key -> true, version);
+	}
+
+	private long version() {
+		return repository.getDataSet().version();
+	}
+}
@@ -0,0 +1,16 @@
+package com.openclassroom.safetynet.view;
+
+/**
+ * Statistics of a materialized view.
+ *
+ * @param name          The name of the view.
+ * @param enabled       Whether the view keeps its results.
+ * @param entries       The number of results kept.
+ * @param hits          The number of requests answered by a kept result.
+ * @param misses        The number of requests which computed their result.
+ * @param rebuildMicros The total time spent computing results, in
+ *                      microseconds.
+ * @param invalidations The number of kept results invalidated by mutations.
+ */
+public record ViewStats(String name, boolean enabled, int entries, long hits, long misses, long rebuildMicros, long invalidations) {
+}
@@ -0,0 +1,113 @@
+package com.openclassroom.safetynet.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.repository.BinarySnapshotCodec;
+import com.openclassroom.safetynet.repository.JsonDataReader;
+
+/**
+ * Compares the cold load of the dataset from the pretty printed JSON file and
+ * from its binary snapshot, which includes checking the checksum of the JSON
+ * file it was produced from.
+ *
+ * Each load is timed as a single shot, in a fresh JVM per fork. The peak
+ * resident set size of the fork is printed at the end of each trial: the
+ * dataset files are generated in a child process beforehand so that only the
+ * loads weigh on it.
+ *
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark=DataLoadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class DataLoadBenchmark {
+
+	@Param({ "10000", "100000", "1000000" })
+	private int persons;
+
+	private Path directory;
+	private Path jsonFile;
+	private Path snapshotFile;
+	private JsonDataReader jsonDataReader;
+	private BinarySnapshotCodec binarySnapshotCodec;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("safetynet-benchmark");
+		jsonFile = directory.resolve("data.json");
+		snapshotFile = directory.resolve("data.json.bin");
+		SyntheticDataSet.writeInChildProcess(persons, jsonFile);
+		jsonDataReader = new JsonDataReader(new ObjectMapper());
+		binarySnapshotCodec = new BinarySnapshotCodec();
+		System.out.printf("%nJSON file: %d KiB, binary snapshot: %d KiB, RSS before loading: %s%n", Files.size(jsonFile) / 1024,
+				Files.size(snapshotFile) / 1024, procStatus("VmRSS"));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		System.out.printf("%nPeak RSS: %s%n", procStatus("VmHWM"));
+		Files.deleteIfExists(snapshotFile);
+		Files.deleteIfExists(jsonFile);
+		Files.deleteIfExists(directory);
+	}
+
+	@Benchmark
+	public Map<TypeOfData, List<Object>> loadJson() throws IOException {
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(jsonFile))) {
+			return jsonDataReader.read(in, EnumSet.allOf(TypeOfData.class));
+		}
+	}
+
+	@Benchmark
+	public Map<TypeOfData, List<Object>> loadBinarySnapshot() throws IOException {
+		CRC32 checksum = new CRC32();
+		try (InputStream in = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(jsonFile)), checksum)) {
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshotFile))) {
+			return binarySnapshotCodec.read(in, Files.size(jsonFile), checksum.getValue()).orElseThrow().data();
+		}
+	}
+
+	/**
+	 * Reads a memory figure of the current process, only available on Linux.
+	 */
+	private static String procStatus(String key) throws IOException {
+		Path status = Path.of("/proc/self/status");
+		if (!Files.exists(status)) {
+			return "n/a";
+		}
+		return Files.readAllLines(status).stream().filter(line -> line.startsWith(key + ":")).map(line -> line.substring(key.length() + 1).trim())
+				.findFirst().orElse("n/a");
+	}
+}
@@ -0,0 +1,87 @@
+package com.openclassroom.safetynet.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.HashJoin;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.Person;
+
+/**
+ * Compares the ways to join the addresses covered by a fire station to the
+ * persons living there, sweeping the number of addresses and of residents.
+ *
+ * {@code nestedLoop} scans every person for each address, {@code hashJoin}
+ * builds a hash table of the persons by address for each join before probing
+ * it with {@link HashJoin#probe}, and {@code indexProbe} probes a hash table
+ * built beforehand, as the services do with the person address index.
+ *
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark=HashJoinBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HashJoinBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int addresses;
+
+	@Param({ "10000", "100000", "1000000" })
+	private int residents;
+
+	private List<Firestation> firestations;
+	private List<Person> persons;
+	private Map<String, List<Person>> personsByAddress;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		Map<TypeOfData, List<Object>> data = SyntheticDataSet.generate(residents);
+		persons = List.copyOf((List<Person>) (List<?>) data.get(TypeOfData.PERSONS));
+		List<Firestation> allFirestations = (List<Firestation>) (List<?>) data.get(TypeOfData.FIRESTATIONS);
+		firestations = List.copyOf(allFirestations.subList(0, Math.min(addresses, allFirestations.size())));
+		personsByAddress = new HashMap<>();
+		persons.forEach(person -> personsByAddress.computeIfAbsent(person.address(), address -> new ArrayList<>()).add(person));
+	}
+
+	@Benchmark
+	public int nestedLoop() {
+		int count = 0;
+		for (Firestation firestation : firestations) {
+			count += (int) persons.stream().filter(person -> person.address().equals(firestation.address())).count();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int hashJoin() {
+		Map<String, List<Person>> table = new HashMap<>();
+		persons.forEach(person -> table.computeIfAbsent(person.address(), address -> new ArrayList<>()).add(person));
+		return HashJoin.flatten(HashJoin.probe(firestations, Firestation::address, address -> table.getOrDefault(address, List.of()))).size();
+	}
+
+	@Benchmark
+	public int indexProbe() {
+		return HashJoin.flatten(HashJoin.probe(firestations, Firestation::address, address -> personsByAddress.getOrDefault(address, List.of())))
+				.size();
+	}
+}
@@ -0,0 +1,67 @@
+package com.openclassroom.safetynet.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Person;
+
+/**
+ * Compares the cost of reading the persons and saving them back, as done by
+ * every create, update and delete of a person.
+ *
+ * {@code convertValue} is the former path: each record is converted with
+ * {@code ObjectMapper.convertValue} when the list is loaded, and once more
+ * before it is saved. {@code typed} is the typed repository API: the records
+ * are used as they are held in memory and only the list is copied.
+ *
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark=RecordConversionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordConversionBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int persons;
+
+	private ObjectMapper objectMapper;
+	private List<Object> records;
+
+	@Setup
+	public void setup() {
+		objectMapper = new ObjectMapper();
+		records = List.copyOf(SyntheticDataSet.generate(persons).get(TypeOfData.PERSONS));
+	}
+
+	@Benchmark
+	public List<Object> convertValue() {
+		List<Person> loaded = records.stream().map(p -> objectMapper.convertValue(p, Person.class)).collect(Collectors.toCollection(ArrayList::new));
+		return loaded.stream().map(p -> objectMapper.convertValue(p, Person.class)).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public List<Person> typed() {
+		List<Person> loaded = new ArrayList<>((List<Person>) (List<?>) records);
+		return List.copyOf(loaded);
+	}
+}
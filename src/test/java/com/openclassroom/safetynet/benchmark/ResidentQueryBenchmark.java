@@ -0,0 +1,122 @@
+package com.openclassroom.safetynet.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.openclassroom.safetynet.constants.AgeGroup;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.ResidentBitmaps;
+import com.openclassroom.safetynet.index.ResidentFilter;
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+
+/**
+ * Compares a combined search of the residents answered by intersecting the
+ * {@link ResidentBitmaps} with the same search answered by a full scan of the
+ * persons, joined to their fire stations and medical records through hash
+ * maps.
+ *
+ * {@code stationsChildrenPeanut} searches the children covered by stations 1
+ * and 3 with a peanut allergy, a narrow search; {@code adultsPeanutAznol}
+ * searches the adults with a peanut allergy taking aznol, across all the
+ * stations. The time to build the bitmaps is printed at the start of each
+ * trial.
+ *
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark=ResidentQueryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ResidentQueryBenchmark {
+
+	@Param({ "1000000" })
+	private int persons;
+
+	@Param({ "stationsChildrenPeanut", "adultsPeanutAznol" })
+	private String query;
+
+	private List<Person> personList;
+	private Map<String, MedicalRecord> medicalRecordsByFullName;
+	private Map<String, List<Integer>> stationsByAddress;
+	private ResidentFilter filter;
+	private ResidentBitmaps bitmaps;
+	private long lastAdultBirthEpochDay;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		Map<TypeOfData, List<Object>> data = SyntheticDataSet.generate(persons);
+		personList = List.copyOf((List<Person>) (List<?>) data.get(TypeOfData.PERSONS));
+		List<Firestation> firestations = List.copyOf((List<Firestation>) (List<?>) data.get(TypeOfData.FIRESTATIONS));
+		List<MedicalRecord> medicalRecords = List.copyOf((List<MedicalRecord>) (List<?>) data.get(TypeOfData.MEDICALRECORDS));
+		medicalRecordsByFullName = new HashMap<>();
+		medicalRecords.forEach(medicalRecord -> medicalRecordsByFullName.putIfAbsent(medicalRecord.fullName(), medicalRecord));
+		stationsByAddress = new HashMap<>();
+		firestations.forEach(firestation -> stationsByAddress.computeIfAbsent(firestation.address(), address -> new ArrayList<>()).add(firestation.station()));
+		filter = switch (query) {
+		case "stationsChildrenPeanut" -> new ResidentFilter(List.of(1, 3), AgeGroup.CHILD, List.of("peanut"), List.of());
+		case "adultsPeanutAznol" -> new ResidentFilter(List.of(), AgeGroup.ADULT, List.of("peanut"), List.of("aznol"));
+		default -> throw new IllegalArgumentException("Unknown query: " + query);
+		};
+		lastAdultBirthEpochDay = AgeClassifier.lastAdultBirthEpochDay();
+		long start = System.nanoTime();
+		bitmaps = ResidentBitmaps.build(personList, firestations, medicalRecords, lastAdultBirthEpochDay);
+		System.out.printf("%nBitmaps of %d persons built in %d ms, %d residents match%n", persons, (System.nanoTime() - start) / 1_000_000, bitmap());
+	}
+
+	@Benchmark
+	public int bitmap() {
+		return bitmaps.select(filter).getCardinality();
+	}
+
+	@Benchmark
+	public int scan() {
+		int count = 0;
+		for (Person person : personList) {
+			MedicalRecord medicalRecord = medicalRecordsByFullName.get(person.fullName());
+			if (medicalRecord != null && coveredBy(person) && inAgeGroup(medicalRecord) && medicalRecord.allergies().containsAll(filter.allergies())
+					&& takes(medicalRecord)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private boolean coveredBy(Person person) {
+		if (filter.stations().isEmpty()) {
+			return true;
+		}
+		List<Integer> stations = stationsByAddress.getOrDefault(person.address(), List.of());
+		return stations.stream().anyMatch(filter.stations()::contains);
+	}
+
+	private boolean inAgeGroup(MedicalRecord medicalRecord) {
+		boolean child = medicalRecord.birthEpochDay() > lastAdultBirthEpochDay;
+		return filter.ageGroup() == AgeGroup.CHILD ? child : !child;
+	}
+
+	private boolean takes(MedicalRecord medicalRecord) {
+		return filter.medications().stream()
+				.allMatch(name -> medicalRecord.medications().stream().anyMatch(medication -> medication.startsWith(name + ":")));
+	}
+}
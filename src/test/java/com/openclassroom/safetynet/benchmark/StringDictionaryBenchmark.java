@@ -0,0 +1,117 @@
+package com.openclassroom.safetynet.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.repository.JsonDataReader;
+import com.openclassroom.safetynet.repository.StringDictionary;
+
+/**
+ * Compares the memory footprint of the dataset loaded from the JSON file as
+ * parsed ({@code raw}) and once its strings went through a
+ * {@link StringDictionary} ({@code interned}), as the repository does.
+ *
+ * Each load is timed as a single shot. After each iteration, the heap retained
+ * by the loaded records is printed: the heap used after a full garbage
+ * collection, minus the heap used before the load. The dictionary is kept
+ * with the interned records, as in the repository.
+ *
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark=StringDictionaryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StringDictionaryBenchmark {
+
+	@Param({ "1000000" })
+	private int persons;
+
+	@Param({ "raw", "interned" })
+	private String loading;
+
+	private Path directory;
+	private Path jsonFile;
+	private JsonDataReader jsonDataReader;
+	private Map<TypeOfData, List<Object>> loaded;
+	private StringDictionary dictionary;
+	private long heapBeforeLoading;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("safetynet-benchmark");
+		jsonFile = directory.resolve("data.json");
+		SyntheticDataSet.writeInChildProcess(persons, jsonFile);
+		jsonDataReader = new JsonDataReader(new ObjectMapper());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(jsonFile.resolveSibling(jsonFile.getFileName() + ".bin"));
+		Files.deleteIfExists(jsonFile);
+		Files.deleteIfExists(directory);
+	}
+
+	@Setup(Level.Iteration)
+	public void beforeLoading() {
+		loaded = null;
+		dictionary = null;
+		heapBeforeLoading = usedHeapAfterGc();
+	}
+
+	@TearDown(Level.Iteration)
+	public void afterLoading() {
+		long retained = usedHeapAfterGc() - heapBeforeLoading;
+		System.out.printf("%n%s records of %d persons: %d MiB retained%s%n", loading, persons, retained / (1024 * 1024),
+				"interned".equals(loading) ? ", " + dictionary.size() + " distinct strings" : "");
+		loaded = null;
+		dictionary = null;
+	}
+
+	@Benchmark
+	public Map<TypeOfData, List<Object>> load() throws IOException {
+		Map<TypeOfData, List<Object>> data;
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(jsonFile))) {
+			data = jsonDataReader.read(in, EnumSet.allOf(TypeOfData.class));
+		}
+		if ("interned".equals(loading)) {
+			dictionary = new StringDictionary();
+			data.replaceAll((typeOfData, records) -> dictionary.internAll(records));
+		}
+		loaded = data;
+		return data;
+	}
+
+	private static long usedHeapAfterGc() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,165 @@
+package com.openclassroom.safetynet.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.BinarySnapshotCodec;
+
+/**
+ * Generator of large synthetic datasets for the benchmarks.
+ *
+ * The dataset is deterministic for a given number of persons: persons live by
+ * households of three at the same address, each address is covered by one
+ * firestation and each person has one medical record.
+ */
+public final class SyntheticDataSet {
+
+	private static final String[] FIRST_NAMES = { "John", "Jacob", "Tenley", "Roger", "Felicia", "Jonanathan", "Tessa", "Peter", "Foster", "Lily",
+			"Sophia", "Warren", "Zach", "Reginold", "Jamie", "Ron", "Allison", "Brian", "Shawna", "Kendrik", "Clive", "Eric", "Emma", "Noah", "Olivia",
+			"Liam", "Ava", "Lucas", "Mia", "Ethan" };
+	private static final String[] LAST_NAMES = { "Boyd", "Marrack", "Carman", "Duncan", "Shepard", "Cooper", "Zemicks", "Walker", "Peters",
+			"Boyle", "Stelzer", "Ferguson", "Cadigan", "Bobby", "Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard", "Durand", "Dubois",
+			"Moreau", "Laurent", "Simon", "Michel", "Lefebvre", "Leroy", "Roux", "David" };
+	private static final String[] STREETS = { "Culver St", "15th St", "Binoc Ave", "Gershwin Cir", "Manchester St", "Ash St", "Toronto St",
+			"Jazz Ave", "Blue Ridge Av", "Flower Dr" };
+	private static final String[] CITIES = { "Culver", "Portland", "Salem", "Eugene", "Bend" };
+	private static final String[] MEDICATIONS = { "aznol:350mg", "hydrapermazol:100mg", "pharmacol:5000mg", "terazine:10mg", "noznazol:250mg",
+			"tetracyclaz:650mg", "dodoxadin:30mg", "thradox:700mg", "ibupurin:200mg", "hydrapermazol:300mg" };
+	private static final String[] ALLERGIES = { "nillacilan", "peanut", "shellfish", "xilliathal" };
+	private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+	private static final int PERSONS_PER_ADDRESS = 3;
+	private static final int ADDRESSES_PER_STATION = 250;
+
+	private SyntheticDataSet() {
+		super();
+	}
+
+	/**
+	 * Generates a dataset.
+	 *
+	 * @param persons The number of persons, and of medical records.
+	 * @return The records of each type of data.
+	 */
+	public static Map<TypeOfData, List<Object>> generate(int persons) {
+		Random random = new Random(persons);
+		int addresses = (persons + PERSONS_PER_ADDRESS - 1) / PERSONS_PER_ADDRESS;
+		int stations = Math.max(4, addresses / ADDRESSES_PER_STATION);
+		LocalDate firstBirthdate = LocalDate.of(1930, 1, 1);
+		int birthdateRange = (int) (LocalDate.of(2024, 12, 31).toEpochDay() - firstBirthdate.toEpochDay());
+
+		List<Object> personList = new ArrayList<>(persons);
+		List<Object> medicalRecordList = new ArrayList<>(persons);
+		for (int i = 0; i < persons; i++) {
+			int household = i / PERSONS_PER_ADDRESS;
+			String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+			int lastNameIndex = i / FIRST_NAMES.length;
+			String lastName = LAST_NAMES[lastNameIndex % LAST_NAMES.length] + (lastNameIndex < LAST_NAMES.length ? "" : "-" + lastNameIndex / LAST_NAMES.length);
+			String email = (firstName.charAt(0) + lastName).toLowerCase() + "@email.com";
+			String phone = String.format("841-%03d-%04d", household / 10000 % 1000, household % 10000);
+			personList.add(new Person(firstName, lastName, address(household), CITIES[household % CITIES.length], String.valueOf(97451 + household % CITIES.length),
+					phone, email));
+
+			String birthdate = firstBirthdate.plusDays(random.nextInt(birthdateRange)).format(BIRTHDATE_FORMAT);
+			medicalRecordList.add(new MedicalRecord(firstName, lastName, birthdate, pick(random, MEDICATIONS, 3), pick(random, ALLERGIES, 2)));
+		}
+		List<Object> firestationList = new ArrayList<>(addresses);
+		for (int household = 0; household < addresses; household++) {
+			firestationList.add(new Firestation(address(household), household % stations + 1));
+		}
+
+		Map<TypeOfData, List<Object>> data = new EnumMap<>(TypeOfData.class);
+		data.put(TypeOfData.PERSONS, personList);
+		data.put(TypeOfData.FIRESTATIONS, firestationList);
+		data.put(TypeOfData.MEDICALRECORDS, medicalRecordList);
+		return data;
+	}
+
+	/**
+	 * Generates a dataset and writes it to a pretty printed JSON data file, in the
+	 * same layout as the repository, and to its binary snapshot.
+	 *
+	 * @param persons  The number of persons, and of medical records.
+	 * @param jsonFile The JSON data file to write. The binary snapshot is written
+	 *                 next to it with the {@code .bin} extension.
+	 * @throws IOException If a file cannot be written.
+	 */
+	public static void write(int persons, Path jsonFile) throws IOException {
+		Map<TypeOfData, List<Object>> data = generate(persons);
+		Map<String, List<Object>> jsonData = new LinkedHashMap<>();
+		data.forEach((type, records) -> jsonData.put(type.getJsonKey(), records));
+		CRC32 checksum = new CRC32();
+		try (OutputStream out = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(jsonFile)), checksum)) {
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(out, jsonData);
+		}
+		BinarySnapshotCodec.Stamp stamp = new BinarySnapshotCodec.Stamp(Files.size(jsonFile), checksum.getValue());
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(jsonFile.resolveSibling(jsonFile.getFileName() + ".bin")))) {
+			new BinarySnapshotCodec().write(stamp, data, out);
+		}
+	}
+
+	/**
+	 * Writes a dataset in a separate JVM, so that generating it does not weigh on
+	 * the memory of the benchmark.
+	 *
+	 * @param persons  The number of persons, and of medical records.
+	 * @param jsonFile The JSON data file to write.
+	 * @throws IOException If the files cannot be written.
+	 */
+	public static void writeInChildProcess(int persons, Path jsonFile) throws IOException {
+		String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+		Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), SyntheticDataSet.class.getName(),
+				String.valueOf(persons), jsonFile.toString()).inheritIO().start();
+		try {
+			if (process.waitFor() != 0) {
+				throw new IOException("Dataset generation failed with exit code " + process.exitValue());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Dataset generation interrupted", e);
+		}
+	}
+
+	/**
+	 * Writes a dataset: {@code SyntheticDataSet <persons> <jsonFile>}.
+	 *
+	 * @param args The number of persons and the JSON data file to write.
+	 * @throws IOException If a file cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		write(Integer.parseInt(args[0]), Path.of(args[1]));
+	}
+
+	private static String address(int household) {
+		return (household / STREETS.length + 1) + " " + STREETS[household % STREETS.length];
+	}
+
+	private static List<String> pick(Random random, String[] pool, int max) {
+		int count = random.nextInt(max + 1);
+		List<String> picked = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String value = pool[random.nextInt(pool.length)];
+			if (!picked.contains(value)) {
+				picked.add(value);
+			}
+		}
+		return picked;
+	}
+}
@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -27,6 +28,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.openclassroom.safetynet.constants.JsonDataFilePath;
 import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.repository.JsonRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -38,6 +40,9 @@ public class FirestationControllerTest {
 	@Autowired
 	private MockMvc mockMvc;
 
+	@Autowired
+	private JsonRepository repository;
+
 	@Autowired
 	private ObjectMapper mapper;
 
@@ -50,6 +55,11 @@ public class FirestationControllerTest {
 				StandardCopyOption.REPLACE_EXISTING);
 	}
 
+	@BeforeEach
+	void reloadRepository() {
+		repository.reload();
+	}
+
 	@Test
 	void postFirestationTest() throws Exception {
 		Firestation firestation = new Firestation("1510 Culver St", 10);
@@ -101,6 +111,14 @@ public class FirestationControllerTest {
 		mockMvc.perform(delete("/firestation/1509 Culver St")).andExpect(status().isNoContent());
 	}
 
+	@Test
+	void deleteFirestationByNormalizedAddressTest() throws Exception {
+		mockMvc.perform(delete("/firestation/1509 culver street")).andExpect(status().isNoContent());
+		mockMvc.perform(delete("/firestation/1509 Culver St")).andExpect(status().isNotFound());
+
+		setup();
+	}
+
 	@Test
 	void deleteFirestationStationNumberTest() throws Exception {
 		mockMvc.perform(delete("/firestation/1")).andExpect(status().isNoContent());
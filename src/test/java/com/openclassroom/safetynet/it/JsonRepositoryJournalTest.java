@@ -0,0 +1,83 @@
+package com.openclassroom.safetynet.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.openclassroom.safetynet.constants.JsonDataFilePath;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+@SpringBootTest(properties = { "safetynet.storage.journal.enabled=true", "safetynet.storage.group-commit.enabled=true",
+		"safetynet.storage.group-commit.window=200ms" })
+public class JsonRepositoryJournalTest {
+
+	private static final Path JOURNAL = Path.of(JsonDataFilePath.JSONTESTFILEPATH + ".journal");
+
+	@Autowired
+	private JsonRepository repository;
+
+	@BeforeAll
+	static void setup() throws IOException {
+		copyJsonFile();
+	}
+
+	@BeforeEach
+	void reloadRepository() {
+		repository.reload();
+	}
+
+	@AfterEach
+	void restoreJsonFile() throws IOException {
+		Files.deleteIfExists(JOURNAL);
+		copyJsonFile();
+		repository.reload();
+	}
+
+	@AfterAll
+	static void deleteJournal() throws IOException {
+		Files.deleteIfExists(JOURNAL);
+	}
+
+	@Test
+	void stagedWriteShouldSurviveACompactionAndARestart() throws Exception {
+		Person staged = new Person("Stan", "Staged", "1509 Culver St", "Culver", "97451", "841-874-0000", "stan@email.com");
+		CountDownLatch applied = new CountDownLatch(1);
+		CompletableFuture<Boolean> write = CompletableFuture.supplyAsync(() -> repository.update(TypeOfData.PERSONS, Person.class, persons -> {
+			applied.countDown();
+			List<Person> appended = new ArrayList<>(persons);
+			appended.add(staged);
+			return appended;
+		}));
+		assertThat(applied.await(5, TimeUnit.SECONDS)).isTrue();
+
+		repository.compactJournal();
+		assertThat(write.get(5, TimeUnit.SECONDS)).isTrue();
+		repository.reload();
+
+		assertThat(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).contains(staged);
+	}
+
+	private static void copyJsonFile() throws IOException {
+		Files.copy(new File(JsonDataFilePath.JSONFILEPATH).toPath(), new File(JsonDataFilePath.JSONTESTFILEPATH).toPath(),
+				StandardCopyOption.REPLACE_EXISTING);
+	}
+}
@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -27,6 +28,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.openclassroom.safetynet.constants.JsonDataFilePath;
 import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.repository.JsonRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -37,6 +39,9 @@ public class MedicalRecordControllerTest {
 	@Autowired
 	private MockMvc mockMvc;
 
+	@Autowired
+	private JsonRepository repository;
+
 	@Autowired
 	private ObjectMapper mapper;
 
@@ -49,6 +54,11 @@ public class MedicalRecordControllerTest {
 				StandardCopyOption.REPLACE_EXISTING);
 	}
 
+	@BeforeEach
+	void reloadRepository() {
+		repository.reload();
+	}
+
 	@Test
 	void postMedicalRecordnTest() throws Exception {
 		List<String> medications = Arrays.asList("aznol:350mg", "hydrapermazol:100mg");
@@ -13,8 +13,12 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +37,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.openclassroom.safetynet.constants.JsonDataFilePath;
 import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -44,6 +49,9 @@ public class PersonControllerTest {
 	@Autowired
 	private MockMvc mockMvc;
 
+	@Autowired
+	private JsonRepository repository;
+
 	@Autowired
 	private ObjectMapper mapper;
 
@@ -62,6 +70,7 @@ public class PersonControllerTest {
 
 	@BeforeEach
 	void setup() {
+		repository.reload();
 		address = "1509 Culver St";
 		johnDoe = new Person("John", "Doe", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com");
 		johnBoyd = new Person("John", "Boyd", address, "Paris", "97451", "841-874-6512", "jaboyd@email.com");
@@ -173,6 +182,26 @@ public class PersonControllerTest {
 		mockMvc.perform(delete("/person/Tenley/nofound")).andExpect(status().isNotFound());
 	}
 
+	@Test
+	void concurrentPostPersonTest() throws Exception {
+		ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> posts = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			String requestJson = ow.writeValueAsString(new Person("Concurrent" + i, "Doe", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+			posts.add(executor.submit(() -> mockMvc.perform(post("/person").contentType(APPLICATION_JSON_UTF8).content(requestJson))
+					.andExpect(status().isCreated())));
+		}
+		for (Future<?> post : posts) {
+			post.get();
+		}
+		executor.shutdown();
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(searchPersonInDataJson("Concurrent" + i, "Doe")).isNotNull();
+		}
+	}
+
 	private JsonNode searchPersonInDataJson(String firstName, String lastName) throws JsonProcessingException {
 		StringBuilder jsonString = new StringBuilder();
 		try (BufferedReader reader = new BufferedReader(new FileReader(JsonDataFilePath.JSONTESTFILEPATH))) {
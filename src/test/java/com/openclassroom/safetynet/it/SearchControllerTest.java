@@ -1,7 +1,13 @@
 package com.openclassroom.safetynet.it;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.File;
@@ -9,8 +15,13 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -20,9 +31,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import com.jayway.jsonpath.JsonPath;
+import com.openclassroom.safetynet.config.ReadContextAdvice;
 import com.openclassroom.safetynet.constants.JsonDataFilePath;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.controller.SearchController;
+import com.openclassroom.safetynet.index.PersonAddressIndex;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.ReadContext;
+import com.openclassroom.safetynet.service.PersonService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -37,9 +57,23 @@ public class SearchControllerTest {
 				StandardCopyOption.REPLACE_EXISTING);
 	}
 
+	@BeforeEach
+	void reloadRepository() {
+		repository.reload();
+	}
+
 	@Autowired
 	private MockMvc mockMvc;
 
+	@Autowired
+	private JsonRepository repository;
+
+	@Autowired
+	private PersonService personService;
+
+	@Autowired
+	private PersonAddressIndex personAddressIndex;
+
 	public static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON.getType(), MediaType.APPLICATION_JSON.getSubtype(),
 			Charset.forName("utf8"));
 
@@ -75,6 +109,8 @@ public class SearchControllerTest {
 	void getPersonsFullInfoWithLastNameBadRequestTest() throws Exception {
 		mockMvc.perform(get("/personInfolastName?lastName=")).andExpect(status().isBadRequest());
 		mockMvc.perform(get("/personInfolastName?lastName= ")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/personInfolastName?lastName=Bo*&limit=0")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/personInfolastName?lastName=Bo*&limit=1001")).andExpect(status().isBadRequest());
 	}
 
 	@Test
@@ -83,6 +119,272 @@ public class SearchControllerTest {
 		mockMvc.perform(get("/communityEmail?city= ")).andExpect(status().isBadRequest());
 	}
 
+	@Test
+	void stationSummaryShouldMatchTheFirestationCountsAfterMutations() throws Exception {
+		assertStationSummariesMatchFirestationCounts();
+
+		mockMvc.perform(post("/person").contentType(APPLICATION_JSON_UTF8).content(
+				"{\"firstName\":\"Tim\",\"lastName\":\"Summary\",\"address\":\"1509 Culver St\",\"city\":\"Culver\",\"zip\":\"97451\",\"phone\":\"841-874-6512\",\"email\":\"tim@email.com\"}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/medicalrecord").contentType(APPLICATION_JSON_UTF8)
+				.content("{\"firstName\":\"Tim\",\"lastName\":\"Summary\",\"birthdate\":\"01/01/2020\",\"medications\":[],\"allergies\":[]}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/firestation").contentType(APPLICATION_JSON_UTF8).content("{\"address\":\"1509 Culver St\",\"station\":1}"))
+				.andExpect(status().isCreated());
+		assertStationSummariesMatchFirestationCounts();
+
+		mockMvc.perform(delete("/firestation/1509 Culver St")).andExpect(status().isNoContent());
+		mockMvc.perform(delete("/person/Tim/Summary")).andExpect(status().isNoContent());
+		assertStationSummariesMatchFirestationCounts();
+
+		setup();
+	}
+
+	@Test
+	void searchResidentsShouldIntersectTheFilters() throws Exception {
+		String firestation = mockMvc.perform(get("/firestation").param("stationNumber", "3")).andReturn().getResponse().getContentAsString();
+		String children = mockMvc.perform(get("/residents").param("station", "3").param("ageGroup", "CHILD")).andExpect(status().isOk()).andReturn()
+				.getResponse().getContentAsString();
+		assertThat((Object) JsonPath.read(children, "$.count")).isEqualTo(JsonPath.read(firestation, "$.childCounts"));
+
+		String peanut = mockMvc.perform(get("/residents").param("allergy", "Peanut").param("station", "1").param("station", "3")).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<List<String>> allergies = JsonPath.read(peanut, "$.residents[*].allergies");
+		assertThat(allergies).isNotEmpty().allSatisfy(list -> assertThat(list).contains("peanut"));
+
+		mockMvc.perform(get("/residents").param("allergy", "peanut").param("limit", "1")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.residents.length()").value(1));
+		mockMvc.perform(get("/residents").param("ageGroup", "TEENAGER")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/residents").param("limit", "0")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void residentsWithAnUnknownBirthdateShouldBeListedWithoutAge() throws Exception {
+		// GIVEN
+		mockMvc.perform(put("/medicalrecord/Tenley/Boyd").contentType(APPLICATION_JSON_UTF8)
+				.content("{\"firstName\":\"Tenley\",\"lastName\":\"Boyd\",\"birthdate\":\"2012-02-18\",\"medications\":[],\"allergies\":[\"peanut\"]}"))
+				.andExpect(status().isOk());
+
+		// WHEN
+		ResultActions allergyAlert = mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("stationNumber", "3"));
+		ResultActions residents = mockMvc.perform(get("/residents").param("allergy", "peanut").param("station", "3"));
+
+		// THEN
+		allergyAlert.andExpect(status().isOk()).andExpect(jsonPath("$.residents[0].firstName").value("Tenley"))
+				.andExpect(jsonPath("$.residents[0].age").isEmpty());
+		residents.andExpect(status().isOk()).andExpect(jsonPath("$.residents[0].firstName").value("Tenley"))
+				.andExpect(jsonPath("$.residents[0].age").isEmpty());
+		setup();
+	}
+
+	@Test
+	void allergyAlertShouldCountEachResidentOnce() throws Exception {
+		// GIVEN a second medical record of Tenley Boyd
+		mockMvc.perform(post("/medicalrecord").contentType(APPLICATION_JSON_UTF8)
+				.content("{\"firstName\":\"Tenley\",\"lastName\":\"Boyd\",\"birthdate\":\"02/18/2012\",\"medications\":[],\"allergies\":[\"peanut\"]}"))
+				.andExpect(status().isCreated());
+
+		// WHEN THEN
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("stationNumber", "3")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1)).andExpect(jsonPath("$.residents.length()").value(1));
+		setup();
+	}
+
+	@Test
+	void allergyAlertShouldBeLimitedToTheStationOrAddress() throws Exception {
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut")).andExpect(status().isOk()).andExpect(jsonPath("$.count").value(2));
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("stationNumber", "3")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1)).andExpect(jsonPath("$.residents[0].firstName").value("Tenley"));
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("address", "892 Downing Ct")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.residents[0].firstName").value("Sophia"));
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("stationNumber", "3").param("address", "892 Downing Ct"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.count").value(0));
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("stationNumber", "1000")).andExpect(status().isNotFound());
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("address", "892 DOWNING COURT")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1)).andExpect(jsonPath("$.residents[0].firstName").value("Sophia"));
+		mockMvc.perform(get("/medicationAlert").param("medication", "aznol").param("address", "1509 culver street")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.residents[0].firstName").value("John"));
+		mockMvc.perform(get("/allergyAlert").param("allergy", "peanut").param("address", "1510 Culver St")).andExpect(status().isNotFound());
+		mockMvc.perform(get("/medicationAlert").param("medication", " ")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void addressesShouldBeResolvedDespiteTyposAndFormatting() throws Exception {
+		mockMvc.perform(get("/fire").param("address", "1509 CULVER STREET")).andExpect(status().isOk()).andExpect(jsonPath("$.stationNumber").value(3));
+		mockMvc.perform(get("/addresses").param("address", "947 E Rose Drive")).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].address").value("947 E. Rose Dr")).andExpect(jsonPath("$[0].similarity").value(1.0));
+		mockMvc.perform(get("/addresses").param("address", "NoFound")).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(0));
+	}
+
+	@Test
+	void fireShouldLoadEachTypeOfDataOnceFromTheSameVersion() throws Exception {
+		long version = repository.getDataSet().version();
+
+		mockMvc.perform(get("/fire").param("address", "1509 Culver St")).andExpect(status().isOk())
+				.andExpect(header().string(ReadContextAdvice.DATA_VERSION_HEADER, String.valueOf(version)))
+				.andExpect(header().string(ReadContextAdvice.DATA_LOADS_HEADER, "persons=1, firestations=1, medicalrecords=1"));
+	}
+
+	@Test
+	void aRequestShouldReadOneVersionWhileWritesArePublished() throws Exception {
+		List<Person> persons;
+		long rebuilds;
+		// GIVEN a request which read the persons of an address
+		try (ReadContext context = repository.openReadContext()) {
+			long version = repository.getDataSet().version();
+			persons = personService.getPersonsByAddress("1509 Culver St");
+			rebuilds = personAddressIndex.getStats().rebuilds();
+
+			// WHEN two persons are added at the address by another request
+			CompletableFuture.runAsync(() -> {
+				repository.update(TypeOfData.PERSONS, Person.class, records -> append(records, "Tim"));
+				repository.update(TypeOfData.PERSONS, Person.class, records -> append(records, "Tom"));
+			}).get();
+
+			// THEN the request still reads its version, from an index built once
+			// for it
+			assertThat(repository.getDataSet().version()).isEqualTo(version);
+			assertThat(personService.getPersonsByAddress("1509 Culver St")).isEqualTo(persons);
+			assertThat(personService.getPersonsByAddress("29 15th St")).isNotEmpty();
+			assertThat(personService.stationSummary(3).adultCounts()).isPositive();
+			assertThat(personAddressIndex.getStats().rebuilds()).isEqualTo(rebuilds + 1);
+		}
+		// THEN the index built for the older version did not replace the latest
+		// one, which is still patched by the next write
+		repository.update(TypeOfData.PERSONS, Person.class, records -> append(records, "Tam"));
+		assertThat(personService.getPersonsByAddress("1509 Culver St")).hasSize(persons.size() + 3);
+		assertThat(personAddressIndex.getStats().rebuilds()).isEqualTo(rebuilds + 1);
+		setup();
+	}
+
+	private static List<Person> append(List<Person> persons, String firstName) {
+		List<Person> appended = new ArrayList<>(persons);
+		appended.add(new Person(firstName, "Version", "1509 Culver St", "Culver", "97451", "841-874-0000", "version@email.com"));
+		return appended;
+	}
+
+	@Test
+	void phoneAlertShouldNotBeModifiedUntilThePersonsChange() throws Exception {
+		String etag = mockMvc.perform(get("/phoneAlert").param("firestation", "1")).andExpect(status().isOk()).andExpect(header().exists("Last-Modified"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/phoneAlert").param("firestation", "1").header("If-None-Match", etag)).andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		mockMvc.perform(post("/person").contentType(APPLICATION_JSON_UTF8).content(
+				"{\"firstName\":\"Tim\",\"lastName\":\"Etag\",\"address\":\"644 Gershwin Cir\",\"city\":\"Culver\",\"zip\":\"97451\",\"phone\":\"841-874-0000\",\"email\":\"tim@email.com\"}"))
+				.andExpect(status().isCreated());
+		String changedEtag = mockMvc.perform(get("/phoneAlert").param("firestation", "1").header("If-None-Match", etag)).andExpect(status().isOk())
+				.andExpect(jsonPath("$[?(@ == '841-874-0000')]").exists()).andReturn().getResponse().getHeader("ETag");
+		assertThat(changedEtag).isNotEqualTo(etag);
+		setup();
+	}
+
+	@Test
+	void unknownStationShouldNotBeAnsweredNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/firestation").param("stationNumber", "3")).andExpect(status().isOk()).andReturn().getResponse()
+				.getHeader("ETag");
+		String floodEtag = mockMvc.perform(get("/flood/stations").param("stations", "3")).andExpect(status().isOk()).andReturn().getResponse()
+				.getHeader("ETag");
+		String phoneEtag = mockMvc.perform(get("/phoneAlert").param("firestation", "3")).andExpect(status().isOk()).andReturn().getResponse()
+				.getHeader("ETag");
+
+		mockMvc.perform(get("/firestation").param("stationNumber", "1000").header("If-None-Match", etag)).andExpect(status().isNotFound());
+		mockMvc.perform(get("/flood/stations").param("stations", "1000").header("If-None-Match", floodEtag)).andExpect(status().isNotFound());
+		mockMvc.perform(get("/phoneAlert").param("firestation", "1000").header("If-None-Match", phoneEtag)).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void searchesShouldBeStreamedAsNdjsonWhenAccepted() throws Exception {
+		String emails = mockMvc.perform(get("/communityEmail").param("city", "Culver").param("distinct", "true").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(status().isOk()).andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)).andReturn().getResponse()
+				.getContentAsString();
+		String phones = mockMvc.perform(get("/phoneAlert").param("firestation", "3").accept(MediaType.APPLICATION_NDJSON)).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String flood = mockMvc.perform(get("/flood/stations").param("stations", "1,2").accept(MediaType.APPLICATION_NDJSON)).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		List<String> jsonPhones = JsonPath.read(mockMvc.perform(get("/phoneAlert").param("firestation", "3")).andReturn().getResponse().getContentAsString(),
+				"$");
+		Map<String, Object> jsonFlood = JsonPath.read(
+				mockMvc.perform(get("/flood/stations").param("stations", "1,2")).andReturn().getResponse().getContentAsString(), "$.medicalRecordInfo");
+		assertThat(emails.lines()).doesNotHaveDuplicates().contains("\"jaboyd@email.com\"");
+		assertThat(phones.lines().map(line -> (String) JsonPath.read(line, "$"))).containsExactlyElementsOf(jsonPhones);
+		assertThat(flood.lines().map(line -> (String) JsonPath.read(line, "$.address"))).containsExactlyInAnyOrderElementsOf(jsonFlood.keySet());
+		mockMvc.perform(get("/communityEmail").param("city", "Nowhere").accept(MediaType.APPLICATION_NDJSON)).andExpect(status().isNotFound())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$.message").value("Unknown city: Nowhere"));
+	}
+
+	@Test
+	void fireAndChildAlertShouldReturnTheResolvedAddress() throws Exception {
+		mockMvc.perform(get("/fire").param("address", "1509 culver street")).andExpect(status().isOk())
+				.andExpect(header().string(SearchController.RESOLVED_ADDRESS, "1509 Culver St")).andExpect(jsonPath("$.address").value("1509 Culver St"));
+		mockMvc.perform(get("/childAlert").param("address", "1509 culver street")).andExpect(status().isOk())
+				.andExpect(header().string(SearchController.RESOLVED_ADDRESS, "1509 Culver St"));
+	}
+
+	@Test
+	void pagesShouldFollowEachOtherUntilTheWholeResult() throws Exception {
+		List<String> emails = JsonPath.read(mockMvc.perform(get("/communityEmail").param("city", "Culver")).andReturn().getResponse().getContentAsString(),
+				"$");
+		Map<String, Object> flood = JsonPath.read(
+				mockMvc.perform(get("/flood/stations").param("stations", "1,2")).andReturn().getResponse().getContentAsString(), "$.medicalRecordInfo");
+		List<String> boFirstNames = JsonPath.read(
+				mockMvc.perform(get("/personInfolastName").param("lastName", "Bo*")).andReturn().getResponse().getContentAsString(), "$[*].firstName");
+
+		assertThat(readPages("/communityEmail", Map.of("city", "Culver"), 4, "$.items[*]")).isSortedAccordingTo(String::compareTo)
+				.containsExactlyInAnyOrderElementsOf(emails);
+		assertThat(readPages("/communityEmail", Map.of("city", "Culver", "distinct", "true"), 3, "$.items[*]")).isSortedAccordingTo(String::compareTo)
+				.containsExactlyInAnyOrderElementsOf(emails.stream().distinct().toList());
+		assertThat(readPages("/flood/stations", Map.of("stations", "1,2"), 2, "$.items[*].address")).isSorted()
+				.containsExactlyInAnyOrderElementsOf(flood.keySet());
+		assertThat(readPages("/personInfolastName", Map.of("lastName", "Bo*"), 3, "$.items[*].firstName"))
+				.containsExactlyInAnyOrderElementsOf(boFirstNames);
+		mockMvc.perform(get("/communityEmail").param("city", "Nowhere").param("cursor", "")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void cursorsShouldFailClearlyWhenInvalidOrFromAnotherSearch() throws Exception {
+		String cursor = JsonPath.read(mockMvc.perform(get("/communityEmail").param("city", "Culver").param("cursor", "").param("limit", "2"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.items.length()").value(2)).andReturn().getResponse().getContentAsString(),
+				"$.nextCursor");
+
+		mockMvc.perform(get("/communityEmail").param("city", "Culver").param("cursor", "not a cursor")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid cursor: not a cursor"));
+		mockMvc.perform(get("/communityEmail").param("city", "Culver").param("distinct", "true").param("cursor", cursor))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.message").value("Cursor of another search: " + cursor));
+		mockMvc.perform(get("/personInfolastName").param("lastName", "Boyd").param("cursor", cursor)).andExpect(status().isBadRequest());
+	}
+
+	private List<String> readPages(String endpoint, Map<String, String> params, int limit, String items) throws Exception {
+		List<String> results = new ArrayList<>();
+		String cursor = "";
+		while (cursor != null) {
+			MockHttpServletRequestBuilder request = get(endpoint).param("cursor", cursor).param("limit", String.valueOf(limit));
+			params.forEach(request::param);
+			String page = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+			List<String> pageItems = JsonPath.read(page, items);
+			assertThat(pageItems).hasSizeLessThanOrEqualTo(limit);
+			results.addAll(pageItems);
+			cursor = JsonPath.read(page, "$.nextCursor");
+		}
+		return results;
+	}
+
+	private void assertStationSummariesMatchFirestationCounts() throws Exception {
+		for (int stationNumber = 1; stationNumber <= 4; stationNumber++) {
+			String firestation = mockMvc.perform(get("/firestation").param("stationNumber", String.valueOf(stationNumber))).andReturn().getResponse()
+					.getContentAsString();
+			String summary = mockMvc.perform(get("/stationSummary").param("stationNumber", String.valueOf(stationNumber))).andReturn().getResponse()
+					.getContentAsString();
+			if (JsonPath.read(firestation, "$") instanceof Map<?, ?> map && map.containsKey("adultCounts")) {
+				assertThat((Object) JsonPath.read(summary, "$.adultCounts")).isEqualTo(JsonPath.read(firestation, "$.adultCounts"));
+				assertThat((Object) JsonPath.read(summary, "$.childCounts")).isEqualTo(JsonPath.read(firestation, "$.childCounts"));
+			} else {
+				assertThat((Object) JsonPath.read(summary, "$.status")).isEqualTo(404);
+			}
+		}
+	}
+
 	@ParameterizedTest
 	@MethodSource("testCases")
 	void searchControllerSuccessTest(String endpoint, String queryParam, String queryParamValue) throws Exception {
@@ -90,9 +392,11 @@ public class SearchControllerTest {
 	}
 
 	static Object[][] testCases() {
-		return new Object[][] { { "/communityEmail", "city", "Culver" }, { "/personInfolastName", "lastName", "Boyd" },
+		return new Object[][] { { "/communityEmail", "city", "Culver" }, { "/personInfolastName", "lastName", "Boyd" }, { "/personInfolastName", "lastName", "Bo*" },
 				{ "/flood/stations", "stations", "3,4,5" }, { "/fire", "address", "1509 Culver St" }, { "/phoneAlert", "firestation", "1" },
-				{ "/childAlert", "address", "1509 Culver St" }, { "/firestation", "stationNumber", "1" } };
+				{ "/childAlert", "address", "1509 Culver St" }, { "/firestation", "stationNumber", "1" }, { "/stationSummary", "stationNumber", "1" },
+				{ "/medicationAlert", "medication", "Aznol" }, { "/allergyAlert", "allergy", "peanut" },
+				{ "/childAlert", "address", "1509 culver street" }, { "/addresses", "address", "947 Rose Dr" } };
 	}
 
 	@ParameterizedTest
@@ -111,11 +415,17 @@ public class SearchControllerTest {
 	static Object[][] notFoundTestCases() {
 		return new Object[][] { { "/communityEmail", "city", "NoFoundCity", "Unknown city: NoFoundCity" },
 				{ "/personInfolastName", "lastName", "NoFound", "Unknown last name: NoFound" },
+				{ "/personInfolastName", "lastName", "NoFound*", "Unknown last name: NoFound*" },
 				{ "/flood/stations", "stations", "3000,4000,5000", "Unknown station number: [3000, 4000, 5000]" },
 				{ "/fire", "address", "NoFound", "Unknown address: NoFound" },
+				{ "/fire", "address", "1509 Culvr St", "Unknown address: 1509 Culvr St, did you mean: 1509 Culver St" },
+				{ "/fire", "address", "1510 Culver St", "Unknown address: 1510 Culver St, did you mean: 1509 Culver St" },
 				{ "/phoneAlert", "firestation", "1000", "Unknown station number: 1000" },
 				{ "/childAlert", "address", "NoFound", "Unknown address: NoFound" },
-				{ "/firestation", "stationNumber", "1000", "Unknown station number: 1000" } };
+				{ "/firestation", "stationNumber", "1000", "Unknown station number: 1000" },
+				{ "/stationSummary", "stationNumber", "1000", "Unknown station number: 1000" },
+				{ "/medicationAlert", "medication", "NoFound", "Unknown medication: NoFound" },
+				{ "/allergyAlert", "allergy", "NoFound", "Unknown allergy: NoFound" } };
 	}
 
 }
@@ -0,0 +1,96 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.AddressIndex;
+import com.openclassroom.safetynet.index.AddressMatch;
+import com.openclassroom.safetynet.index.FirestationAddressIndex;
+import com.openclassroom.safetynet.index.PersonAddressIndex;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.DataChangeEvent;
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.Splice;
+
+class AddressIndexTest {
+
+	private final Person john = new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+	private final Person tony = new Person("Tony", "Cooper", "112 Steppes Pl", "Culver", "97451", "841-874-6874", "tcoop@ymail.com");
+	private final Person reginold = new Person("Reginold", "Walker", "908 73rd St", "Culver", "97451", "841-874-8547", "reg@email.com");
+	private final List<Object> firestations = List.of(new Firestation("1509 Culver St", 3), new Firestation("947 E. Rose Dr", 1));
+
+	private JsonRepository repository;
+	private PersonAddressIndex personAddressIndex;
+	private FirestationAddressIndex firestationAddressIndex;
+	private AddressIndex index;
+
+	@BeforeEach
+	void setup() {
+		repository = mock(JsonRepository.class);
+		personAddressIndex = new PersonAddressIndex(repository);
+		firestationAddressIndex = new FirestationAddressIndex(repository);
+		index = new AddressIndex(repository, personAddressIndex, firestationAddressIndex);
+		stub(TypeOfData.FIRESTATIONS, Firestation.class, firestations);
+	}
+
+	@Test
+	void shouldNormalizeTheFormattingOfAddresses() {
+		assertThat(AddressIndex.normalize("  947 East Rose Drive ")).isEqualTo("947 e rose dr");
+		assertThat(AddressIndex.normalize("947 E. Rose Dr")).isEqualTo("947 e rose dr");
+		assertThat(AddressIndex.normalize("1509 CULVER street")).isEqualTo("1509 culver st");
+	}
+
+	@Test
+	void shouldResolveAddressesWrittenDifferentlyOrMisspelled() {
+		// GIVEN
+		stub(TypeOfData.PERSONS, Person.class, List.of(john, tony, reginold));
+
+		// WHEN
+		List<String> exact = index.getExact("947 east rose drive");
+		List<AddressMatch> matches = index.search("1509 Culvr St", 5);
+
+		// THEN
+		assertThat(exact).containsExactly("947 E. Rose Dr");
+		assertThat(matches).extracting(AddressMatch::address).containsExactly("1509 Culver St");
+		assertThat(matches.get(0).similarity()).isGreaterThanOrEqualTo(AddressIndex.MIN_SIMILARITY).isLessThan(1);
+		assertThat(index.resolve("112 steppes place")).contains("112 Steppes Pl");
+		assertThat(index.resolve("NoFound")).isEmpty();
+		assertThat(index.resolve("1509 Culvr St")).isEmpty();
+		assertThat(index.resolve("1510 Culver St")).isEmpty();
+	}
+
+	@Test
+	void shouldPatchTheAddressesOnChange() {
+		// GIVEN
+		List<Object> before = List.of(john, tony, reginold);
+		Person movedTony = new Person("Tony", "Cooper", "29 15th St", "Culver", "97451", "841-874-6874", "tcoop@ymail.com");
+		List<Object> after = List.of(john, movedTony, reginold);
+		stub(TypeOfData.PERSONS, Person.class, before);
+		index.resolve("112 Steppes Pl");
+		personAddressIndex.get("112 Steppes Pl");
+		DataChangeEvent event = new DataChangeEvent(TypeOfData.PERSONS, before, after, Splice.diff(TypeOfData.PERSONS, before, after));
+
+		// WHEN
+		personAddressIndex.onDataChange(event);
+		index.onDataChange(event);
+		stub(TypeOfData.PERSONS, Person.class, after);
+
+		// THEN
+		assertThat(index.getExact("112 Steppes Pl")).isEmpty();
+		assertThat(index.resolve("29 15th street")).contains("29 15th St");
+		assertThat(index.resolve("1509 Culver St")).contains("1509 Culver St");
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> void stub(TypeOfData typeOfData, Class<T> recordType, List<Object> records) {
+		when(repository.loadTypeOfData(typeOfData, recordType)).thenReturn((List<T>) (List<?>) records);
+	}
+}
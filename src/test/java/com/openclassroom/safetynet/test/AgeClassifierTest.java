@@ -0,0 +1,63 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.model.AgeClassifier.AgeCounts;
+import com.openclassroom.safetynet.model.MedicalRecord;
+
+class AgeClassifierTest {
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+	@Test
+	void shouldParseBirthdatesIntoEpochDays() {
+		// WHEN
+		int birthEpochDay = MedicalRecord.parseBirthdate("03/06/1984");
+		int clampedBirthEpochDay = MedicalRecord.parseBirthdate("02/30/2001");
+
+		// THEN
+		assertThat(birthEpochDay).isEqualTo(LocalDate.of(1984, 3, 6).toEpochDay());
+		assertThat(clampedBirthEpochDay).isEqualTo(LocalDate.of(2001, 2, 28).toEpochDay());
+		assertThat(MedicalRecord.parseBirthdate("1984-03-06")).isEqualTo(MedicalRecord.UNKNOWN_BIRTHDATE);
+		assertThat(MedicalRecord.parseBirthdate(null)).isEqualTo(MedicalRecord.UNKNOWN_BIRTHDATE);
+	}
+
+	@Test
+	void shouldClassifyOnTheEighteenthBirthdayBoundary() {
+		// GIVEN
+		LocalDate today = AgeClassifier.today();
+		MedicalRecord nineteenToday = medicalRecord(today.minusYears(19));
+		MedicalRecord nineteenTomorrow = medicalRecord(today.minusYears(19).plusDays(1));
+
+		// THEN
+		assertThat(nineteenToday.getAge()).isEqualTo(19);
+		assertThat(nineteenToday.isAdult()).isTrue();
+		assertThat(nineteenTomorrow.getAge()).isEqualTo(18);
+		assertThat(nineteenTomorrow.isChild()).isTrue();
+	}
+
+	@Test
+	void shouldCountAdultsAndChildrenSkippingUnknownBirthdates() {
+		// GIVEN
+		LocalDate today = AgeClassifier.today();
+		List<MedicalRecord> medicalRecords = List.of(medicalRecord(today.minusYears(40)), medicalRecord(today.minusYears(5)),
+				medicalRecord(today.minusYears(19)), new MedicalRecord("John", "Boyd", "unknown", List.of(), List.of()));
+
+		// WHEN
+		AgeCounts counts = AgeClassifier.count(medicalRecords.stream().mapToInt(MedicalRecord::birthEpochDay).toArray());
+
+		// THEN
+		assertThat(counts).isEqualTo(new AgeCounts(2, 1));
+	}
+
+	private static MedicalRecord medicalRecord(LocalDate birthdate) {
+		return new MedicalRecord("John", "Boyd", birthdate.format(FORMATTER), List.of(), List.of());
+	}
+}
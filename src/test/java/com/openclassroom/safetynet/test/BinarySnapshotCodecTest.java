@@ -0,0 +1,74 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.exceptions.DataLoadingException;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.BinarySnapshotCodec;
+
+class BinarySnapshotCodecTest {
+
+	private BinarySnapshotCodec codec;
+	private Map<TypeOfData, List<Object>> data;
+	private byte[] snapshot;
+
+	@BeforeEach
+	void setup() throws IOException {
+		codec = new BinarySnapshotCodec();
+		data = new EnumMap<>(TypeOfData.class);
+		data.put(TypeOfData.PERSONS, List.of(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"),
+				new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", null)));
+		data.put(TypeOfData.FIRESTATIONS, List.of(new Firestation("1509 Culver St", 3), new Firestation("29 15th St", 2)));
+		data.put(TypeOfData.MEDICALRECORDS, List.of(new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg", "hydrapermazol:100mg"), List.of("nillacilan")),
+				new MedicalRecord("Jacob", "Boyd", "03/06/1989", Arrays.asList(), null)));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(new BinarySnapshotCodec.Stamp(1234L, 42L), data, out);
+		snapshot = out.toByteArray();
+	}
+
+	@Test
+	void readShouldReturnTheWrittenRecords() {
+		// WHEN
+		Optional<BinarySnapshotCodec.Snapshot> result = codec.read(new ByteArrayInputStream(snapshot), 1234L, 42L);
+
+		// THEN
+		assertThat(result).isPresent();
+		assertThat(result.get().stamp().jsonChecksum()).isEqualTo(42L);
+		assertThat(result.get().data()).isEqualTo(data);
+	}
+
+	@Test
+	void readShouldIgnoreASnapshotOfAnotherJsonFile() {
+		// WHEN
+		Optional<BinarySnapshotCodec.Snapshot> result = codec.read(new ByteArrayInputStream(snapshot), 1234L, 43L);
+
+		// THEN
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void readShouldRejectATruncatedSnapshot() {
+		// GIVEN
+		ByteArrayInputStream truncated = new ByteArrayInputStream(snapshot, 0, snapshot.length - 3);
+
+		// WHEN THEN
+		assertThatThrownBy(() -> codec.read(truncated, 1234L, 42L)).isInstanceOf(DataLoadingException.class);
+	}
+}
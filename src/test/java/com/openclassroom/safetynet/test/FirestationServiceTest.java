@@ -31,7 +31,7 @@ class FirestationServiceTest {
 		// GIVEN
 		List<Firestation> firestations = Arrays.asList(new Firestation("1509 Culver St", 1), new Firestation("1650 Culver St", 1));
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.FIRESTATIONS)).thenReturn(Arrays.asList(firestations.get(0), firestations.get(1)));
+		when(repository.loadTypeOfData(TypeOfData.FIRESTATIONS, Firestation.class)).thenReturn(Arrays.asList(firestations.get(0), firestations.get(1)));
 
 		// THEN
 		List<Firestation> testFirestations = firestationService.findFireStationByStationNumber(1);
@@ -46,7 +46,7 @@ class FirestationServiceTest {
 		List<Integer> stationNumbers = Arrays.asList(1, 2);
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.FIRESTATIONS)).thenReturn(Arrays.asList(firestations.get(0), firestations.get(1)));
+		when(repository.loadTypeOfData(TypeOfData.FIRESTATIONS, Firestation.class)).thenReturn(Arrays.asList(firestations.get(0), firestations.get(1)));
 
 		// THEN
 		List<Firestation> testFirestations = firestationService.getFirestationByListStationNumber(stationNumbers);
@@ -61,7 +61,7 @@ class FirestationServiceTest {
 		Firestation firestationResult = new Firestation("1509 Culver St", 1);
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.FIRESTATIONS)).thenReturn(Arrays.asList(firestations.get(0), firestations.get(1)));
+		when(repository.loadTypeOfData(TypeOfData.FIRESTATIONS, Firestation.class)).thenReturn(Arrays.asList(firestations.get(0), firestations.get(1)));
 
 		// THEN
 		Firestation testFirestations = firestationService.getFirestationByAddress("1509 Culver St");
@@ -69,4 +69,17 @@ class FirestationServiceTest {
 		assertThat(testFirestations).isEqualTo(firestationResult);
 	}
 
+	@Test
+	void getFirestationByAddressShouldOnlyMatchTheWholeAddress() {
+		// GIVEN
+		List<Firestation> firestations = Arrays.asList(new Firestation("11509 Culver St", 1), new Firestation("1509 Culver St", 2));
+
+		// WHEN
+		when(repository.loadTypeOfData(TypeOfData.FIRESTATIONS, Firestation.class)).thenReturn(Arrays.asList(firestations.get(0), firestations.get(1)));
+
+		// THEN
+		assertThat(firestationService.getFirestationByAddress("1509 Culver St")).isEqualTo(firestations.get(1));
+		assertThat(firestationService.getFirestationByAddress("Culver St")).isNull();
+	}
+
 }
@@ -0,0 +1,90 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.exceptions.DataSavingException;
+import com.openclassroom.safetynet.repository.GroupCommitWriter;
+
+class GroupCommitWriterTest {
+
+	@Test
+	void concurrentCommitsShouldShareFlushes() throws Exception {
+		// GIVEN
+		AtomicInteger applied = new AtomicInteger();
+		AtomicInteger durable = new AtomicInteger();
+		Runnable flush = () -> {
+			int covered = applied.get();
+			sleep(20);
+			durable.set(covered);
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+
+		// WHEN
+		List<Future<Integer>> results = new ArrayList<>();
+		try (GroupCommitWriter writer = new GroupCommitWriter("test-group-commit", flush, Duration.ofMillis(5), 256)) {
+			for (int i = 0; i < 64; i++) {
+				results.add(executor.submit(() -> {
+					int mutation = applied.incrementAndGet();
+					writer.commit();
+					return durable.get() >= mutation ? 1 : 0;
+				}));
+			}
+			int acknowledgedAfterFlush = 0;
+			for (Future<Integer> result : results) {
+				acknowledgedAfterFlush += result.get();
+			}
+
+			// THEN
+			assertThat(acknowledgedAfterFlush).isEqualTo(64);
+			assertThat(writer.getCommitCount()).isEqualTo(64);
+			assertThat(writer.getFlushCount()).isLessThan(64);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void commitShouldFailWhenTheFlushFails() {
+		// GIVEN
+		Runnable flush = () -> {
+			throw new DataSavingException("Error saving data: disk full");
+		};
+
+		try (GroupCommitWriter writer = new GroupCommitWriter("test-group-commit", flush, Duration.ofMillis(1), 256)) {
+			// WHEN THEN
+			assertThatThrownBy(writer::commit).isInstanceOf(DataSavingException.class).hasMessageContaining("disk full");
+		}
+	}
+
+	@Test
+	void commitShouldBeRejectedOnceClosed() {
+		// GIVEN
+		GroupCommitWriter writer = new GroupCommitWriter("test-group-commit", () -> {
+		}, Duration.ofMillis(1), 256);
+
+		// WHEN
+		writer.close();
+
+		// THEN
+		assertThatThrownBy(writer::commit).isInstanceOf(DataSavingException.class);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.index.HashJoin;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.Person;
+
+class HashJoinTest {
+
+	private final Person john = new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+	private final Person jacob = new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", "drk@email.com");
+	private final Person tony = new Person("Tony", "Cooper", "112 Steppes Pl", "Culver", "97451", "841-874-6874", "tcoop@ymail.com");
+	private final Person eric = new Person("Eric", "Cadigan", "951 LoneTree Rd", "Culver", "97451", "841-874-7458", "gramps@email.com");
+	private final Firestation culver = new Firestation("1509 Culver St", 3);
+	private final Firestation steppes = new Firestation("112 Steppes Pl", 3);
+	private final Firestation unknown = new Firestation("29 15th St", 3);
+
+	@Test
+	void shouldJoinInTheOrderOfTheLeftThenRightRecords() {
+		// GIVEN
+		Map<String, List<Person>> personsByAddress = Map.of("1509 Culver St", List.of(john, jacob), "112 Steppes Pl", List.of(tony),
+				"951 LoneTree Rd", List.of(eric));
+
+		// WHEN
+		List<List<Person>> matches = HashJoin.probe(List.of(steppes, unknown, culver), Firestation::address,
+				address -> personsByAddress.getOrDefault(address, List.of()));
+
+		// THEN
+		assertThat(matches).containsExactly(List.of(tony), List.of(), List.of(john, jacob));
+		assertThat(HashJoin.flatten(matches)).containsExactly(tony, john, jacob);
+	}
+
+	@Test
+	void shouldProbeAnExistingHashTable() {
+		// GIVEN
+		Map<String, List<Person>> personsByAddress = Map.of("1509 Culver St", List.of(john, jacob));
+
+		// WHEN
+		List<List<Person>> matches = HashJoin.probe(List.of(culver, steppes), Firestation::address,
+				address -> personsByAddress.getOrDefault(address, List.of()));
+
+		// THEN
+		assertThat(matches).containsExactly(List.of(john, jacob), List.of());
+	}
+}
@@ -0,0 +1,82 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.StorageLayout;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonDataFiles;
+import com.openclassroom.safetynet.repository.JsonDataReader;
+
+class JsonDataFilesTest {
+
+	@TempDir
+	private Path tempDir;
+
+	private ObjectMapper objectMapper;
+	private JsonDataReader jsonDataReader;
+	private Map<TypeOfData, List<Object>> data;
+
+	@BeforeEach
+	void setup() {
+		objectMapper = new ObjectMapper();
+		jsonDataReader = new JsonDataReader(objectMapper);
+		data = new EnumMap<>(TypeOfData.class);
+		data.put(TypeOfData.PERSONS, List.of(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com")));
+		data.put(TypeOfData.FIRESTATIONS, List.of(new Firestation("1509 Culver St", 3)));
+		data.put(TypeOfData.MEDICALRECORDS, List.of(new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of("nillacilan"))));
+	}
+
+	@Test
+	void perCollectionWriteShouldOnlyRewriteTheChangedCollection() throws IOException {
+		// GIVEN
+		JsonDataFiles files = new JsonDataFiles(tempDir.resolve("data.json"), StorageLayout.PER_COLLECTION, objectMapper, jsonDataReader);
+		files.write(data, EnumSet.allOf(TypeOfData.class));
+		FileTime old = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(tempDir.resolve("data/firestations.json"), old);
+		Files.setLastModifiedTime(tempDir.resolve("data/medicalrecords.json"), old);
+		data.put(TypeOfData.PERSONS, List.of());
+
+		// WHEN
+		long checksum = files.write(data, EnumSet.of(TypeOfData.PERSONS));
+
+		// THEN
+		assertThat(files.exists()).isTrue();
+		assertThat(Files.getLastModifiedTime(tempDir.resolve("data/firestations.json"))).isEqualTo(old);
+		assertThat(Files.getLastModifiedTime(tempDir.resolve("data/medicalrecords.json"))).isEqualTo(old);
+		JsonDataFiles reloaded = new JsonDataFiles(tempDir.resolve("data.json"), StorageLayout.PER_COLLECTION, objectMapper, jsonDataReader);
+		assertThat(reloaded.read()).isEqualTo(data);
+		assertThat(reloaded.checksum()).isEqualTo(checksum);
+	}
+
+	@Test
+	void singleFileShouldHoldEveryCollection() {
+		// GIVEN
+		JsonDataFiles files = new JsonDataFiles(tempDir.resolve("data.json"), StorageLayout.SINGLE_FILE, objectMapper, jsonDataReader);
+
+		// WHEN
+		long checksum = files.write(data, EnumSet.of(TypeOfData.PERSONS));
+
+		// THEN
+		JsonDataFiles reloaded = new JsonDataFiles(tempDir.resolve("data.json"), StorageLayout.SINGLE_FILE, objectMapper, jsonDataReader);
+		assertThat(reloaded.read()).isEqualTo(data);
+		assertThat(reloaded.checksum()).isEqualTo(checksum);
+		assertThat(new JsonDataFiles(tempDir.resolve("data.json"), StorageLayout.PER_COLLECTION, objectMapper, jsonDataReader).exists()).isFalse();
+	}
+}
@@ -0,0 +1,60 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.exceptions.DataLoadingException;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonDataReader;
+
+class JsonDataReaderTest {
+
+	private final JsonDataReader jsonDataReader = new JsonDataReader(new ObjectMapper());
+
+	private static final String DOCUMENT = """
+			{
+			  "persons" : [ { "firstName" : "John", "lastName" : "Boyd", "address" : "1509 Culver St", "city" : "Culver",
+			                  "zip" : "97451", "phone" : "841-874-6512", "email" : "jaboyd@email.com" } ],
+			  "unknown" : { "nested" : [ 1, 2, { "deep" : true } ] },
+			  "firestations" : [ { "address" : "1509 Culver St", "station" : "3" }, { "address" : "29 15th St", "station" : "2" } ],
+			  "medicalrecords" : [ { "firstName" : "John", "lastName" : "Boyd", "birthdate" : "03/06/1984",
+			                         "medications" : [ ], "allergies" : [ ] } ]
+			}
+			""";
+
+	@Test
+	void readShouldBindTheRequestedSectionsToRecords() {
+		// GIVEN
+		InputStream in = new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+
+		// WHEN
+		Map<TypeOfData, List<Object>> data = jsonDataReader.read(in, EnumSet.of(TypeOfData.PERSONS, TypeOfData.FIRESTATIONS));
+
+		// THEN
+		assertThat(data).containsOnlyKeys(TypeOfData.PERSONS, TypeOfData.FIRESTATIONS);
+		assertThat(data.get(TypeOfData.PERSONS))
+				.containsExactly(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+		assertThat(data.get(TypeOfData.FIRESTATIONS)).containsExactly(new Firestation("1509 Culver St", 3), new Firestation("29 15th St", 2));
+	}
+
+	@Test
+	void readShouldRejectAMalformedSection() {
+		// GIVEN
+		InputStream in = new ByteArrayInputStream("{ \"persons\" : { } }".getBytes(StandardCharsets.UTF_8));
+
+		// THEN
+		assertThatThrownBy(() -> jsonDataReader.read(in, EnumSet.allOf(TypeOfData.class))).isInstanceOf(DataLoadingException.class);
+	}
+}
@@ -0,0 +1,128 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.view.LastNameQuery;
+import com.openclassroom.safetynet.view.MaterializedView;
+import com.openclassroom.safetynet.view.ViewStats;
+
+class MaterializedViewTest {
+
+	private final AtomicLong version = new AtomicLong();
+	private final AtomicInteger computations = new AtomicInteger();
+
+	@Test
+	void shouldKeepResultsUntilTheirKeyIsInvalidated() {
+		// GIVEN
+		MaterializedView<String, String> view = new MaterializedView<>("test", true, 10, version::get);
+
+		// WHEN
+		view.get("1509 Culver St", () -> compute("first"));
+		view.get("1509 Culver St", () -> compute("second"));
+		view.get("29 15th St", () -> compute("other"));
+		view.invalidate(List.of("29 15th St"), version.incrementAndGet());
+		String result = view.get("1509 Culver St", () -> compute("third"));
+
+		// THEN
+		assertThat(result).isEqualTo("first");
+		assertThat(computations).hasValue(2);
+		assertThat(view.getStats()).extracting(ViewStats::entries, ViewStats::hits, ViewStats::misses, ViewStats::invalidations)
+				.containsExactly(1, 2L, 2L, 1L);
+	}
+
+	@Test
+	void shouldNotKeepAResultComputedBeforeAnInvalidation() {
+		// GIVEN
+		MaterializedView<String, String> view = new MaterializedView<>("test", true, 10, version::get);
+
+		// WHEN
+		view.get("1509 Culver St", () -> {
+			view.invalidate(List.of("1509 Culver St"), version.get() + 1);
+			return compute("stale");
+		});
+		version.incrementAndGet();
+		String result = view.get("1509 Culver St", () -> compute("fresh"));
+
+		// THEN
+		assertThat(result).isEqualTo("fresh");
+		assertThat(view.getStats().entries()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldOnlyServeAResultToTheRequestsOfItsVersionOrLater() {
+		// GIVEN a result computed at version 1
+		MaterializedView<String, String> view = new MaterializedView<>("test", true, 10, version::get);
+		version.set(1);
+		view.get("1509 Culver St", () -> compute("version 1"));
+
+		// WHEN
+		version.set(0);
+		String pinned = view.get("1509 Culver St", () -> compute("version 0"));
+		version.set(2);
+		String later = view.get("1509 Culver St", () -> compute("version 2"));
+
+		// THEN
+		assertThat(pinned).isEqualTo("version 0");
+		assertThat(later).isEqualTo("version 1");
+		assertThat(computations).hasValue(2);
+	}
+
+	@Test
+	void shouldNotServeAResultComputedOnAnotherDay() {
+		// GIVEN
+		AtomicLong day = new AtomicLong(20_000);
+		MaterializedView<String, String> view = new MaterializedView<>("test", true, 10, version::get, day::get);
+		view.get("1509 Culver St", () -> compute("yesterday"));
+
+		// WHEN
+		day.incrementAndGet();
+		String today = view.get("1509 Culver St", () -> compute("today"));
+		String again = view.get("1509 Culver St", () -> compute("again"));
+
+		// THEN
+		assertThat(today).isEqualTo("today");
+		assertThat(again).isEqualTo("today");
+		assertThat(view.getStats().entries()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldComputeEveryRequestWhenDisabled() {
+		// GIVEN
+		MaterializedView<String, String> view = new MaterializedView<>("test", false, 10, version::get);
+
+		// WHEN
+		view.get("1509 Culver St", () -> compute("first"));
+		view.get("1509 Culver St", () -> compute("second"));
+
+		// THEN
+		assertThat(computations).hasValue(2);
+		assertThat(view.getStats().entries()).isZero();
+	}
+
+	@Test
+	void shouldInvalidateTheLastNameQueriesMatchingAChangedName() {
+		// GIVEN
+		MaterializedView<LastNameQuery, String> view = new MaterializedView<>("test", true, 10, version::get);
+		view.get(new LastNameQuery("Boyd", 50), () -> compute("exact"));
+		view.get(new LastNameQuery("Bo*", 50), () -> compute("prefix"));
+		view.get(new LastNameQuery("Zemicks", 50), () -> compute("other"));
+
+		// WHEN
+		view.invalidateIf(query -> query.matches("Boyd"), version.incrementAndGet());
+
+		// THEN
+		assertThat(view.getStats().entries()).isEqualTo(1);
+		assertThat(view.getStats().invalidations()).isEqualTo(2);
+	}
+
+	private String compute(String value) {
+		computations.incrementAndGet();
+		return value;
+	}
+}
@@ -0,0 +1,75 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.MedicalRecordMedicationIndex;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.repository.DataChangeEvent;
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.Splice;
+
+class MedicalRecordMedicationIndexTest {
+
+	private final MedicalRecord john = new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg", "hydrapermazol:100mg"), List.of("nillacilan"));
+	private final MedicalRecord jacob = new MedicalRecord("Jacob", "Boyd", "03/06/1989", List.of("Aznol:200mg", "aznol:350mg"), List.of());
+	private final MedicalRecord tenley = new MedicalRecord("Tenley", "Boyd", "02/18/2012", List.of(), List.of("peanut"));
+
+	private JsonRepository repository;
+	private MedicalRecordMedicationIndex index;
+
+	@BeforeEach
+	void setup() {
+		repository = mock(JsonRepository.class);
+		index = new MedicalRecordMedicationIndex(repository);
+	}
+
+	@Test
+	void shouldListEachMedicalRecordUnderTheNameOfEachMedication() {
+		// GIVEN
+		stubMedicalRecords(List.of(john, jacob, tenley));
+
+		// WHEN
+		List<MedicalRecord> aznol = index.get("aznol");
+		List<MedicalRecord> hydrapermazol = index.get("hydrapermazol");
+
+		// THEN
+		assertThat(aznol).containsExactly(john, jacob);
+		assertThat(hydrapermazol).containsExactly(john);
+		assertThat(index.getStats().keys()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldPatchTheTokensOfTheChangedMedicalRecords() {
+		// GIVEN
+		List<Object> before = List.of(john, jacob, tenley);
+		MedicalRecord treatedTenley = new MedicalRecord("Tenley", "Boyd", "02/18/2012", List.of("terazine:10mg"), List.of("peanut"));
+		MedicalRecord sameTokensJohn = new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:500mg", "hydrapermazol:100mg"), List.of());
+		List<Object> after = List.of(sameTokensJohn, treatedTenley);
+		stubMedicalRecords(before);
+		index.get("aznol");
+
+		// WHEN
+		index.onDataChange(new DataChangeEvent(TypeOfData.MEDICALRECORDS, before, after, Splice.diff(TypeOfData.MEDICALRECORDS, before, after)));
+		stubMedicalRecords(after);
+
+		// THEN
+		assertThat(index.get("aznol")).containsExactly(sameTokensJohn);
+		assertThat(index.get("hydrapermazol")).containsExactly(sameTokensJohn);
+		assertThat(index.get("terazine")).containsExactly(treatedTenley);
+		assertThat(index.getStats().rebuilds()).isEqualTo(1);
+		assertThat(index.getStats().updates()).isEqualTo(1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void stubMedicalRecords(List<Object> medicalRecords) {
+		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS, MedicalRecord.class)).thenReturn((List<MedicalRecord>) (List<?>) medicalRecords);
+	}
+}
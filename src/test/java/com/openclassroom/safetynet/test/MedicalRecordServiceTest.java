@@ -7,6 +7,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -47,7 +48,7 @@ class MedicalRecordServiceTest {
 		MedicalRecord medicalRecord = new MedicalRecord("John", "Doe", "01/01/2014", medications, allergies);
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS)).thenReturn(Arrays.asList(medicalRecords.get(0), medicalRecords.get(1)));
+		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS, MedicalRecord.class)).thenReturn(Arrays.asList(medicalRecords.get(0), medicalRecords.get(1)));
 
 		// THEN
 		MedicalRecord testMedicalRecord = medicalRecordService.getMedicalRecordByFullName("John Doe");
@@ -64,7 +65,7 @@ class MedicalRecordServiceTest {
 				new MedicalRecord("Jane", "Doe", "01/01/2000", medications, allergies));
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS)).thenReturn(Arrays.asList(medicalRecords.get(0), medicalRecords.get(1)));
+		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS, MedicalRecord.class)).thenReturn(Arrays.asList(medicalRecords.get(0), medicalRecords.get(1)));
 
 		// THEN
 		List<MedicalRecord> testMedicalRecord = medicalRecordService.getPersonMedicalRecords(persons);
@@ -72,6 +73,23 @@ class MedicalRecordServiceTest {
 		assertThat(testMedicalRecord).isEqualTo(medicalRecords);
 	}
 
+	@Test
+	void testGetMedicalRecordsByFullName() {
+		// GIVEN
+		List<Person> persons = Arrays.asList(new Person("John", "Doe", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"),
+				new Person("Jack", "Din", "4345 Culver St", "Culver", "97451", "841-874-6515", "jdin@email.com"));
+		List<MedicalRecord> medicalRecords = Arrays.asList(new MedicalRecord("John", "Doe", "01/01/2014", medications, allergies),
+				new MedicalRecord("Jane", "Doe", "01/01/2000", medications, allergies));
+
+		// WHEN
+		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS, MedicalRecord.class)).thenReturn(Arrays.asList(medicalRecords.get(0), medicalRecords.get(1)));
+
+		// THEN
+		Map<String, MedicalRecord> testMedicalRecords = medicalRecordService.getMedicalRecordsByFullName(persons);
+
+		assertThat(testMedicalRecords).isEqualTo(Map.of("John Doe", medicalRecords.get(0)));
+	}
+
 	@Test
 	void testGetPersonAge() {
 		// GIVEN
@@ -80,7 +98,7 @@ class MedicalRecordServiceTest {
 		List<MedicalRecord> medicalRecord = Arrays.asList(new MedicalRecord("John", "Boyd", birthDateString, medications, allergies));
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS)).thenReturn((Arrays.asList(medicalRecord.get(0))));
+		when(repository.loadTypeOfData(TypeOfData.MEDICALRECORDS, MedicalRecord.class)).thenReturn((Arrays.asList(medicalRecord.get(0))));
 
 		// THEN
 		int age = medicalRecord.get(0).getAge();
@@ -0,0 +1,202 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.FsyncPolicy;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.exceptions.DataLoadingException;
+import com.openclassroom.safetynet.exceptions.DataSavingException;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.MutationJournal;
+import com.openclassroom.safetynet.repository.Splice;
+
+class MutationJournalTest {
+
+	@TempDir
+	private Path tempDir;
+
+	private Path journalPath;
+	private ObjectMapper objectMapper;
+
+	private List<Object> before;
+	private List<Object> after;
+
+	@BeforeEach
+	void setup() {
+		journalPath = tempDir.resolve("data.json.journal");
+		objectMapper = new ObjectMapper();
+		before = Arrays.asList(new Firestation("1509 Culver St", 3), new Firestation("29 15th St", 2), new Firestation("834 Binoc Ave", 3));
+		after = Arrays.asList(new Firestation("1509 Culver St", 3), new Firestation("29 15th St", 4), new Firestation("834 Binoc Ave", 3));
+	}
+
+	@Test
+	void diffShouldOnlyKeepTheChangedElements() {
+		// GIVEN
+		List<Object> added = new ArrayList<>(before);
+		added.add(new Firestation("644 Gershwin Cir", 1));
+
+		// WHEN
+		Splice update = Splice.diff(TypeOfData.FIRESTATIONS, before, after);
+		Splice create = Splice.diff(TypeOfData.FIRESTATIONS, before, added);
+		Splice delete = Splice.diff(TypeOfData.FIRESTATIONS, added, before);
+
+		// THEN
+		assertThat(update).isEqualTo(new Splice(TypeOfData.FIRESTATIONS, 1, 1, List.of(new Firestation("29 15th St", 4))));
+		assertThat(create).isEqualTo(new Splice(TypeOfData.FIRESTATIONS, 3, 0, List.of(new Firestation("644 Gershwin Cir", 1))));
+		assertThat(delete).isEqualTo(new Splice(TypeOfData.FIRESTATIONS, 3, 1, List.of()));
+		assertThat(update.applyTo(before)).isEqualTo(after);
+		assertThat(Splice.diff(TypeOfData.FIRESTATIONS, before, before).isEmpty()).isTrue();
+	}
+
+	@Test
+	void openShouldReturnTheEntriesAppendedAgainstTheSameBase() throws IOException {
+		// GIVEN
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS)) {
+			journal.open(bases(42L));
+			journal.append(Splice.diff(TypeOfData.FIRESTATIONS, before, after));
+		}
+
+		// WHEN
+		List<Splice> entries;
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS)) {
+			entries = journal.open(bases(42L));
+		}
+
+		// THEN
+		assertThat(entries).hasSize(1);
+		Splice replayed = entries.get(0);
+		List<Firestation> replayedFirestations = replayed.applyTo(before).stream().map(f -> objectMapper.convertValue(f, Firestation.class)).toList();
+		assertThat(replayedFirestations).isEqualTo(after);
+	}
+
+	@Test
+	void openShouldDiscardEntriesAppendedAgainstAnotherBase() throws IOException {
+		// GIVEN
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS)) {
+			journal.open(bases(42L));
+			journal.append(Splice.diff(TypeOfData.FIRESTATIONS, before, after));
+			journal.reset(bases(43L));
+			journal.append(Splice.diff(TypeOfData.FIRESTATIONS, after, before));
+		}
+
+		// WHEN
+		List<Splice> entriesOfOldBase;
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS)) {
+			entriesOfOldBase = journal.open(bases(42L));
+		}
+
+		// THEN
+		assertThat(entriesOfOldBase).isEmpty();
+	}
+
+	@Test
+	void openShouldOnlyDiscardTheEntriesOfTheFilesRewrittenSince() throws IOException {
+		// GIVEN
+		List<Object> persons = List.of(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS)) {
+			journal.open(bases(42L));
+			journal.append(Splice.diff(TypeOfData.FIRESTATIONS, before, after));
+			journal.append(Splice.diff(TypeOfData.PERSONS, List.of(), persons));
+		}
+		Map<TypeOfData, Long> firestationsRewritten = bases(42L);
+		firestationsRewritten.put(TypeOfData.FIRESTATIONS, 43L);
+
+		// WHEN
+		List<Splice> entries;
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS)) {
+			entries = journal.open(firestationsRewritten);
+		}
+
+		// THEN
+		assertThat(entries).extracting(Splice::typeOfData).containsExactly(TypeOfData.PERSONS);
+	}
+
+	@Test
+	void openShouldIgnoreATornLastEntry() throws IOException {
+		// GIVEN
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.NEVER)) {
+			journal.open(bases(42L));
+			journal.append(Splice.diff(TypeOfData.FIRESTATIONS, before, after));
+		}
+		Files.writeString(journalPath, "{\"typeOfData\":\"FIRESTATIONS\",\"fr", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		// WHEN
+		List<Splice> entries;
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.NEVER)) {
+			entries = journal.open(bases(42L));
+			journal.append(Splice.diff(TypeOfData.FIRESTATIONS, after, before));
+		}
+
+		// THEN
+		assertThat(entries).hasSize(1);
+		assertThat(Files.readAllLines(journalPath)).hasSize(3);
+	}
+
+	@Test
+	void openShouldRejectACorruptEntryFollowedByOthers() throws IOException {
+		// GIVEN
+		try (MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.NEVER)) {
+			journal.open(bases(42L));
+			journal.append(Splice.diff(TypeOfData.FIRESTATIONS, before, after));
+		}
+		Files.writeString(journalPath, "{\"typeOfData\":\"FIRESTATIONS\",\"fr\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		Files.writeString(journalPath, objectMapper.writeValueAsString(Splice.diff(TypeOfData.FIRESTATIONS, after, before)) + "\n",
+				StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		// WHEN
+		MutationJournal journal = new MutationJournal(journalPath, objectMapper, FsyncPolicy.NEVER);
+
+		// THEN
+		assertThatThrownBy(() -> journal.open(bases(42L))).isInstanceOf(DataLoadingException.class).hasMessageContaining("line 3");
+		assertThat(Files.readAllLines(journalPath)).hasSize(4);
+	}
+
+	@Test
+	void appendShouldRemoveAnEntryThatCannotBeForced() throws IOException {
+		// GIVEN
+		MutationJournal journal = spy(new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS));
+		journal.open(bases(42L));
+		journal.append(Splice.diff(TypeOfData.FIRESTATIONS, before, after));
+		doThrow(new DataSavingException("Error syncing journal: device lost")).when(journal).sync();
+
+		// WHEN
+		assertThatThrownBy(() -> journal.append(Splice.diff(TypeOfData.FIRESTATIONS, after, before))).isInstanceOf(DataSavingException.class);
+		doCallRealMethod().when(journal).sync();
+		journal.close();
+
+		// THEN
+		assertThat(journal.size()).isEqualTo(1);
+		try (MutationJournal reopened = new MutationJournal(journalPath, objectMapper, FsyncPolicy.ALWAYS)) {
+			assertThat(reopened.open(bases(42L))).hasSize(1);
+		}
+	}
+
+	private static Map<TypeOfData, Long> bases(long checksum) {
+		Map<TypeOfData, Long> bases = new EnumMap<>(TypeOfData.class);
+		for (TypeOfData type : TypeOfData.values()) {
+			bases.put(type, checksum);
+		}
+		return bases;
+	}
+}
@@ -0,0 +1,102 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.index.PersistentMap;
+
+class PersistentMapTest {
+
+	@Test
+	void patchesShouldLeaveThePreviousMapUnchanged() {
+		// GIVEN
+		PersistentMap<String, Integer> map = PersistentMap.hashed(Map.of("1509 Culver St", 3, "29 15th St", 2));
+
+		// WHEN
+		PersistentMap<String, Integer> patched = map.with("834 Binoc Ave", 3).without("29 15th St").merge("1509 Culver St", 1, Integer::sum);
+
+		// THEN
+		assertThat(map.size()).isEqualTo(2);
+		assertThat(map.get("29 15th St")).isEqualTo(2);
+		assertThat(map.get("834 Binoc Ave")).isNull();
+		assertThat(patched.size()).isEqualTo(2);
+		assertThat(patched.get("1509 Culver St")).isEqualTo(4);
+		assertThat(patched.get("834 Binoc Ave")).isEqualTo(3);
+		assertThat(patched.get("29 15th St")).isNull();
+		assertThat(patched.without("644 Gershwin Cir")).isSameAs(patched);
+	}
+
+	@Test
+	void hashedMapShouldKeepTheKeysSharingAHash() {
+		// GIVEN "Aa" and "BB" have the same hash code
+		PersistentMap<String, Integer> map = PersistentMap.<String, Integer>hashed(Map.of()).with("Aa", 1).with("BB", 2);
+
+		// WHEN
+		PersistentMap<String, Integer> removed = map.without("Aa");
+
+		// THEN
+		assertThat(map.get("Aa")).isEqualTo(1);
+		assertThat(map.get("BB")).isEqualTo(2);
+		assertThat(removed.get("Aa")).isNull();
+		assertThat(removed.get("BB")).isEqualTo(2);
+		assertThat(removed.size()).isEqualTo(1);
+	}
+
+	@Test
+	void sortedMapShouldListTheEntriesFromAKeyInOrder() {
+		// GIVEN
+		PersistentMap<String, Integer> map = PersistentMap.sorted(Map.of("Boyd", 1, "Cadigan", 2, "Zemicks", 3)).with("Marrack", 4);
+
+		// WHEN
+		List<String> keys = new ArrayList<>();
+		map.tailEntries("Bz").forEach(entry -> keys.add(entry.getKey()));
+
+		// THEN
+		assertThat(keys).containsExactly("Cadigan", "Marrack", "Zemicks");
+	}
+
+	@Test
+	void patchesShouldMatchTheSameChangesOfAMutableMap() {
+		// GIVEN
+		Random random = new Random(42);
+		Map<Integer, Integer> hashedExpected = new HashMap<>();
+		TreeMap<Integer, Integer> sortedExpected = new TreeMap<>();
+		PersistentMap<Integer, Integer> hashed = PersistentMap.hashed(Map.of());
+		PersistentMap<Integer, Integer> sorted = PersistentMap.sorted(Map.of());
+
+		// WHEN
+		for (int i = 0; i < 20_000; i++) {
+			int key = random.nextInt(5_000) * 65_536;
+			if (random.nextInt(3) == 0) {
+				hashedExpected.remove(key);
+				sortedExpected.remove(key);
+				hashed = hashed.without(key);
+				sorted = sorted.without(key);
+			} else {
+				hashedExpected.put(key, i);
+				sortedExpected.put(key, i);
+				hashed = hashed.with(key, i);
+				sorted = sorted.with(key, i);
+			}
+		}
+
+		// THEN
+		assertThat(hashed.size()).isEqualTo(hashedExpected.size());
+		assertThat(sorted.size()).isEqualTo(sortedExpected.size());
+		for (int key = 0; key < 5_000; key++) {
+			assertThat(hashed.get(key * 65_536)).isEqualTo(hashedExpected.get(key * 65_536));
+		}
+		List<Integer> sortedKeys = new ArrayList<>();
+		sorted.tailEntries(Integer.MIN_VALUE).forEach(entry -> sortedKeys.add(entry.getKey()));
+		assertThat(sortedKeys).containsExactlyElementsOf(sortedExpected.keySet());
+		assertThat(PersistentMap.hashed(hashedExpected).get(65_536)).isEqualTo(hashedExpected.get(65_536));
+	}
+}
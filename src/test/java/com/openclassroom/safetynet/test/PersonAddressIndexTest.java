@@ -0,0 +1,92 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.IndexStats;
+import com.openclassroom.safetynet.index.PersonAddressIndex;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.DataChangeEvent;
+import com.openclassroom.safetynet.repository.JsonRepository;
+import com.openclassroom.safetynet.repository.Splice;
+
+class PersonAddressIndexTest {
+
+	private final Person john = new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+	private final Person jacob = new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", "drk@email.com");
+	private final Person tony = new Person("Tony", "Cooper", "112 Steppes Pl", "Culver", "97451", "841-874-6874", "tcoop@ymail.com");
+
+	private JsonRepository repository;
+	private PersonAddressIndex index;
+
+	@BeforeEach
+	void setup() {
+		repository = mock(JsonRepository.class);
+		index = new PersonAddressIndex(repository);
+	}
+
+	@Test
+	void shouldReturnPersonsByAddress() {
+		// GIVEN
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(List.of(john, tony, jacob));
+
+		// WHEN
+		List<Person> persons = index.get("1509 Culver St");
+		List<Person> unknown = index.get("Unknown");
+
+		// THEN
+		assertThat(persons).containsExactly(john, jacob);
+		assertThat(unknown).isEmpty();
+		assertThat(index.getStats()).isEqualTo(new IndexStats("personsByAddress", 2, 3, 2, 1, 1, 0));
+	}
+
+	@Test
+	void shouldPatchTheIndexOnChange() {
+		// GIVEN
+		List<Object> before = List.of(john, tony, jacob);
+		Person movedTony = new Person("Tony", "Cooper", "1509 Culver St", "Culver", "97451", "841-874-6874", "tcoop@ymail.com");
+		List<Object> after = List.of(john, movedTony);
+		stubPersons(before);
+		index.get("1509 Culver St");
+
+		// WHEN
+		index.onDataChange(new DataChangeEvent(TypeOfData.PERSONS, before, after, Splice.diff(TypeOfData.PERSONS, before, after)));
+		stubPersons(after);
+
+		// THEN
+		assertThat(index.get("1509 Culver St")).containsExactly(john, movedTony);
+		assertThat(index.get("112 Steppes Pl")).isEmpty();
+		assertThat(index.getStats().rebuilds()).isEqualTo(1);
+		assertThat(index.getStats().updates()).isEqualTo(1);
+		stubPersons(before);
+		assertThat(index.get("112 Steppes Pl")).containsExactly(tony);
+		assertThat(index.getStats().rebuilds()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldRebuildTheIndexWhenThePersonsAreReplaced() {
+		// GIVEN
+		stubPersons(List.of(john));
+		index.get("1509 Culver St");
+
+		// WHEN
+		stubPersons(List.of(tony));
+
+		// THEN
+		assertThat(index.get("1509 Culver St")).isEmpty();
+		assertThat(index.get("112 Steppes Pl")).containsExactly(tony);
+		assertThat(index.getStats().rebuilds()).isEqualTo(2);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void stubPersons(List<Object> persons) {
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn((List<Person>) (List<?>) persons);
+	}
+}
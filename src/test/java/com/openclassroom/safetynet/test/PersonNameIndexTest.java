@@ -0,0 +1,86 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.IndexPage;
+import com.openclassroom.safetynet.index.NameKey;
+import com.openclassroom.safetynet.index.PersonNameIndex;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonRepository;
+
+class PersonNameIndexTest {
+
+	private final Person johnBoyd = new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+	private final Person jacobBoyd = new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", "drk@email.com");
+	private final Person feliciaBoyer = new Person("Felicia", "Boyer", "1509 Culver St", "Culver", "97451", "841-874-6544", "fboy@email.com");
+	private final Person tonyCooper = new Person("Tony", "Cooper", "112 Steppes Pl", "Culver", "97451", "841-874-6874", "tcoop@ymail.com");
+
+	private JsonRepository repository;
+	private PersonNameIndex index;
+
+	@BeforeEach
+	void setup() {
+		repository = mock(JsonRepository.class);
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(List.of(tonyCooper, feliciaBoyer, johnBoyd, jacobBoyd));
+		index = new PersonNameIndex(repository);
+	}
+
+	@Test
+	void shouldPageTheRangeInTheOrderOfTheNames() {
+		// WHEN
+		IndexPage<NameKey, Person> first = index.page(new NameKey("Bo", ""), 0, key -> key.lastName().startsWith("Bo"), null, 2);
+		IndexPage<NameKey, Person> last = index.page(first.nextKey(), first.nextSkip(), key -> key.lastName().startsWith("Bo"), null, 2);
+
+		// THEN
+		assertThat(first.records()).containsExactly(jacobBoyd, johnBoyd);
+		assertThat(first.nextKey()).isEqualTo(new NameKey("Boyer", "Felicia"));
+		assertThat(last.records()).containsExactly(feliciaBoyer);
+		assertThat(last.nextKey()).isNull();
+	}
+
+	@Test
+	void shouldResumeAfterTheNextKeyWasRemoved() {
+		// GIVEN
+		IndexPage<NameKey, Person> first = index.page(new NameKey("", ""), 0, key -> true, null, 1);
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(List.of(tonyCooper, feliciaBoyer, johnBoyd));
+
+		// WHEN
+		IndexPage<NameKey, Person> next = index.page(first.nextKey(), first.nextSkip(), key -> true, null, 10);
+
+		// THEN
+		assertThat(first.records()).containsExactly(jacobBoyd);
+		assertThat(next.records()).containsExactly(johnBoyd, feliciaBoyer, tonyCooper);
+	}
+
+	@Test
+	void shouldOnlyPageTheFirstRecordOfEachGroup() {
+		// WHEN
+		IndexPage<NameKey, Person> first = index.page(new NameKey("", ""), 0, key -> true, NameKey::lastName, 2);
+		IndexPage<NameKey, Person> last = index.page(first.nextKey(), first.nextSkip(), key -> true, NameKey::lastName, 2);
+
+		// THEN
+		assertThat(first.records()).containsExactly(jacobBoyd, feliciaBoyer);
+		assertThat(last.records()).containsExactly(tonyCooper);
+	}
+
+	@Test
+	void shouldReturnPersonsByLastNameOrPrefixInTheOrderOfTheNames() {
+		// WHEN
+		List<Person> boyds = index.getByLastName("Boyd");
+		List<Person> prefixed = index.getByPrefix("Bo", 10);
+
+		// THEN
+		assertThat(boyds).containsExactly(jacobBoyd, johnBoyd);
+		assertThat(prefixed).containsExactly(jacobBoyd, johnBoyd, feliciaBoyer);
+		assertThat(index.getByPrefix("Bo", 2)).containsExactly(jacobBoyd, johnBoyd);
+		assertThat(index.getByPrefix("Bz", 10)).isEmpty();
+	}
+}
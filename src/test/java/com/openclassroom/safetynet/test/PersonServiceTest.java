@@ -86,7 +86,7 @@ class PersonServiceTest {
 		List<Person> expectedPersons = Arrays.asList(johnDoe, janeDoe);
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1), persons.get(2)));
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1), persons.get(2)));
 
 		// THEN
 		List<Person> personsTest = personService.getPersonsByAddress(address);
@@ -102,7 +102,7 @@ class PersonServiceTest {
 
 		// WHEN
 		when(firestationService.findFireStationByStationNumber(stationNumber)).thenReturn(firestationsN1);
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
 
 		// THEN
 		List<String> phoneNumbers = personService.getPhoneNumbersByStation(stationNumber);
@@ -122,7 +122,7 @@ class PersonServiceTest {
 
 		// WHEN
 		when(firestationService.findFireStationByStationNumber(stationNumber)).thenReturn(firestationsN1);
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
 		when(medicalRecordService.getPersonMedicalRecords(anyList())).thenReturn(medicalRecords);
 
 		// THEN
@@ -140,13 +140,12 @@ class PersonServiceTest {
 		List<MedicalRecordInfo> expectedMedicalRecordInfos = Arrays.asList(
 				new MedicalRecordInfo(johnDoe.firstName(), johnDoe.lastName(), johnDoe.phone(), 10, medications, allergies),
 				new MedicalRecordInfo(janeDoe.firstName(), janeDoe.lastName(), janeDoe.phone(), 24, medications, allergies));
-		PersonsAndStationInfo expectedPersonsAndStationInfoResult = new PersonsAndStationInfo(expectedMedicalRecordInfos, stationNumber);
+		PersonsAndStationInfo expectedPersonsAndStationInfoResult = new PersonsAndStationInfo(address, expectedMedicalRecordInfos, stationNumber);
 
 		// WHEN
 		when(firestationService.getFirestationByAddress(address)).thenReturn(firestationsN1.get(0));
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
-		when(medicalRecordService.getMedicalRecordByFullName(johnDoe.fullName())).thenReturn(medicalRecords.get(0));
-		when(medicalRecordService.getMedicalRecordByFullName(janeDoe.fullName())).thenReturn(medicalRecords.get(1));
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
+		when(medicalRecordService.getMedicalRecordsByFullName(anyList())).thenReturn(Map.of(johnDoe.fullName(), medicalRecords.get(0), janeDoe.fullName(), medicalRecords.get(1)));
 
 		// THEN
 		PersonsAndStationInfo personsAndStationInfoTest = personService.getPersonsAndStationInfoByAddress(address);
@@ -161,13 +160,26 @@ class PersonServiceTest {
 		List<String> emails = Arrays.asList("jaboyd@email.com", "jdoe@email.com", "jdin@email.com");
 		List<String> expectedPersonEmailResult = emails;
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1), persons.get(2)));
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1), persons.get(2)));
 		// THEN
 		List<String> personEmailTest = personService.personEmails("Culver");
 
 		assertThat(personEmailTest).isEqualTo(expectedPersonEmailResult);
 	}
 
+	@Test
+	void shouldReturnDistinctEmailsForPersonsInGivenCity() {
+		// GIVEN
+		Person johnDoeSharingEmail = new Person("Johnny", "Doe", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+		List<String> expectedPersonEmailResult = Arrays.asList("jaboyd@email.com", "jdoe@email.com");
+		// WHEN
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(johnDoe, johnDoeSharingEmail, janeDoe));
+		// THEN
+		List<String> personEmailTest = personService.personEmails("Culver", true);
+
+		assertThat(personEmailTest).isEqualTo(expectedPersonEmailResult);
+	}
+
 	@Test
 	void shouldReturnListOfChildrenForGivenAddress() {
 		// GIVEN
@@ -175,9 +187,8 @@ class PersonServiceTest {
 		List<Child> expectedChildrenResult = Arrays.asList(new Child("John", "Doe", "1509 Culver St", "841-874-6512", 10));
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
-		when(medicalRecordService.getMedicalRecordByFullName(johnDoe.fullName())).thenReturn(johnDoeMedicalRecordRequest);
-		when(medicalRecordService.getMedicalRecordByFullName(janeDoe.fullName())).thenReturn(janeDoeMedicalRecordRequest);
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
+		when(medicalRecordService.getMedicalRecordsByFullName(anyList())).thenReturn(Map.of(johnDoe.fullName(), johnDoeMedicalRecordRequest, janeDoe.fullName(), janeDoeMedicalRecordRequest));
 
 		// THEN
 		List<Child> childrenTest = personService.getChildsByAddress("1509 Culver St");
@@ -193,13 +204,12 @@ class PersonServiceTest {
 		// GIVEN
 		List<Person> persons = Arrays.asList(johnDoe, janeDoe, jackDin);
 		List<PersonsLastNameInfo> expectedPersonsResult = Arrays.asList(
-				new PersonsLastNameInfo("John", "Doe", "1509 Culver St", 10, "jaboyd@email.com", medications, allergies),
-				new PersonsLastNameInfo("Jane", "Doe", "1509 Culver St", 24, "jdoe@email.com", medications, allergies));
+				new PersonsLastNameInfo("Jane", "Doe", "1509 Culver St", 24, "jdoe@email.com", medications, allergies),
+				new PersonsLastNameInfo("John", "Doe", "1509 Culver St", 10, "jaboyd@email.com", medications, allergies));
 
 		// WHEN
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1), persons.get(2)));
-		when(medicalRecordService.getMedicalRecordByFullName(johnDoe.fullName())).thenReturn(johnDoeMedicalRecordRequest);
-		when(medicalRecordService.getMedicalRecordByFullName(janeDoe.fullName())).thenReturn(janeDoeMedicalRecordRequest);
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1), persons.get(2)));
+		when(medicalRecordService.getMedicalRecordsByFullName(anyList())).thenReturn(Map.of(johnDoe.fullName(), johnDoeMedicalRecordRequest, janeDoe.fullName(), janeDoeMedicalRecordRequest));
 
 		// THEN
 		List<PersonsLastNameInfo> personsTest = personService.listOfPersonsByLastName("Doe");
@@ -229,9 +239,8 @@ class PersonServiceTest {
 
 		// WHEN
 		when(firestationService.getFirestationByListStationNumber(anyList())).thenReturn(firestationsResult);
-		when(repository.loadTypeOfData(TypeOfData.PERSONS)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
-		when(medicalRecordService.getMedicalRecordByFullName(johnDoe.fullName())).thenReturn(johnDoeMedicalRecordRequest);
-		when(medicalRecordService.getMedicalRecordByFullName(jackDin.fullName())).thenReturn(jackDinMedicalRecordRequest);
+		when(repository.loadTypeOfData(TypeOfData.PERSONS, Person.class)).thenReturn(Arrays.asList(persons.get(0), persons.get(1)));
+		when(medicalRecordService.getMedicalRecordsByFullName(anyList())).thenReturn(Map.of(johnDoe.fullName(), johnDoeMedicalRecordRequest, jackDin.fullName(), jackDinMedicalRecordRequest));
 
 		// THEN
 		PersonFloodInfo personFloodInfoTest = personService.floodInfo(stationNumbers);
@@ -0,0 +1,78 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassroom.safetynet.constants.AgeGroup;
+import com.openclassroom.safetynet.index.ResidentBitmaps;
+import com.openclassroom.safetynet.index.ResidentFilter;
+import com.openclassroom.safetynet.model.AgeClassifier;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+
+class ResidentBitmapsTest {
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+	private final LocalDate today = AgeClassifier.today();
+	private final List<Person> persons = List.of(person("John", "1509 Culver St"), person("Tenley", "1509 Culver St"), person("Tony", "112 Steppes Pl"),
+			person("Lily", "748 Townings Dr"), person("Eric", "951 LoneTree Rd"));
+	private final List<Firestation> firestations = List.of(new Firestation("1509 Culver St", 3), new Firestation("112 Steppes Pl", 4),
+			new Firestation("748 Townings Dr", 3), new Firestation("951 LoneTree Rd", 2), new Firestation("951 LoneTree Rd", 1));
+	private final List<MedicalRecord> medicalRecords = List.of(medicalRecord("John", today.minusYears(40), List.of("aznol:350mg"), List.of()),
+			medicalRecord("Tenley", today.minusYears(8), List.of(), List.of("peanut")),
+			medicalRecord("Tony", today.minusYears(5), List.of("hydrapermazol:300mg"), List.of("Peanut", "shellfish")),
+			medicalRecord("Lily", today.minusYears(30), List.of("aznol:200mg"), List.of("peanut")));
+	private final ResidentBitmaps bitmaps = ResidentBitmaps.build(persons, firestations, medicalRecords, AgeClassifier.lastAdultBirthEpochDay());
+
+	@Test
+	void shouldIntersectStationsAgeGroupAndAllergies() {
+		// WHEN
+		List<String> children = names(new ResidentFilter(List.of(1, 3), AgeGroup.CHILD, List.of("PEANUT"), null));
+		List<String> peanut = names(new ResidentFilter(null, null, List.of("peanut"), null));
+
+		// THEN
+		assertThat(children).containsExactly("Tenley");
+		assertThat(peanut).containsExactly("Tenley", "Tony", "Lily");
+	}
+
+	@Test
+	void shouldMatchMedicationsByNameWithoutDosage() {
+		// WHEN
+		List<String> aznol = names(new ResidentFilter(List.of(3), AgeGroup.ADULT, null, List.of("Aznol")));
+		List<String> none = names(new ResidentFilter(List.of(1000), null, null, List.of("aznol")));
+
+		// THEN
+		assertThat(aznol).containsExactly("John", "Lily");
+		assertThat(none).isEmpty();
+	}
+
+	@Test
+	void shouldNotIndexPersonsWithoutMedicalRecord() {
+		// WHEN
+		List<String> all = names(new ResidentFilter(null, null, null, null));
+		List<String> station = names(new ResidentFilter(List.of(1, 2), null, null, null));
+
+		// THEN
+		assertThat(all).containsExactly("John", "Tenley", "Tony", "Lily");
+		assertThat(station).isEmpty();
+	}
+
+	private List<String> names(ResidentFilter filter) {
+		return bitmaps.select(filter).stream().mapToObj(id -> bitmaps.resident(id).firstName()).toList();
+	}
+
+	private static Person person(String firstName, String address) {
+		return new Person(firstName, "Boyd", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+	}
+
+	private static MedicalRecord medicalRecord(String firstName, LocalDate birthdate, List<String> medications, List<String> allergies) {
+		return new MedicalRecord(firstName, "Boyd", birthdate.format(FORMATTER), medications, allergies);
+	}
+}
@@ -0,0 +1,105 @@
+package com.openclassroom.safetynet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassroom.safetynet.constants.TypeOfData;
+import com.openclassroom.safetynet.index.MedicalTokens;
+import com.openclassroom.safetynet.model.Firestation;
+import com.openclassroom.safetynet.model.MedicalRecord;
+import com.openclassroom.safetynet.model.Person;
+import com.openclassroom.safetynet.repository.JsonDataReader;
+import com.openclassroom.safetynet.repository.StringDictionary;
+
+class StringDictionaryTest {
+
+	@Test
+	void shouldShareTheEqualStringsOfTheRecords() {
+		// GIVEN
+		StringDictionary dictionary = new StringDictionary();
+		List<Object> records = List.of(new Person("John", "Boyd", new String("1509 Culver St"), "Culver", "97451", "841-874-6512", "jaboyd@email.com"),
+				new Firestation(new String("1509 Culver St"), 3),
+				new MedicalRecord("John", "Boyd", "03/06/1984", new ArrayList<>(List.of(new String("aznol:350mg"))), List.of("nillacilan")),
+				new MedicalRecord("Jacob", "Boyd", "03/06/1989", new ArrayList<>(List.of(new String("aznol:350mg"))), List.of("nillacilan")));
+
+		// WHEN
+		List<Object> interned = dictionary.internAll(records);
+
+		// THEN
+		assertThat(interned).isEqualTo(records);
+		Person person = (Person) interned.get(0);
+		Firestation firestation = (Firestation) interned.get(1);
+		MedicalRecord john = (MedicalRecord) interned.get(2);
+		MedicalRecord jacob = (MedicalRecord) interned.get(3);
+		assertThat(firestation.address()).isSameAs(person.address());
+		assertThat(jacob.medications()).isSameAs(john.medications());
+		assertThat(person.phone()).isSameAs(((Person) records.get(0)).phone());
+		assertThat(jacob.birthEpochDay()).isEqualTo(((MedicalRecord) records.get(3)).birthEpochDay());
+	}
+
+	@Test
+	void shouldOnlyInternTheGivenRange() {
+		// GIVEN
+		StringDictionary dictionary = new StringDictionary();
+		Firestation kept = new Firestation(new String("29 15th St"), 2);
+		Firestation added = new Firestation(new String("29 15th St"), 3);
+		dictionary.intern("29 15th St");
+
+		// WHEN
+		List<Object> interned = dictionary.intern(List.of(kept, added), 1, 1);
+
+		// THEN
+		assertThat(interned.get(0)).isSameAs(kept);
+		assertThat(((Firestation) interned.get(1)).address()).isSameAs(dictionary.intern("29 15th St")).isNotSameAs(added.address());
+		List<Object> unchanged = List.of(kept);
+		assertThat(dictionary.intern(unchanged, 0, 0)).isSameAs(unchanged);
+	}
+
+	@Test
+	void shouldOnlyKeepTheValuesOfTheGivenRecords() {
+		// GIVEN
+		StringDictionary dictionary = new StringDictionary();
+		List<Object> firestations = dictionary.internAll(List.of(new Firestation("29 15th St", 2), new Firestation("834 Binoc Ave", 3)));
+		List<Object> medicalRecords = dictionary.internAll(List.of(new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of())));
+		List<Object> kept = List.of(firestations.get(0));
+
+		// WHEN
+		StringDictionary rebuilt = StringDictionary.of(List.of(kept, medicalRecords));
+
+		// THEN
+		assertThat(rebuilt.size()).isEqualTo(2);
+		assertThat(rebuilt.intern(new String("29 15th St"))).isSameAs(((Firestation) kept.get(0)).address());
+		MedicalRecord john = (MedicalRecord) medicalRecords.get(0);
+		assertThat(rebuilt.intern(new ArrayList<>(List.of("aznol:350mg")))).isSameAs(john.medications());
+	}
+
+	@Test
+	void shouldKeepTheNullElementsOfTheLoadedLists() {
+		// GIVEN
+		String document = """
+				{ "medicalrecords" : [ { "firstName" : "John", "lastName" : "Boyd", "birthdate" : "03/06/1984",
+				                         "medications" : [ null ], "allergies" : [ null, "peanut" ] } ] }
+				""";
+		List<Object> medicalRecords = new JsonDataReader(new ObjectMapper())
+				.read(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), EnumSet.of(TypeOfData.MEDICALRECORDS))
+				.get(TypeOfData.MEDICALRECORDS);
+
+		// WHEN
+		List<Object> interned = new StringDictionary().internAll(medicalRecords);
+
+		// THEN
+		MedicalRecord john = (MedicalRecord) interned.get(0);
+		assertThat(john.medications()).isEqualTo(Arrays.asList((String) null));
+		assertThat(john.allergies()).isEqualTo(Arrays.asList(null, "peanut"));
+		assertThat(MedicalTokens.allergies(john.allergies())).containsExactly("peanut");
+	}
+}